@@ -24,6 +24,7 @@ _clangPath = _toolDir + 'tools/llvm/bin/clang'
 
 _testDir = join(_root, "com.oracle.truffle.llvm.test/tests/")
 _interopTestDir = join(_root, "com.oracle.truffle.llvm.test/interoptests/")
+_bitcodeTestDir = join(_root, "com.oracle.truffle.llvm.test/bitcodetests/")
 
 _gccSuiteDir = join(_root, "com.oracle.truffle.llvm.test/suites/gcc/")
 _gccSuiteDirRoot = join(_gccSuiteDir, 'gcc-5.2.0/gcc/testsuite/')
@@ -68,6 +69,12 @@ def executeGate():
         if t: runAsmTestCases()
     with Task('TestSulong', tasks) as t:
         if t: runTruffleTestCases()
+    with Task('TestSplitting', tasks) as t:
+        if t: runSplittingTestCases()
+    with Task('TestBitcode', tasks) as t:
+        if t: runBitcodeTestCases()
+    with Task('TestPreResolveNativeSymbols', tasks) as t:
+        if t: runPreResolveNativeSymbolsTestCases()
     with Task('TestGCC', tasks) as t:
         if t: runGCCTestCases()
     with Task('TestLLVM', tasks) as t:
@@ -110,6 +117,12 @@ def travis1(args=None):
         if t: runTypeTestCases()
     with Task('TestSulong', tasks) as t:
         if t: runTruffleTestCases()
+    with Task('TestSplitting', tasks) as t:
+        if t: runSplittingTestCases()
+    with Task('TestBitcode', tasks) as t:
+        if t: runBitcodeTestCases()
+    with Task('TestPreResolveNativeSymbols', tasks) as t:
+        if t: runPreResolveNativeSymbolsTestCases()
     with Task('TestLLVM', tasks) as t:
         if t: runLLVMTestCases()
 
@@ -476,6 +489,9 @@ def runTests(args=None):
     runInteropTestCases()
     runTckTestCases()
     runAsmTestCases()
+    runSplittingTestCases()
+    runBitcodeTestCases()
+    runPreResolveNativeSymbolsTestCases()
     runBenchmarkTestCases()
 
 def runBenchmarkTestCases(args=None):
@@ -541,6 +557,26 @@ def runAsmTestCases(args=None):
     vmArgs, _ = truffle_extract_VM_args(args)
     return unittest(getCommonUnitTestOptions() + vmArgs + ['com.oracle.truffle.llvm.test.inlineassembly.LLVMInlineAssemblyTest'])
 
+def runSplittingTestCases(args=None):
+    """runs the splitting test case with the splitting budget enabled and disabled"""
+    ensureLLVMBinariesExist()
+    vmArgs, _ = truffle_extract_VM_args(args)
+    testArgs = getCommonUnitTestOptions() + vmArgs + ['-Dsulong.PrintSplittingStats=true']
+    unittest(testArgs + ['com.oracle.truffle.llvm.test.TestSplitting'])
+    return unittest(testArgs + ['-Dsulong.SplittingBudget=0', 'com.oracle.truffle.llvm.test.TestSplitting'])
+
+def runBitcodeTestCases(args=None):
+    """runs the test cases that are executed as LLVM bitcode (.bc) files"""
+    ensureLLVMBinariesExist()
+    vmArgs, _ = truffle_extract_VM_args(args)
+    return unittest(getCommonUnitTestOptions() + vmArgs + ['com.oracle.truffle.llvm.test.TestBitcodeParser'])
+
+def runPreResolveNativeSymbolsTestCases(args=None):
+    """runs the native symbols test case with the native symbols resolved when the program is loaded"""
+    ensureLLVMBinariesExist()
+    vmArgs, _ = truffle_extract_VM_args(args)
+    return unittest(getCommonUnitTestOptions() + vmArgs + ['-Dsulong.PreResolveNativeSymbols=true', 'com.oracle.truffle.llvm.test.TestPreResolveNativeSymbols'])
+
 def runCompileTestCases(args=None):
     """runs the compile (no execution) test cases of the GCC suite"""
     ensureGCCSuiteExists()
@@ -879,6 +915,7 @@ def clangformatcheck(args=None):
     checkCFile(_suite.dir + '/include/truffle.h')
     checkCFiles(_testDir)
     checkCFiles(_interopTestDir)
+    checkCFiles(_bitcodeTestDir)
     checkCFiles(_libPath)
 
 def checkCFiles(targetDir):
@@ -929,6 +966,9 @@ mx.update_commands(_suite, {
     'su-tests-interop' : [runInteropTestCases, ''],
     'su-tests-tck' : [runTckTestCases, ''],
     'su-tests-asm' : [runAsmTestCases, ''],
+    'su-tests-splitting' : [runSplittingTestCases, ''],
+    'su-tests-bitcode' : [runBitcodeTestCases, ''],
+    'su-tests-preresolve' : [runPreResolveNativeSymbolsTestCases, ''],
     'su-tests-compile' : [runCompileTestCases, ''],
     'su-tests-jruby' : [runTestJRuby, ''],
     'su-tests-argon2' : [runTestArgon2, ''],
@@ -31,10 +31,11 @@ package com.oracle.truffle.llvm.nativeint;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.WeakHashMap;
 
 import com.oracle.graal.truffle.hotspot.nfi.HotSpotNativeFunctionInterface;
 import com.oracle.graal.truffle.hotspot.nfi.HotSpotNativeFunctionPointer;
@@ -59,11 +60,19 @@ public class NativeLookup {
 
     private static NativeFunctionInterface nfi;
 
+    private static Method lookupFunctionPointer;
+
     private List<NativeLibraryHandle> libraryHandles;
 
     private final Map<LLVMFunctionDescriptor, Integer> nativeFunctionLookupStats;
 
-    private final Map<LLVMFunctionDescriptor, NativeFunctionHandle> cachedNativeFunctions = new WeakHashMap<>();
+    private final Map<NativeSignature, NativeFunctionHandle> cachedNativeFunctions = new HashMap<>();
+
+    /**
+     * Caches the addresses of resolved symbols, including {@link #LOOKUP_FAILURE} for symbols that
+     * could not be found in the current libraries.
+     */
+    private final Map<String, Long> resolvedSymbols = new HashMap<>();
 
     private final NodeFactoryFacade facade;
 
@@ -78,6 +87,16 @@ public class NativeLookup {
         return nfi;
     }
 
+    private static Method getLookupFunctionPointer() throws NoSuchMethodException {
+        CompilerAsserts.neverPartOfCompilation();
+        if (lookupFunctionPointer == null) {
+            Method method = HotSpotNativeFunctionInterface.class.getDeclaredMethod("lookupFunctionPointer", String.class, NativeLibraryHandle.class, boolean.class);
+            method.setAccessible(true);
+            lookupFunctionPointer = method;
+        }
+        return lookupFunctionPointer;
+    }
+
     private List<NativeLibraryHandle> getLibraryHandles() {
         CompilerAsserts.neverPartOfCompilation();
         if (libraryHandles == null) {
@@ -110,12 +129,21 @@ public class NativeLookup {
         }
     }
 
-    // TODO extend foreign function interface API
     private long lookupSymbol(String name) {
+        CompilerAsserts.neverPartOfCompilation();
+        Long address = resolvedSymbols.get(name);
+        if (address == null) {
+            address = uncachedLookupSymbol(name);
+            resolvedSymbols.put(name, address);
+        }
+        return address;
+    }
+
+    // TODO extend foreign function interface API
+    private long uncachedLookupSymbol(String name) {
         try {
-            Method method = HotSpotNativeFunctionInterface.class.getDeclaredMethod("lookupFunctionPointer", String.class, NativeLibraryHandle.class, boolean.class);
+            Method method = getLookupFunctionPointer();
             HotSpotNativeFunctionInterface face = (HotSpotNativeFunctionInterface) getNFI();
-            method.setAccessible(true);
             HotSpotNativeLibraryHandle handle;
             if (getLibraryHandles().isEmpty()) {
                 handle = new HotSpotNativeLibraryHandle("", 0);
@@ -141,6 +169,20 @@ public class NativeLookup {
 
     public void addLibraryToNativeLookup(String library) {
         getLibraryHandles().add(getNFI().getLibraryHandle(library));
+        // the new library might define symbols that could not be found so far
+        resolvedSymbols.values().removeIf(address -> address == LOOKUP_FAILURE);
+    }
+
+    /**
+     * Resolves the addresses of the given symbols in one batch, so that later lookups of these
+     * symbols are served from the cache.
+     *
+     * @param names the names of the symbols, with the leading <code>@</code>
+     */
+    public void resolveSymbols(Iterable<String> names) {
+        for (String name : names) {
+            lookupSymbol(name.substring(1));
+        }
     }
 
     /**
@@ -153,29 +195,37 @@ public class NativeLookup {
         return lookupSymbol(name.substring(1));
     }
 
+    /**
+     * Returns a handle to call the native function with the Java classes of the given arguments.
+     * Handles are cached per symbol and signature, so that all call sites of a function that pass
+     * the same argument classes (also for varargs functions such as <code>printf</code>) share a
+     * single handle and thus a single native call stub.
+     */
     public NativeFunctionHandle getNativeHandle(LLVMFunctionDescriptor function, LLVMExpressionNode[] args) {
         CompilerAsserts.neverPartOfCompilation();
-        if (cachedNativeFunctions.containsKey(function)) {
-            return cachedNativeFunctions.get(function);
-        } else {
-            NativeFunctionHandle handle = uncachedGetNativeFunctionHandle(function, args);
-            // FIXME we should also cache var args!
-            if (!function.isVarArgs()) {
-                cachedNativeFunctions.put(function, handle);
+        NativeSignature signature = new NativeSignature(function.getName().substring(1), getJavaClass(function.getReturnType()), getJavaClassses(args));
+        NativeFunctionHandle handle = cachedNativeFunctions.get(signature);
+        if (handle == null) {
+            handle = uncachedGetNativeFunctionHandle(function, signature);
+            if (handle != null) {
+                cachedNativeFunctions.put(signature, handle);
             }
-            return handle;
         }
+        return handle;
     }
 
-    private NativeFunctionHandle uncachedGetNativeFunctionHandle(LLVMFunctionDescriptor function, LLVMExpressionNode[] args) {
-        Class<?> retType = getJavaClass(function.getReturnType());
-        Class<?>[] paramTypes = getJavaClassses(args);
-        String functionName = function.getName().substring(1);
+    private NativeFunctionHandle uncachedGetNativeFunctionHandle(LLVMFunctionDescriptor function, NativeSignature signature) {
+        Class<?> retType = signature.returnType;
+        Class<?>[] paramTypes = signature.parameterTypes;
+        String functionName = signature.name;
         NativeFunctionHandle functionHandle;
         if (functionName.equals("fork") || functionName.equals("pthread_create") || functionName.equals("pipe")) {
             throw new LLVMUnsupportedException(UnsupportedReason.MULTITHREADING);
         }
-        if (LLVMBaseOptionFacade.getDynamicLibraryPaths() == null) {
+        Long address = resolvedSymbols.get(functionName);
+        if (address != null && address != LOOKUP_FAILURE) {
+            functionHandle = getNFI().getFunctionHandle(getNFI().getNativeFunctionPointerFromRawValue(address), retType, paramTypes);
+        } else if (LLVMBaseOptionFacade.getDynamicLibraryPaths() == null) {
             functionHandle = getNFI().getFunctionHandle(functionName, retType, paramTypes);
         } else {
             functionHandle = getNFI().getFunctionHandle(getLibraryHandlesArray(), functionName, retType, paramTypes);
@@ -249,4 +299,32 @@ public class NativeLookup {
         return nativeFunctionLookupStats;
     }
 
+    private static final class NativeSignature {
+
+        private final String name;
+        private final Class<?> returnType;
+        private final Class<?>[] parameterTypes;
+
+        NativeSignature(String name, Class<?> returnType, Class<?>[] parameterTypes) {
+            this.name = name;
+            this.returnType = returnType;
+            this.parameterTypes = parameterTypes;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof NativeSignature)) {
+                return false;
+            }
+            NativeSignature other = (NativeSignature) obj;
+            return name.equals(other.name) && returnType == other.returnType && Arrays.equals(parameterTypes, other.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * name.hashCode() + returnType.hashCode()) + Arrays.hashCode(parameterTypes);
+        }
+
+    }
+
 }
@@ -42,4 +42,15 @@ public abstract class LLVMAddressNode extends LLVMExpressionNode {
 
     public abstract LLVMAddress executePointee(VirtualFrame frame);
 
+    /**
+     * Returns the native address this node evaluates to without requiring a boxed
+     * {@link LLVMAddress}. Only reads of pointer frame slots and static allocations produce the
+     * raw value directly; all other nodes box it first. Callers have to know that the value is
+     * an {@link LLVMAddress} (e.g., the stack pointer), since managed pointers have no native
+     * address.
+     */
+    public long executeRawPointer(VirtualFrame frame) {
+        return executePointee(frame).getVal();
+    }
+
 }
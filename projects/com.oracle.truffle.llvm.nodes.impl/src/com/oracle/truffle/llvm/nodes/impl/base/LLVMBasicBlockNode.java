@@ -36,11 +36,11 @@ import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.ControlFlowException;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
-import com.oracle.truffle.api.nodes.NodeUtil;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.llvm.nodes.base.LLVMNode;
 import com.oracle.truffle.llvm.nodes.impl.func.LLVMFunctionStartNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMRegionRootNode;
 
 /**
  * This node represents a basic block in LLVM. The node contains both sequential statements which do
@@ -156,7 +156,7 @@ public class LLVMBasicBlockNode extends LLVMNode {
         if (sourceSection == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             // No harm in racing to create the source section
-            LLVMFunctionStartNode functionStartNode = NodeUtil.findParent(this, LLVMFunctionStartNode.class);
+            LLVMFunctionStartNode functionStartNode = LLVMRegionRootNode.findFunctionStartNode(this);
             assert functionStartNode != null : getParent().getClass();
             String identifier;
             if (blockId == 0) {
@@ -30,18 +30,32 @@
 package com.oracle.truffle.llvm.nodes.impl.base;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import com.oracle.nfi.api.NativeFunctionHandle;
+import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.ExecutionContext;
 import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.nodes.NodeUtil;
+import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.llvm.nativeint.NativeLookup;
 import com.oracle.truffle.llvm.nodes.base.LLVMExpressionNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMCallNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMCallNode.LLVMNativeFunctionRootNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMIndirectCallSiteStats;
 import com.oracle.truffle.llvm.parser.NodeFactoryFacade;
 import com.oracle.truffle.llvm.runtime.LLVMOptimizationConfiguration;
+import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException;
+import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException.UnsupportedReason;
+import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
 import com.oracle.truffle.llvm.types.LLVMFunctionDescriptor;
 import com.oracle.truffle.llvm.types.memory.LLVMStack;
 
@@ -56,6 +70,27 @@ public class LLVMContext extends ExecutionContext {
 
     private final LLVMStack stack = new LLVMStack();
 
+    private final NodeFactoryFacade facade;
+
+    private final Map<NativeCallSignature, CallTarget> nativeCallTargets = new HashMap<>();
+
+    private final Map<NativeFunctionHandle, CallTarget> nativeCallTargetsByHandle = new HashMap<>();
+
+    private final List<LLVMIndirectCallSiteStats> indirectCallSiteStats = new ArrayList<>();
+
+    private final List<LLVMFunctionDescriptor> atExitFunctions = new ArrayList<>();
+
+    private final List<Object[]> atExitArguments = new ArrayList<>();
+
+    /**
+     * Functions with more AST nodes than this are never split for a call site.
+     */
+    private static final int MAX_SPLIT_FUNCTION_SIZE = 500;
+
+    private int remainingSplittingBudget = LLVMBaseOptionFacade.getSplittingBudget();
+
+    private final Map<String, Integer> splitFunctions = new TreeMap<>();
+
     private Object[] mainArguments;
 
     private Source mainSourceFile;
@@ -63,6 +98,7 @@ public class LLVMContext extends ExecutionContext {
     private boolean parseOnly;
 
     public LLVMContext(NodeFactoryFacade facade, LLVMOptimizationConfiguration optimizationConfig) {
+        this.facade = facade;
         nativeLookup = new NativeLookup(facade);
         this.registry = new LLVMFunctionRegistry(optimizationConfig, facade);
     }
@@ -71,6 +107,10 @@ public class LLVMContext extends ExecutionContext {
         return registry.lookup(function);
     }
 
+    public RootCallTarget getFunction(int functionIndex) {
+        return registry.lookup(functionIndex);
+    }
+
     public LLVMFunctionRegistry getFunctionRegistry() {
         CompilerAsserts.neverPartOfCompilation();
         return registry;
@@ -81,25 +121,70 @@ public class LLVMContext extends ExecutionContext {
         return nativeLookup.getNativeHandle(sameFunction, args);
     }
 
+    /**
+     * Returns a call target that calls the given native function with arguments of the Java
+     * classes of the given (not yet native-prepared) argument nodes, or <code>null</code> if the
+     * function cannot be found. Call targets are created only once per native handle, and are
+     * additionally indexed by function index and argument classes, so that repeated indirect calls
+     * do not need to prepare the arguments and look up the native handle again. The same function
+     * can be called with different argument classes (e.g., through a casted function pointer), so
+     * the function index alone does not determine the call target.
+     */
+    public CallTarget getNativeCallTarget(LLVMFunctionDescriptor function, LLVMExpressionNode[] args) {
+        CompilerAsserts.neverPartOfCompilation();
+        NativeCallSignature signature = new NativeCallSignature(function.getFunctionIndex(), getJavaClasses(args));
+        CallTarget cachedCallTarget = nativeCallTargets.get(signature);
+        if (cachedCallTarget != null) {
+            return cachedCallTarget;
+        }
+        LLVMFunctionDescriptor sameFunction = getFunctionDescriptor(function);
+        NativeFunctionHandle nativeHandle = nativeLookup.getNativeHandle(sameFunction, LLVMCallNode.prepareForNative(args, this));
+        if (nativeHandle == null) {
+            return null;
+        }
+        CallTarget callTarget = nativeCallTargetsByHandle.get(nativeHandle);
+        if (callTarget == null) {
+            callTarget = Truffle.getRuntime().createCallTarget(new LLVMNativeFunctionRootNode(nativeHandle));
+            nativeCallTargetsByHandle.put(nativeHandle, callTarget);
+        }
+        nativeCallTargets.put(signature, callTarget);
+        return callTarget;
+    }
+
+    private Class<?>[] getJavaClasses(LLVMExpressionNode[] args) {
+        Class<?>[] classes = new Class<?>[args.length - LLVMCallNode.ARG_START_INDEX];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = facade.getJavaClass(args[i + LLVMCallNode.ARG_START_INDEX]);
+        }
+        return classes;
+    }
+
     /**
      * Creates a complete function descriptor from the given one.
      *
      * {@link LLVMFunctionRegistry#createFromIndex} creates an incomplete function descriptor, with
-     * illegal types and no function name but a valid index. Not having to look up the whole
-     * function descriptor makes most indirect calls faster. However, since the native interface
-     * needs the return type of the function, we here have to look up the complete function
-     * descriptor.
+     * illegal types and no function name but a valid index, for indices that are not yet known to
+     * the registry. However, since the native interface needs the return type of the function, we
+     * here have to look up the complete function descriptor.
      */
     private LLVMFunctionDescriptor getFunctionDescriptor(LLVMFunctionDescriptor incompleteFunctionDescriptor) {
         int validFunctionIndex = incompleteFunctionDescriptor.getFunctionIndex();
-        LLVMFunctionDescriptor[] completeFunctionDescriptors = registry.getFunctionDescriptors();
-        return completeFunctionDescriptors[validFunctionIndex];
+        return registry.getFunctionDescriptor(validFunctionIndex);
     }
 
     public void addLibraryToNativeLookup(String library) {
         nativeLookup.addLibraryToNativeLookup(library);
     }
 
+    /**
+     * Resolves the native symbols of all functions that are not implemented in Sulong, so that the
+     * first call of each native function does not need to look up its symbol.
+     */
+    public void preResolveNativeSymbols() {
+        CompilerAsserts.neverPartOfCompilation();
+        nativeLookup.resolveSymbols(registry.getNativeFunctionNames());
+    }
+
     public long getNativeHandle(String functionName) {
         return nativeLookup.getNativeHandle(functionName);
     }
@@ -108,6 +193,72 @@ public class LLVMContext extends ExecutionContext {
         return nativeLookup.getNativeFunctionLookupStats();
     }
 
+    public void registerIndirectCallSiteStats(LLVMIndirectCallSiteStats stats) {
+        CompilerAsserts.neverPartOfCompilation();
+        indirectCallSiteStats.add(stats);
+    }
+
+    public List<LLVMIndirectCallSiteStats> getIndirectCallSiteStats() {
+        return indirectCallSiteStats;
+    }
+
+    /**
+     * Decides whether a call site may get its own copy of the called function. The function has to
+     * be small, and its size is deducted from the remaining splitting budget.
+     */
+    public boolean consumeSplittingBudget(CallTarget callTarget) {
+        CompilerAsserts.neverPartOfCompilation();
+        if (!(callTarget instanceof RootCallTarget)) {
+            return false;
+        }
+        RootNode rootNode = ((RootCallTarget) callTarget).getRootNode();
+        int size = NodeUtil.countNodes(rootNode);
+        if (size > MAX_SPLIT_FUNCTION_SIZE || size > remainingSplittingBudget) {
+            return false;
+        }
+        remainingSplittingBudget -= size;
+        splitFunctions.merge(rootNode.toString(), 1, Integer::sum);
+        return true;
+    }
+
+    public Map<String, Integer> getSplitFunctions() {
+        return splitFunctions;
+    }
+
+    public int getRemainingSplittingBudget() {
+        return remainingSplittingBudget;
+    }
+
+    /**
+     * Registers a Sulong function that is called by {@link #runAtExitFunctions} (see
+     * <code>atexit</code> and <code>__cxa_atexit</code>).
+     */
+    @TruffleBoundary
+    public void registerAtExitFunction(LLVMFunctionDescriptor function, Object... arguments) {
+        atExitFunctions.add(function);
+        atExitArguments.add(arguments);
+    }
+
+    /**
+     * Calls the registered exit functions in the reverse order of their registration.
+     */
+    public void runAtExitFunctions() {
+        CompilerAsserts.neverPartOfCompilation();
+        while (!atExitFunctions.isEmpty()) {
+            int last = atExitFunctions.size() - 1;
+            LLVMFunctionDescriptor function = atExitFunctions.remove(last);
+            Object[] arguments = atExitArguments.remove(last);
+            RootCallTarget callTarget = getFunction(function);
+            if (callTarget == null) {
+                throw new LLVMUnsupportedException(UnsupportedReason.NATIVE_CALLBACK);
+            }
+            Object[] realArgs = new Object[arguments.length + LLVMCallNode.ARG_START_INDEX];
+            realArgs[0] = stack.getUpperBounds();
+            System.arraycopy(arguments, 0, realArgs, LLVMCallNode.ARG_START_INDEX, arguments.length);
+            callTarget.call(realArgs);
+        }
+    }
+
     public LLVMStack getStack() {
         return stack;
     }
@@ -152,4 +303,30 @@ public class LLVMContext extends ExecutionContext {
         return parseOnly;
     }
 
+    private static final class NativeCallSignature {
+
+        private final int functionIndex;
+        private final Class<?>[] argumentClasses;
+
+        NativeCallSignature(int functionIndex, Class<?>[] argumentClasses) {
+            this.functionIndex = functionIndex;
+            this.argumentClasses = argumentClasses;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof NativeCallSignature)) {
+                return false;
+            }
+            NativeCallSignature other = (NativeCallSignature) obj;
+            return functionIndex == other.functionIndex && Arrays.equals(argumentClasses, other.argumentClasses);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * functionIndex + Arrays.hashCode(argumentClasses);
+        }
+
+    }
+
 }
@@ -36,7 +36,6 @@ import com.oracle.truffle.llvm.types.LLVMAddress;
 import com.oracle.truffle.llvm.types.LLVMIVarBit;
 import com.oracle.truffle.llvm.types.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.types.memory.LLVMStack;
-import com.oracle.truffle.llvm.types.memory.LLVMStack.AllocationResult;
 
 public class LLVMFrameUtil {
 
@@ -68,10 +67,21 @@ public class LLVMFrameUtil {
         return FrameUtil.getDoubleSafe(frame, frameSlot);
     }
 
+    /**
+     * Native pointers are stored as raw <code>long</code> values, while managed pointers and
+     * aggregates are stored as objects.
+     */
     public static LLVMAddress getAddress(VirtualFrame frame, FrameSlot frameSlot) {
+        if (frame.isLong(frameSlot)) {
+            return LLVMAddress.fromLong(FrameUtil.getLongSafe(frame, frameSlot));
+        }
         return (LLVMAddress) FrameUtil.getObjectSafe(frame, frameSlot);
     }
 
+    public static void setAddress(VirtualFrame frame, FrameSlot frameSlot, LLVMAddress address) {
+        frame.setLong(frameSlot, address.getVal());
+    }
+
     public static LLVMIVarBit getIVarbit(VirtualFrame frame, FrameSlot frameSlot) {
         return (LLVMIVarBit) FrameUtil.getObjectSafe(frame, frameSlot);
     }
@@ -81,10 +91,18 @@ public class LLVMFrameUtil {
     }
 
     public static LLVMAddress allocateMemory(LLVMStack stack, VirtualFrame frame, FrameSlot stackPointerSlot, int size, int alignment) {
-        LLVMAddress stackPointer = LLVMFrameUtil.getAddress(frame, stackPointerSlot);
-        AllocationResult allocResult = stack.allocateMemory(stackPointer, size, alignment);
-        frame.setObject(stackPointerSlot, allocResult.getStackPointer());
-        return allocResult.getAllocatedMemory();
+        return LLVMAddress.fromLong(allocateRawMemory(stack, frame, stackPointerSlot, size, alignment));
+    }
+
+    /**
+     * Bumps the stack pointer, which is kept as a raw <code>long</code> in its frame slot, and
+     * returns the allocated memory without creating intermediate objects.
+     */
+    public static long allocateRawMemory(LLVMStack stack, VirtualFrame frame, FrameSlot stackPointerSlot, long size, int alignment) {
+        long stackPointer = FrameUtil.getLongSafe(frame, stackPointerSlot);
+        long allocation = stack.allocateMemory(stackPointer, size, alignment);
+        frame.setLong(stackPointerSlot, allocation);
+        return allocation;
     }
 
 }
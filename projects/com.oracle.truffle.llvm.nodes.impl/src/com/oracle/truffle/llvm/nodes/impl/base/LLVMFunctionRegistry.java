@@ -29,17 +29,25 @@
  */
 package com.oracle.truffle.llvm.nodes.impl.base;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.llvm.nodes.base.LLVMExpressionNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMCallNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMCallNode.LLVMVoidSubstitutionCallNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMFrameArgumentsReader;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMIntrinsicRootNode;
 import com.oracle.truffle.llvm.parser.NodeFactoryFacade;
 import com.oracle.truffle.llvm.runtime.LLVMOptimizationConfiguration;
 import com.oracle.truffle.llvm.types.LLVMFunctionDescriptor;
@@ -57,6 +65,11 @@ public class LLVMFunctionRegistry {
     private static final int REAL_FUNCTION_START_INDEX = 1;
 
     private final Map<String, NodeFactory<? extends LLVMNode>> intrinsics;
+
+    /**
+     * Maps a function name to its function descriptor.
+     */
+    private final Map<String, LLVMFunctionDescriptor> functionsByName = new HashMap<>();
     private final NodeFactoryFacade facade;
 
     /**
@@ -66,21 +79,23 @@ public class LLVMFunctionRegistry {
 
     /**
      * Maps a function index (see {@link LLVMFunctionDescriptor#getFunctionIndex()} to a call
-     * target.
+     * target. The array is written in place when functions are registered, so compiled code must
+     * not fold its entries.
      */
-    @CompilationFinal private RootCallTarget[] functionPtrCallTargetMap;
+    private RootCallTarget[] functionPtrCallTargetMap;
 
     /**
      * Maps a function index (see {@link LLVMFunctionDescriptor#getFunctionIndex()} to a function
-     * descriptor.
+     * descriptor. Like {@link #functionPtrCallTargetMap}, it is written in place.
      */
-    @CompilationFinal private LLVMFunctionDescriptor[] functionDescriptors = new LLVMFunctionDescriptor[REAL_FUNCTION_START_INDEX];
+    private LLVMFunctionDescriptor[] functionDescriptors = new LLVMFunctionDescriptor[REAL_FUNCTION_START_INDEX];
 
     public LLVMFunctionRegistry(LLVMOptimizationConfiguration optimizationConfig, NodeFactoryFacade facade) {
         this.facade = facade;
         this.intrinsics = facade.getFunctionSubstitutionFactories(optimizationConfig);
         functionPtrCallTargetMap = new RootCallTarget[REAL_FUNCTION_START_INDEX + intrinsics.size() + 1];
         functionDescriptors[0] = LLVMFunctionDescriptor.create(ZERO_FUNCTION, LLVMRuntimeType.ILLEGAL, new LLVMRuntimeType[0], false, 0);
+        functionsByName.put(ZERO_FUNCTION, functionDescriptors[0]);
         registerIntrinsics();
     }
 
@@ -92,7 +107,17 @@ public class LLVMFunctionRegistry {
      * @return the call target, <code>null</code> if not found.
      */
     public RootCallTarget lookup(LLVMFunctionDescriptor function) {
-        int functionIndex = function.getFunctionIndex();
+        return lookup(function.getFunctionIndex());
+    }
+
+    /**
+     * Looks up the call target for the function with the given index without requiring a function
+     * descriptor.
+     *
+     * @param functionIndex the function index
+     * @return the call target, <code>null</code> if not found.
+     */
+    public RootCallTarget lookup(int functionIndex) {
         if (functionIndex >= 0 && functionIndex < functionPtrCallTargetMap.length) {
             RootCallTarget result = functionPtrCallTargetMap[functionIndex];
             return result;
@@ -103,13 +128,13 @@ public class LLVMFunctionRegistry {
 
     public void register(Map<LLVMFunctionDescriptor, RootCallTarget> functionCallTargets) {
         CompilerAsserts.neverPartOfCompilation();
-        int maxFunctionIndex = Math.max(maxIndex(functionCallTargets) + 1, functionPtrCallTargetMap.length);
-        RootCallTarget[] newFunctionPtrCallTargetMap = new RootCallTarget[maxFunctionIndex];
-        System.arraycopy(functionPtrCallTargetMap, 0, newFunctionPtrCallTargetMap, 0, functionPtrCallTargetMap.length);
-        for (LLVMFunctionDescriptor func : functionCallTargets.keySet()) {
-            newFunctionPtrCallTargetMap[func.getFunctionIndex()] = functionCallTargets.get(func);
+        int requiredLength = maxIndex(functionCallTargets) + 1;
+        if (requiredLength > functionPtrCallTargetMap.length) {
+            functionPtrCallTargetMap = Arrays.copyOf(functionPtrCallTargetMap, Math.max(requiredLength, functionPtrCallTargetMap.length * 2));
+        }
+        for (Map.Entry<LLVMFunctionDescriptor, RootCallTarget> entry : functionCallTargets.entrySet()) {
+            functionPtrCallTargetMap[entry.getKey().getFunctionIndex()] = entry.getValue();
         }
-        functionPtrCallTargetMap = newFunctionPtrCallTargetMap;
     }
 
     private static int maxIndex(Map<LLVMFunctionDescriptor, RootCallTarget> functionCallTargets) {
@@ -138,6 +163,52 @@ public class LLVMFunctionRegistry {
         }
     }
 
+    /**
+     * Instantiates the substitution of <code>function</code> with the argument nodes of a call
+     * site, so that the call site can execute the substitution in place instead of calling the
+     * call target that is shared by all call sites.
+     *
+     * @param function the called function
+     * @param callTarget the call target that the call site would call
+     * @param callArgs the argument nodes of the call site, including the stack pointer
+     * @return the substitution node, or <code>null</code> if <code>callTarget</code> is not a
+     *         substitution, the substitution reads its frame arguments (see
+     *         {@link LLVMFrameArgumentsReader}), or the argument nodes do not match its signature
+     */
+    public LLVMExpressionNode createInlineSubstitution(LLVMFunctionDescriptor function, CallTarget callTarget, LLVMExpressionNode[] callArgs) {
+        CompilerAsserts.neverPartOfCompilation();
+        if (!(callTarget instanceof RootCallTarget) || !(((RootCallTarget) callTarget).getRootNode() instanceof LLVMIntrinsicRootNode)) {
+            return null;
+        }
+        NodeFactory<? extends LLVMNode> nodeFactory = intrinsics.get(getFunctionDescriptor(function.getFunctionIndex()).getName());
+        if (nodeFactory == null || LLVMFrameArgumentsReader.class.isAssignableFrom(nodeFactory.getNodeClass())) {
+            // substitutions that read the frame arguments would read those of the caller
+            return null;
+        }
+        List<Class<? extends Node>> executionSignature = nodeFactory.getExecutionSignature();
+        if (executionSignature.contains(LLVMFunctionNode.class)) {
+            // substitutions that call back into Sulong need the stack pointer of their caller
+            return null;
+        }
+        int nrArguments = executionSignature.size();
+        if (callArgs.length - LLVMCallNode.ARG_START_INDEX != nrArguments) {
+            return null;
+        }
+        LLVMExpressionNode[] args = new LLVMExpressionNode[nrArguments];
+        for (int i = 0; i < nrArguments; i++) {
+            args[i] = callArgs[LLVMCallNode.ARG_START_INDEX + i];
+            if (!executionSignature.get(i).isInstance(args[i])) {
+                return null;
+            }
+        }
+        LLVMNode intrinsicNode = nodeFactory.createNode((Object[]) args);
+        if (intrinsicNode instanceof LLVMExpressionNode) {
+            return (LLVMExpressionNode) intrinsicNode;
+        } else {
+            return new LLVMVoidSubstitutionCallNode(intrinsicNode);
+        }
+    }
+
     /**
      * Creates an unique function descriptor identified by the given <code>name</code>.
      *
@@ -149,36 +220,75 @@ public class LLVMFunctionRegistry {
      */
     public LLVMFunctionDescriptor createFunctionDescriptor(String name, LLVMRuntimeType returnType, LLVMRuntimeType[] paramTypes, boolean varArgs) {
         CompilerAsserts.neverPartOfCompilation();
-        for (int i = 0; i < functionDescriptors.length; i++) {
-            if (functionDescriptors[i].getName().equals(name)) {
-                return functionDescriptors[i];
-            }
+        LLVMFunctionDescriptor existing = functionsByName.get(name);
+        if (existing != null) {
+            return existing;
         }
         LLVMFunctionDescriptor function = LLVMFunctionDescriptor.create(name, returnType, paramTypes, varArgs, currentFunctionIndex++);
-        LLVMFunctionDescriptor[] newFunctions = new LLVMFunctionDescriptor[functionDescriptors.length + 1];
-        System.arraycopy(functionDescriptors, 0, newFunctions, 0, functionDescriptors.length);
-        newFunctions[function.getFunctionIndex()] = function;
-        functionDescriptors = newFunctions;
+        if (function.getFunctionIndex() >= functionDescriptors.length) {
+            functionDescriptors = Arrays.copyOf(functionDescriptors, functionDescriptors.length * 2);
+        }
+        functionDescriptors[function.getFunctionIndex()] = function;
+        functionsByName.put(name, function);
         return function;
     }
 
+    /**
+     * Looks up the function descriptor with the given <code>name</code>.
+     *
+     * @param name the function's name
+     * @return the function descriptor, <code>null</code> if there is none
+     */
+    public LLVMFunctionDescriptor lookupFunctionDescriptor(String name) {
+        CompilerAsserts.neverPartOfCompilation();
+        return functionsByName.get(name);
+    }
+
+    /**
+     * Returns the names of all functions that neither have a Sulong implementation nor a
+     * substitution, i.e., the functions that are expected to be native.
+     *
+     * @return the names of the native functions
+     */
+    public List<String> getNativeFunctionNames() {
+        CompilerAsserts.neverPartOfCompilation();
+        List<String> names = new ArrayList<>();
+        for (int i = REAL_FUNCTION_START_INDEX; i < currentFunctionIndex; i++) {
+            if (lookup(i) == null) {
+                names.add(functionDescriptors[i].getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the complete function descriptor for the given function <code>index</code>.
+     *
+     * @param index the function index
+     * @return the function descriptor
+     */
+    public LLVMFunctionDescriptor getFunctionDescriptor(int index) {
+        return functionDescriptors[index];
+    }
+
     /**
      * Creates a function descriptor from the given <code>index</code> that has previously been
-     * obtained by {@link LLVMFunctionDescriptor#getFunctionIndex()} .
+     * obtained by {@link LLVMFunctionDescriptor#getFunctionIndex()} . The already existing
+     * descriptor is returned if the index belongs to a known function, so that loading a function
+     * pointer does not allocate.
      *
      * @param index the function index
      * @return the function descriptor
      */
     public LLVMFunctionDescriptor createFromIndex(int index) {
+        if (index >= 0 && index < functionDescriptors.length && functionDescriptors[index] != null) {
+            return functionDescriptors[index];
+        }
         LLVMFunctionDescriptor llvmFunction = LLVMFunctionDescriptor.create(index);
         assert llvmFunction != null;
         return llvmFunction;
     }
 
-    public LLVMFunctionDescriptor[] getFunctionDescriptors() {
-        return functionDescriptors;
-    }
-
     public boolean isZeroFunctionDescriptor(LLVMFunctionDescriptor function) {
         return function.getName().equals(ZERO_FUNCTION);
     }
@@ -38,7 +38,7 @@ import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.llvm.types.LLVMFunctionDescriptor;
 
-@TruffleLanguage.Registration(name = "Sulong", version = "0.01", mimeType = {LLVMLanguage.LLVM_IR_MIME_TYPE, LLVMLanguage.SULONG_LIBRARY_MIME_TYPE})
+@TruffleLanguage.Registration(name = "Sulong", version = "0.01", mimeType = {LLVMLanguage.LLVM_IR_MIME_TYPE, LLVMLanguage.LLVM_BITCODE_MIME_TYPE, LLVMLanguage.SULONG_LIBRARY_MIME_TYPE})
 public final class LLVMLanguage extends TruffleLanguage<LLVMContext> {
 
     /*
@@ -103,15 +103,12 @@ public final class LLVMLanguage extends TruffleLanguage<LLVMContext> {
 
     @Override
     protected Object findExportedSymbol(LLVMContext context, String globalName, boolean onlyExplicit) {
-        String atname = "@" + globalName; // for interop
-        for (LLVMFunctionDescriptor descr : context.getFunctionRegistry().getFunctionDescriptors()) {
-            if (descr != null && descr.getName().equals(globalName)) {
-                return descr;
-            } else if (descr != null && descr.getName().equals(atname)) {
-                return descr;
-            }
+        LLVMFunctionDescriptor descr = context.getFunctionRegistry().lookupFunctionDescriptor(globalName);
+        if (descr == null) {
+            String atname = "@" + globalName; // for interop
+            descr = context.getFunctionRegistry().lookupFunctionDescriptor(atname);
         }
-        return null;
+        return descr;
     }
 
     @Override
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.impl.control;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.llvm.nodes.base.LLVMNode;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMTerminatorNode;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI32Node;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI64Node;
+
+/**
+ * A conditional branch on an integer comparison whose result is used by nothing else, so that
+ * the comparison does not need a node and a frame slot of its own.
+ */
+public abstract class LLVMCompareAndBranchNode extends LLVMTerminatorNode {
+
+    public enum Condition {
+        EQ,
+        NE,
+        UGT,
+        UGE,
+        ULT,
+        ULE,
+        SGT,
+        SGE,
+        SLT,
+        SLE
+    }
+
+    @Children final LLVMNode[] truePhiWriteNodes;
+    @Children final LLVMNode[] falsePhiWriteNodes;
+    protected final Condition condition;
+
+    public LLVMCompareAndBranchNode(int trueSuccessor, int falseSuccessor, Condition condition, LLVMNode[] truePhiWriteNodes, LLVMNode[] falsePhiWriteNodes) {
+        super(trueSuccessor, falseSuccessor);
+        this.condition = condition;
+        this.truePhiWriteNodes = truePhiWriteNodes;
+        this.falsePhiWriteNodes = falsePhiWriteNodes;
+    }
+
+    @ExplodeLoop
+    protected int branch(VirtualFrame frame, boolean value) {
+        if (value) {
+            for (int i = 0; i < truePhiWriteNodes.length; i++) {
+                truePhiWriteNodes[i].executeVoid(frame);
+            }
+            return LLVMConditionalBranchNode.TRUE_SUCCESSOR;
+        } else {
+            for (int i = 0; i < falsePhiWriteNodes.length; i++) {
+                falsePhiWriteNodes[i].executeVoid(frame);
+            }
+            return LLVMConditionalBranchNode.FALSE_SUCCESSOR;
+        }
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMI32Node.class), @NodeChild(type = LLVMI32Node.class)})
+    public abstract static class LLVMI32CompareAndBranchNode extends LLVMCompareAndBranchNode {
+
+        public LLVMI32CompareAndBranchNode(int trueSuccessor, int falseSuccessor, Condition condition, LLVMNode[] truePhiWriteNodes, LLVMNode[] falsePhiWriteNodes) {
+            super(trueSuccessor, falseSuccessor, condition, truePhiWriteNodes, falsePhiWriteNodes);
+        }
+
+        @Specialization
+        public int executeGetSuccessorIndex(VirtualFrame frame, int val1, int val2) {
+            return branch(frame, compare(val1, val2));
+        }
+
+        private boolean compare(int val1, int val2) {
+            switch (condition) {
+                case EQ:
+                    return val1 == val2;
+                case NE:
+                    return val1 != val2;
+                case UGT:
+                    return Integer.compareUnsigned(val1, val2) > 0;
+                case UGE:
+                    return Integer.compareUnsigned(val1, val2) >= 0;
+                case ULT:
+                    return Integer.compareUnsigned(val1, val2) < 0;
+                case ULE:
+                    return Integer.compareUnsigned(val1, val2) <= 0;
+                case SGT:
+                    return val1 > val2;
+                case SGE:
+                    return val1 >= val2;
+                case SLT:
+                    return val1 < val2;
+                case SLE:
+                    return val1 <= val2;
+                default:
+                    throw new AssertionError(condition);
+            }
+        }
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMI64Node.class), @NodeChild(type = LLVMI64Node.class)})
+    public abstract static class LLVMI64CompareAndBranchNode extends LLVMCompareAndBranchNode {
+
+        public LLVMI64CompareAndBranchNode(int trueSuccessor, int falseSuccessor, Condition condition, LLVMNode[] truePhiWriteNodes, LLVMNode[] falsePhiWriteNodes) {
+            super(trueSuccessor, falseSuccessor, condition, truePhiWriteNodes, falsePhiWriteNodes);
+        }
+
+        @Specialization
+        public int executeGetSuccessorIndex(VirtualFrame frame, long val1, long val2) {
+            return branch(frame, compare(val1, val2));
+        }
+
+        private boolean compare(long val1, long val2) {
+            switch (condition) {
+                case EQ:
+                    return val1 == val2;
+                case NE:
+                    return val1 != val2;
+                case UGT:
+                    return Long.compareUnsigned(val1, val2) > 0;
+                case UGE:
+                    return Long.compareUnsigned(val1, val2) >= 0;
+                case ULT:
+                    return Long.compareUnsigned(val1, val2) < 0;
+                case ULE:
+                    return Long.compareUnsigned(val1, val2) <= 0;
+                case SGT:
+                    return val1 > val2;
+                case SGE:
+                    return val1 >= val2;
+                case SLT:
+                    return val1 < val2;
+                case SLE:
+                    return val1 <= val2;
+                default:
+                    throw new AssertionError(condition);
+            }
+        }
+    }
+
+}
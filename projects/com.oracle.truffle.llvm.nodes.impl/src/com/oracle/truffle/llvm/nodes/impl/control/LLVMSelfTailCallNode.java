@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.impl.control;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.llvm.nodes.base.LLVMNode;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMBasicBlockNode;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMTerminatorNode;
+
+/**
+ * Replaces a <code>tail</code> call of a function to itself whose result is immediately returned.
+ * Instead of calling the function again, the new argument values are assigned to the parameter
+ * slots and execution continues at the entry block. Since all arguments have to be evaluated
+ * before the first parameter is overwritten, they are first written to temporary slots and then
+ * copied to the parameter slots.
+ */
+public class LLVMSelfTailCallNode extends LLVMTerminatorNode {
+
+    public static final int ENTRY_BLOCK = 0;
+
+    @Children private final LLVMNode[] argumentWrites;
+    @Children private final LLVMNode[] parameterWrites;
+
+    public LLVMSelfTailCallNode(LLVMNode[] argumentWrites, LLVMNode[] parameterWrites) {
+        super(ENTRY_BLOCK);
+        this.argumentWrites = argumentWrites;
+        this.parameterWrites = parameterWrites;
+    }
+
+    @ExplodeLoop
+    @Override
+    public int executeGetSuccessorIndex(VirtualFrame frame) {
+        for (LLVMNode node : argumentWrites) {
+            node.executeVoid(frame);
+        }
+        for (LLVMNode node : parameterWrites) {
+            node.executeVoid(frame);
+        }
+        return LLVMBasicBlockNode.DEFAULT_SUCCESSOR;
+    }
+
+}
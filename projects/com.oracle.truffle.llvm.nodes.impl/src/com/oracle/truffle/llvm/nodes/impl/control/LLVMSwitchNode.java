@@ -29,6 +29,8 @@
  */
 package com.oracle.truffle.llvm.nodes.impl.control;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -312,4 +314,160 @@ public abstract class LLVMSwitchNode extends LLVMTerminatorNode {
 
     }
 
+    /**
+     * Switch whose case values are all constants. Instead of comparing the condition with every
+     * case, the successor is looked up in a jump table if the case values are dense, and by binary
+     * search in the sorted case values otherwise. There are no per-case profiles, since the
+     * enclosing basic block already counts how often each successor is taken (see
+     * {@link com.oracle.truffle.llvm.nodes.impl.base.LLVMBasicBlockNode#getBranchProbability}).
+     */
+    public abstract static class LLVMConstantSwitchBaseNode extends LLVMSwitchNode {
+
+        /**
+         * The jump table may have at most this many entries per case.
+         */
+        private static final int MAX_JUMP_TABLE_ENTRIES_PER_CASE = 2;
+
+        private final long minValue;
+        @CompilationFinal private final int[] jumpTable;
+        @CompilationFinal private final long[] sortedValues;
+        @CompilationFinal private final int[] sortedLabels;
+
+        public LLVMConstantSwitchBaseNode(long[] caseValues, int[] successors, int defaultLabel, LLVMNode[] phiWriteNodes) {
+            super(defaultLabel, successors, phiWriteNodes);
+            Integer[] order = new Integer[caseValues.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            // stable, so that the first of several equal case values comes first
+            Arrays.sort(order, (a, b) -> Long.compare(caseValues[a], caseValues[b]));
+            int nrDistinctValues = 0;
+            long[] values = new long[caseValues.length];
+            int[] labels = new int[caseValues.length];
+            for (int i = 0; i < order.length; i++) {
+                long value = caseValues[order[i]];
+                if (nrDistinctValues == 0 || values[nrDistinctValues - 1] != value) {
+                    values[nrDistinctValues] = value;
+                    labels[nrDistinctValues] = order[i] + CASE_LABEL_START_INDEX;
+                    nrDistinctValues++;
+                }
+            }
+            this.sortedValues = Arrays.copyOf(values, nrDistinctValues);
+            this.sortedLabels = Arrays.copyOf(labels, nrDistinctValues);
+            this.minValue = nrDistinctValues == 0 ? 0 : sortedValues[0];
+            this.jumpTable = createJumpTable(sortedValues, sortedLabels);
+        }
+
+        private static int[] createJumpTable(long[] values, int[] labels) {
+            CompilerAsserts.neverPartOfCompilation();
+            if (values.length == 0) {
+                return null;
+            }
+            long range = values[values.length - 1] - values[0];
+            if (range < 0 || range >= (long) MAX_JUMP_TABLE_ENTRIES_PER_CASE * values.length) {
+                return null;
+            }
+            int[] table = new int[(int) range + 1];
+            Arrays.fill(table, DEFAULT_LABEL_INDEX);
+            for (int i = 0; i < values.length; i++) {
+                table[(int) (values[i] - values[0])] = labels[i];
+            }
+            return table;
+        }
+
+        @Override
+        public int executeGetSuccessorIndex(VirtualFrame frame) {
+            long val = executeCondition(frame);
+            executePhiWrites(frame);
+            if (jumpTable != null) {
+                long offset = val - minValue;
+                if (offset >= 0 && offset < jumpTable.length) {
+                    return jumpTable[(int) offset];
+                }
+                return DEFAULT_LABEL_INDEX;
+            }
+            int low = 0;
+            int high = sortedValues.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                long middleValue = sortedValues[middle];
+                if (middleValue < val) {
+                    low = middle + 1;
+                } else if (middleValue > val) {
+                    high = middle - 1;
+                } else {
+                    return sortedLabels[middle];
+                }
+            }
+            return DEFAULT_LABEL_INDEX;
+        }
+
+        abstract long executeCondition(VirtualFrame frame);
+
+    }
+
+    public static class LLVMI8ConstantSwitchNode extends LLVMConstantSwitchBaseNode {
+
+        @Child private LLVMI8Node cond;
+
+        public LLVMI8ConstantSwitchNode(LLVMI8Node cond, long[] caseValues, int[] successors, int defaultLabel, LLVMNode[] phiWriteNodes) {
+            super(caseValues, successors, defaultLabel, phiWriteNodes);
+            this.cond = cond;
+        }
+
+        @Override
+        long executeCondition(VirtualFrame frame) {
+            return cond.executeI8(frame);
+        }
+
+    }
+
+    public static class LLVMI16ConstantSwitchNode extends LLVMConstantSwitchBaseNode {
+
+        @Child private LLVMI16Node cond;
+
+        public LLVMI16ConstantSwitchNode(LLVMI16Node cond, long[] caseValues, int[] successors, int defaultLabel, LLVMNode[] phiWriteNodes) {
+            super(caseValues, successors, defaultLabel, phiWriteNodes);
+            this.cond = cond;
+        }
+
+        @Override
+        long executeCondition(VirtualFrame frame) {
+            return cond.executeI16(frame);
+        }
+
+    }
+
+    public static class LLVMI32ConstantSwitchNode extends LLVMConstantSwitchBaseNode {
+
+        @Child private LLVMI32Node cond;
+
+        public LLVMI32ConstantSwitchNode(LLVMI32Node cond, long[] caseValues, int[] successors, int defaultLabel, LLVMNode[] phiWriteNodes) {
+            super(caseValues, successors, defaultLabel, phiWriteNodes);
+            this.cond = cond;
+        }
+
+        @Override
+        long executeCondition(VirtualFrame frame) {
+            return cond.executeI32(frame);
+        }
+
+    }
+
+    public static class LLVMI64ConstantSwitchNode extends LLVMConstantSwitchBaseNode {
+
+        @Child private LLVMI64Node cond;
+
+        public LLVMI64ConstantSwitchNode(LLVMI64Node cond, long[] caseValues, int[] successors, int defaultLabel, LLVMNode[] phiWriteNodes) {
+            super(caseValues, successors, defaultLabel, phiWriteNodes);
+            this.cond = cond;
+        }
+
+        @Override
+        long executeCondition(VirtualFrame frame) {
+            return cond.executeI64(frame);
+        }
+
+    }
+
 }
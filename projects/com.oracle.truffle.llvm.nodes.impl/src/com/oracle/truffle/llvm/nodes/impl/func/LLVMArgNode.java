@@ -64,6 +64,30 @@ import com.oracle.truffle.llvm.types.vector.LLVMI8Vector;
 
 public class LLVMArgNode {
 
+    /**
+     * Returns whether the arguments were passed unboxed. If a Sulong function is called with the
+     * unboxed calling convention (see {@link LLVMCallNode.LLVMResolvedDirectUnboxedCallNode}), the
+     * first element of the argument array is a <code>long[]</code> that holds the stack pointer
+     * and all primitive arguments, and the elements of the primitive arguments are
+     * <code>null</code>. A boxed call can also pass <code>null</code> (e.g., a foreign null
+     * pointer), so only the first element decides.
+     */
+    static boolean isUnboxed(Object[] arguments) {
+        return arguments[0] instanceof long[];
+    }
+
+    /**
+     * Returns whether a pointer argument was passed unboxed. Pointers that are not an
+     * {@link LLVMAddress} are passed boxed also in an unboxed call.
+     */
+    static boolean isUnboxedPointer(Object[] arguments, Object value) {
+        return value == null && isUnboxed(arguments);
+    }
+
+    static long getUnboxed(Object[] arguments, int index) {
+        return ((long[]) arguments[0])[index];
+    }
+
     @NodeField(name = "index", type = int.class)
     public abstract static class LLVMI1ArgNode extends LLVMI1Node {
 
@@ -72,7 +96,12 @@ public class LLVMArgNode {
         @Specialization
         @Override
         public boolean executeI1(VirtualFrame frame) {
-            return (boolean) frame.getArguments()[getIndex()];
+            Object[] arguments = frame.getArguments();
+            Object value = arguments[getIndex()];
+            if (isUnboxed(arguments)) {
+                return getUnboxed(arguments, getIndex()) != 0;
+            }
+            return (boolean) value;
         }
 
     }
@@ -85,7 +114,12 @@ public class LLVMArgNode {
         @Specialization
         @Override
         public byte executeI8(VirtualFrame frame) {
-            return (byte) frame.getArguments()[getIndex()];
+            Object[] arguments = frame.getArguments();
+            Object value = arguments[getIndex()];
+            if (isUnboxed(arguments)) {
+                return (byte) getUnboxed(arguments, getIndex());
+            }
+            return (byte) value;
         }
 
     }
@@ -98,7 +132,12 @@ public class LLVMArgNode {
         @Specialization
         @Override
         public short executeI16(VirtualFrame frame) {
-            return (short) frame.getArguments()[getIndex()];
+            Object[] arguments = frame.getArguments();
+            Object value = arguments[getIndex()];
+            if (isUnboxed(arguments)) {
+                return (short) getUnboxed(arguments, getIndex());
+            }
+            return (short) value;
         }
 
     }
@@ -111,7 +150,12 @@ public class LLVMArgNode {
         @Specialization
         @Override
         public int executeI32(VirtualFrame frame) {
-            return (int) frame.getArguments()[getIndex()];
+            Object[] arguments = frame.getArguments();
+            Object value = arguments[getIndex()];
+            if (isUnboxed(arguments)) {
+                return (int) getUnboxed(arguments, getIndex());
+            }
+            return (int) value;
         }
 
     }
@@ -124,7 +168,12 @@ public class LLVMArgNode {
         @Specialization
         @Override
         public long executeI64(VirtualFrame frame) {
-            return (long) frame.getArguments()[getIndex()];
+            Object[] arguments = frame.getArguments();
+            Object value = arguments[getIndex()];
+            if (isUnboxed(arguments)) {
+                return getUnboxed(arguments, getIndex());
+            }
+            return (long) value;
         }
 
     }
@@ -150,7 +199,12 @@ public class LLVMArgNode {
         @Specialization
         @Override
         public float executeFloat(VirtualFrame frame) {
-            return (float) frame.getArguments()[getIndex()];
+            Object[] arguments = frame.getArguments();
+            Object value = arguments[getIndex()];
+            if (isUnboxed(arguments)) {
+                return Float.intBitsToFloat((int) getUnboxed(arguments, getIndex()));
+            }
+            return (float) value;
         }
 
     }
@@ -163,7 +217,12 @@ public class LLVMArgNode {
         @Specialization
         @Override
         public double executeDouble(VirtualFrame frame) {
-            return (double) frame.getArguments()[getIndex()];
+            Object[] arguments = frame.getArguments();
+            Object value = arguments[getIndex()];
+            if (isUnboxed(arguments)) {
+                return Double.longBitsToDouble(getUnboxed(arguments, getIndex()));
+            }
+            return (double) value;
         }
 
     }
@@ -188,12 +247,22 @@ public class LLVMArgNode {
 
         @Specialization(rewriteOn = ClassCastException.class)
         public Object executePointee(VirtualFrame frame) {
-            return ((LLVMAddress) frame.getArguments()[getIndex()]).copy();
+            Object[] arguments = frame.getArguments();
+            Object value = arguments[getIndex()];
+            if (isUnboxedPointer(arguments, value)) {
+                return LLVMAddress.fromLong(getUnboxed(arguments, getIndex()));
+            }
+            return ((LLVMAddress) value).copy();
         }
 
         @Specialization
         public Object executeObject(VirtualFrame frame) {
-            return frame.getArguments()[getIndex()];
+            Object[] arguments = frame.getArguments();
+            Object value = arguments[getIndex()];
+            if (isUnboxedPointer(arguments, value)) {
+                return LLVMAddress.fromLong(getUnboxed(arguments, getIndex()));
+            }
+            return value;
         }
     }
 
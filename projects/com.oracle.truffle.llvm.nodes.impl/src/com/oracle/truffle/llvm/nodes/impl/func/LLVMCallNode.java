@@ -35,6 +35,7 @@ import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
@@ -46,11 +47,19 @@ import com.oracle.truffle.api.nodes.IndirectCallNode;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMExpressionNode;
+import com.oracle.truffle.llvm.nodes.base.LLVMNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMAddressNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMContext;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMFunctionNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMLanguage;
 import com.oracle.truffle.llvm.nodes.impl.base.floating.LLVM80BitFloatNode;
+import com.oracle.truffle.llvm.nodes.impl.base.floating.LLVMDoubleNode;
+import com.oracle.truffle.llvm.nodes.impl.base.floating.LLVMFloatNode;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI16Node;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI1Node;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI32Node;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI64Node;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI8Node;
 import com.oracle.truffle.llvm.nodes.impl.cast.LLVMToI64NodeFactory.LLVMAddressToI64NodeGen;
 import com.oracle.truffle.llvm.nodes.impl.func.LLVMCallNodeFactory.LLVMFunctionCallChainNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.func.LLVMNativeCallConvertNode.LLVMResolvedNative80BitFloatCallNode;
@@ -61,6 +70,7 @@ import com.oracle.truffle.llvm.runtime.LLVMLogger;
 import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException;
 import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException.UnsupportedReason;
 import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
+import com.oracle.truffle.llvm.types.LLVMAddress;
 import com.oracle.truffle.llvm.types.LLVMFunctionDescriptor;
 import com.oracle.truffle.llvm.types.floating.LLVM80BitFloat;
 
@@ -68,7 +78,7 @@ public abstract class LLVMCallNode {
 
     public static final int ARG_START_INDEX = 1;
 
-    protected static LLVMExpressionNode[] prepareForNative(LLVMExpressionNode[] originalArgs, LLVMContext context) {
+    public static LLVMExpressionNode[] prepareForNative(LLVMExpressionNode[] originalArgs, LLVMContext context) {
         CompilerAsserts.neverPartOfCompilation();
         LLVMExpressionNode[] newNodes = new LLVMExpressionNode[originalArgs.length - LLVMCallNode.ARG_START_INDEX];
         for (int i = 0; i < newNodes.length; i++) {
@@ -144,8 +154,14 @@ public abstract class LLVMCallNode {
                         throw new IllegalStateException("could not find function " + function.getName());
                     }
                     return replace(getResolvedNativeCall(function, nativeHandle, getArgs(), context)).executeGeneric(frame);
+                }
+                LLVMExpressionNode substitution = context.getFunctionRegistry().createInlineSubstitution(function, callTarget, getArgs());
+                if (substitution != null) {
+                    return replace(substitution).executeGeneric(frame);
+                } else if (LLVMResolvedDirectUnboxedCallNode.canPassUnboxed(function, callTarget, getArgs())) {
+                    return replace(new LLVMResolvedDirectUnboxedCallNode(callTarget, getArgs(), context)).executeGeneric(frame);
                 } else {
-                    return replace(new LLVMResolvedDirectCallNode(callTarget, getArgs())).executeGeneric(frame);
+                    return replace(new LLVMResolvedDirectCallNode(callTarget, getArgs(), context)).executeGeneric(frame);
                 }
             } else {
                 LLVMFunctionCallChain rootNode = LLVMFunctionCallChainNodeGen.create(context, getArgs());
@@ -155,23 +171,142 @@ public abstract class LLVMCallNode {
 
     }
 
+    /**
+     * Executes a void function substitution that has been instantiated at the call site instead of
+     * calling the substitution's call target.
+     */
+    public static class LLVMVoidSubstitutionCallNode extends LLVMExpressionNode {
+
+        @Child private LLVMNode substitution;
+
+        public LLVMVoidSubstitutionCallNode(LLVMNode substitution) {
+            this.substitution = substitution;
+        }
+
+        @Override
+        public Object executeGeneric(VirtualFrame frame) {
+            substitution.executeVoid(frame);
+            return null;
+        }
+
+    }
+
     /**
      * Call node for a Sulong function where the function is constant.
+     *
+     * If a context is given, the call site requests a separate copy of the callee once it has been
+     * executed {@link #SPLITTING_CALL_THRESHOLD} times, so that the argument value profiles and
+     * the specializations of the callee are no longer shared with other call sites. The context
+     * decides whether the callee is small enough and whether the splitting budget allows the copy.
      */
     public static class LLVMResolvedDirectCallNode extends LLVMAbstractCallNode {
 
+        public static final int SPLITTING_CALL_THRESHOLD = 100;
+
         @Child protected DirectCallNode callNode;
+        private final LLVMContext context;
+        private int callsUntilSplit = SPLITTING_CALL_THRESHOLD;
 
         public LLVMResolvedDirectCallNode(CallTarget callTarget, LLVMExpressionNode[] args) {
+            this(callTarget, args, null);
+        }
+
+        public LLVMResolvedDirectCallNode(CallTarget callTarget, LLVMExpressionNode[] args, LLVMContext context) {
             super(args);
             this.callNode = Truffle.getRuntime().createDirectCallNode(callTarget);
+            this.context = context;
         }
 
         @Override
         public Object executeGeneric(VirtualFrame frame) {
+            profileSplitting();
             return callNode.call(frame, evaluateArgs(frame));
         }
 
+        protected void profileSplitting() {
+            if (CompilerDirectives.inInterpreter() && context != null && callsUntilSplit > 0 && --callsUntilSplit == 0) {
+                split();
+            }
+        }
+
+        private void split() {
+            if (callNode.isCallTargetCloningAllowed() && !callNode.isCallTargetCloned() && context.consumeSplittingBudget(callNode.getCallTarget())) {
+                callNode.cloneCallTarget();
+            }
+        }
+
+    }
+
+    /**
+     * Call node for a Sulong function where the function is constant and its arguments can be
+     * passed without boxing. The primitive arguments (including the stack pointer) are stored in a
+     * <code>long[]</code> that takes the place of the stack pointer in the argument array, and
+     * their own elements in the argument array stay <code>null</code>. Only the
+     * {@link LLVMArgNode}s of the callee need to be aware of this convention, so it is restricted
+     * to callees that are regular Sulong functions with a fixed number of arguments and no
+     * {@link LLVMFrameArgumentsReader}. A pointer argument that is not an {@link LLVMAddress}
+     * (e.g. a {@link com.oracle.truffle.api.interop.TruffleObject}) stays boxed in its own
+     * element.
+     */
+    public static class LLVMResolvedDirectUnboxedCallNode extends LLVMResolvedDirectCallNode {
+
+        public LLVMResolvedDirectUnboxedCallNode(CallTarget callTarget, LLVMExpressionNode[] args, LLVMContext context) {
+            super(callTarget, args, context);
+        }
+
+        public static boolean canPassUnboxed(LLVMFunctionDescriptor function, CallTarget callTarget, LLVMExpressionNode[] args) {
+            if (function.isVarArgs() || args.length == 0 || !(args[0] instanceof LLVMAddressNode) || !(callTarget instanceof RootCallTarget)) {
+                return false;
+            }
+            RootNode rootNode = ((RootCallTarget) callTarget).getRootNode();
+            return rootNode instanceof LLVMFunctionStartNode && !((LLVMFunctionStartNode) rootNode).readsFrameArguments();
+        }
+
+        @Override
+        public Object executeGeneric(VirtualFrame frame) {
+            profileSplitting();
+            return callNode.call(frame, evaluateUnboxedArgs(frame));
+        }
+
+        @ExplodeLoop
+        private Object[] evaluateUnboxedArgs(VirtualFrame frame) {
+            LLVMExpressionNode[] args = getArgs();
+            Object[] argValues = new Object[args.length];
+            long[] primitives = new long[args.length];
+            for (int i = 0; i < args.length; i++) {
+                LLVMExpressionNode arg = args[i];
+                if (arg instanceof LLVMI32Node) {
+                    primitives[i] = ((LLVMI32Node) arg).executeI32(frame);
+                } else if (arg instanceof LLVMI64Node) {
+                    primitives[i] = ((LLVMI64Node) arg).executeI64(frame);
+                } else if (i == 0) {
+                    // the stack pointer is always an LLVMAddress
+                    primitives[i] = ((LLVMAddressNode) arg).executeRawPointer(frame);
+                } else if (arg instanceof LLVMAddressNode) {
+                    Object pointer = arg.executeGeneric(frame);
+                    if (pointer instanceof LLVMAddress) {
+                        primitives[i] = ((LLVMAddress) pointer).getVal();
+                    } else {
+                        argValues[i] = pointer;
+                    }
+                } else if (arg instanceof LLVMDoubleNode) {
+                    primitives[i] = Double.doubleToRawLongBits(((LLVMDoubleNode) arg).executeDouble(frame));
+                } else if (arg instanceof LLVMFloatNode) {
+                    primitives[i] = Float.floatToRawIntBits(((LLVMFloatNode) arg).executeFloat(frame));
+                } else if (arg instanceof LLVMI8Node) {
+                    primitives[i] = ((LLVMI8Node) arg).executeI8(frame);
+                } else if (arg instanceof LLVMI16Node) {
+                    primitives[i] = ((LLVMI16Node) arg).executeI16(frame);
+                } else if (arg instanceof LLVMI1Node) {
+                    primitives[i] = ((LLVMI1Node) arg).executeI1(frame) ? 1 : 0;
+                } else {
+                    argValues[i] = arg.executeGeneric(frame);
+                }
+            }
+            argValues[0] = primitives;
+            return argValues;
+        }
+
     }
 
     /**
@@ -214,6 +349,29 @@ public abstract class LLVMCallNode {
         }
     }
 
+    /**
+     * Root node that calls a native function with the arguments of a Sulong call, i.e., without the
+     * stack pointer.
+     */
+    public static class LLVMNativeFunctionRootNode extends RootNode {
+
+        private final NativeFunctionHandle nativeHandle;
+
+        public LLVMNativeFunctionRootNode(NativeFunctionHandle nativeHandle) {
+            super(LLVMLanguage.class, null, null);
+            this.nativeHandle = nativeHandle;
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            Object[] arguments = frame.getArguments();
+            Object[] newArguments = new Object[arguments.length - LLVMCallNode.ARG_START_INDEX];
+            System.arraycopy(arguments, LLVMCallNode.ARG_START_INDEX, newArguments, 0, newArguments.length);
+            return nativeHandle.call(newArguments);
+        }
+
+    }
+
     public static class NativeCallTarget implements CallTarget {
 
         private final NativeFunctionHandle functionHandle;
@@ -258,6 +416,9 @@ public abstract class LLVMCallNode {
         @CompilationFinal private boolean printedNativePerformanceWarning;
         @CompilationFinal private boolean printedExceedInlineCacheWarning;
 
+        private final boolean printIndirectCallStats = LLVMBaseOptionFacade.printIndirectCallStats();
+        private LLVMIndirectCallSiteStats indirectCallSiteStats;
+
         protected static final int INLINE_CACHE_SIZE = LLVMBaseOptionFacade.getInlineCacheSize();
 
         public LLVMFunctionCallChain(LLVMContext context, LLVMExpressionNode[] nodes) {
@@ -281,21 +442,11 @@ public abstract class LLVMCallNode {
             if (CompilerDirectives.inInterpreter() && !printedNativePerformanceWarning) {
                 printIndirectNativeCallWarning(function);
             }
-            final NativeFunctionHandle nativeHandle = currentContext.getNativeHandle(function, prepareForNative(args, currentContext));
-            if (nativeHandle == null) {
+            CallTarget callTarget = currentContext.getNativeCallTarget(function, args);
+            if (callTarget == null) {
                 throw new IllegalStateException("could not find function " + function.getName());
-            } else {
-                return Truffle.getRuntime().createCallTarget(new RootNode(LLVMLanguage.class, null, null) {
-
-                    @Override
-                    public Object execute(VirtualFrame frame) {
-                        Object[] arguments = frame.getArguments();
-                        Object[] newArguments = new Object[arguments.length - LLVMCallNode.ARG_START_INDEX];
-                        System.arraycopy(arguments, LLVMCallNode.ARG_START_INDEX, newArguments, 0, newArguments.length);
-                        return nativeHandle.call(newArguments);
-                    }
-                });
             }
+            return callTarget;
         }
 
         @Specialization(limit = "INLINE_CACHE_SIZE", guards = "function.getFunctionIndex() == cachedFunction.getFunctionIndex()")
@@ -305,13 +456,34 @@ public abstract class LLVMCallNode {
             return callNode.call(frame, arguments);
         }
 
+        /**
+         * Megamorphic case: the call target is read from the function registry by the function
+         * index, so that the function descriptor is not needed for calls to Sulong functions.
+         */
         @Specialization(contains = "doDirect")
         protected Object doIndirect(VirtualFrame frame, LLVMFunctionDescriptor function, Object[] arguments, //
                         @Cached("create()") IndirectCallNode callNode) {
             if (CompilerDirectives.inInterpreter() && !printedExceedInlineCacheWarning) {
                 printExceededInlineCacheWarning(function);
             }
-            return callNode.call(frame, getIndirectCallTarget(getContext(), function, getNodes()), arguments);
+            int functionIndex = function.getFunctionIndex();
+            if (printIndirectCallStats) {
+                recordIndirectCall(functionIndex);
+            }
+            CallTarget callTarget = context.getFunction(functionIndex);
+            if (callTarget == null) {
+                callTarget = getNativeCallTarget(context, function, getNodes());
+            }
+            return callNode.call(frame, callTarget, arguments);
+        }
+
+        @TruffleBoundary
+        private void recordIndirectCall(int functionIndex) {
+            if (indirectCallSiteStats == null) {
+                indirectCallSiteStats = new LLVMIndirectCallSiteStats(String.valueOf(getRootNode()));
+                context.registerIndirectCallSiteStats(indirectCallSiteStats);
+            }
+            indirectCallSiteStats.record(functionIndex);
         }
 
         private void printIndirectNativeCallWarning(LLVMFunctionDescriptor function) {
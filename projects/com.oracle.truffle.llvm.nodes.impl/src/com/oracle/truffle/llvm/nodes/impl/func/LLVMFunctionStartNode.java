@@ -32,18 +32,23 @@ package com.oracle.truffle.llvm.nodes.impl.func;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.llvm.nodes.base.LLVMExpressionNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMStackFrameNuller;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMLanguage;
+import com.oracle.truffle.llvm.nodes.impl.others.LLVMBlockNode.LLVMSplitRegionNode;
+import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
 
 public class LLVMFunctionStartNode extends RootNode {
 
@@ -52,6 +57,8 @@ public class LLVMFunctionStartNode extends RootNode {
     @Children private final LLVMNode[] afterFunction;
     private final String functionName;
     @CompilationFinal private LLVMStackFrameNuller[] nullers;
+    private final boolean cloningAllowed = LLVMBaseOptionFacade.getSplittingBudget() > 0;
+    private Boolean readsFrameArguments;
 
     public LLVMFunctionStartNode(LLVMExpressionNode node, LLVMNode[] beforeFunction, LLVMNode[] afterFunction, SourceSection sourceSection, FrameDescriptor frameDescriptor, String functionName) {
         super(LLVMLanguage.class, sourceSection, frameDescriptor);
@@ -117,6 +124,42 @@ public class LLVMFunctionStartNode extends RootNode {
         return result;
     }
 
+    /**
+     * Allows call sites to request a separate copy of this function (see
+     * {@link LLVMCallNode.LLVMResolvedDirectCallNode}).
+     */
+    @Override
+    public boolean isCloningAllowed() {
+        return cloningAllowed;
+    }
+
+    /**
+     * Returns whether a node of this function reads the argument array directly (see
+     * {@link LLVMFrameArgumentsReader}).
+     */
+    public boolean readsFrameArguments() {
+        CompilerAsserts.neverPartOfCompilation();
+        if (readsFrameArguments == null) {
+            readsFrameArguments = containsFrameArgumentsReader(this);
+        }
+        return readsFrameArguments;
+    }
+
+    private static boolean containsFrameArgumentsReader(Node root) {
+        boolean[] found = new boolean[1];
+        root.accept(node -> {
+            if (node instanceof LLVMFrameArgumentsReader) {
+                found[0] = true;
+            } else if (node instanceof LLVMSplitRegionNode) {
+                for (CallTarget part : ((LLVMSplitRegionNode) node).getParts()) {
+                    found[0] |= containsFrameArgumentsReader(((RootCallTarget) part).getRootNode());
+                }
+            }
+            return !found[0];
+        });
+        return found[0];
+    }
+
     @Override
     public String toString() {
         return functionName;
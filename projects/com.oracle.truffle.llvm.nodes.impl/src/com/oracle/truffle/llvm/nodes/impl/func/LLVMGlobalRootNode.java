@@ -62,6 +62,8 @@ public class LLVMGlobalRootNode extends RootNode {
     private final LLVMContext context;
     // FIXME instead make the option system "PE safe"
     private final boolean printNativeStats = LLVMBaseOptionFacade.printNativeCallStats();
+    private final boolean printIndirectCallStats = LLVMBaseOptionFacade.printIndirectCallStats();
+    private final boolean printSplittingStats = LLVMBaseOptionFacade.printSplittingStats();
     private final int executionCount = LLVMBaseOptionFacade.getExecutionCount();
     private final boolean printExecutionTime = LLVMBaseOptionFacade.printExecutionTime();
     private final FrameSlot stackPointerSlot;
@@ -83,29 +85,38 @@ public class LLVMGlobalRootNode extends RootNode {
         try {
             Object result = null;
             for (int i = 0; i < executionCount; i++) {
-                frame.setObject(stackPointerSlot, stackPointer);
+                LLVMFrameUtil.setAddress(frame, stackPointerSlot, stackPointer);
                 Object[] realArgs = new Object[arguments.length + LLVMCallNode.ARG_START_INDEX];
                 realArgs[0] = LLVMFrameUtil.getAddress(frame, stackPointerSlot);
                 System.arraycopy(arguments, 0, realArgs, LLVMCallNode.ARG_START_INDEX, arguments.length);
                 if (printExecutionTime) {
                     startExecutionTime = System.currentTimeMillis();
                 }
-                result = main.call(frame, realArgs);
+                try {
+                    result = main.call(frame, realArgs);
+                } catch (LLVMExitException e) {
+                    return runAtExitFunctions(e.getReturnCode());
+                }
                 if (printExecutionTime) {
                     endExecutionTime = System.currentTimeMillis();
                     printExecutionTime();
                 }
+                result = runAtExitFunctions(result);
                 if (i != executionCount - 1) {
                     executeStaticInits();
                 }
             }
             return result;
-        } catch (LLVMExitException e) {
-            return e.getReturnCode();
         } finally {
             if (printNativeStats) {
                 printNativeCallStats(context);
             }
+            if (printIndirectCallStats) {
+                printIndirectCallStats(context);
+            }
+            if (printSplittingStats) {
+                printSplittingStats(context);
+            }
         }
     }
 
@@ -115,6 +126,23 @@ public class LLVMGlobalRootNode extends RootNode {
         LLVMLogger.unconditionalInfo("execution time: " + executionTime + " ms");
     }
 
+    /**
+     * Runs the exit functions registered by the current execution. An exit function that calls
+     * <code>exit</code> replaces the result, and the remaining exit functions are still run.
+     */
+    @TruffleBoundary
+    private Object runAtExitFunctions(Object result) {
+        Object exitResult = result;
+        while (true) {
+            try {
+                context.runAtExitFunctions();
+                return exitResult;
+            } catch (LLVMExitException e) {
+                exitResult = e.getReturnCode();
+            }
+        }
+    }
+
     @TruffleBoundary
     private void executeStaticInits() {
         List<RootCallTarget> staticInits = context.getStaticInitializers();
@@ -140,4 +168,39 @@ public class LLVMGlobalRootNode extends RootNode {
         // Checkstyle: resume
     }
 
+    @TruffleBoundary
+    private static void printIndirectCallStats(LLVMContext context) {
+        List<LLVMIndirectCallSiteStats> callSites = context.getIndirectCallSiteStats();
+        // Checkstyle: stop
+        if (!callSites.isEmpty()) {
+            System.out.println("==========================");
+            System.out.println("megamorphic indirect call sites:");
+            System.out.println("==========================");
+            for (LLVMIndirectCallSiteStats callSite : callSites) {
+                System.out.println(String.format("%15s: %d calls, %d targets", callSite.getSite(), callSite.getCalls(), callSite.getNrTargets()));
+                for (Map.Entry<Integer, Long> target : callSite.getCallsByFunctionIndex().entrySet()) {
+                    String functionName = context.getFunctionRegistry().createFromIndex(target.getKey()).getName();
+                    System.out.println(String.format("%15s  %15s: %d", "", functionName, target.getValue()));
+                }
+            }
+            System.out.println("==========================");
+        }
+        // Checkstyle: resume
+    }
+
+    @TruffleBoundary
+    private static void printSplittingStats(LLVMContext context) {
+        Map<String, Integer> splitFunctions = context.getSplitFunctions();
+        // Checkstyle: stop
+        System.out.println("==========================");
+        System.out.println("split functions:");
+        System.out.println("==========================");
+        for (Map.Entry<String, Integer> entry : splitFunctions.entrySet()) {
+            System.out.println(String.format("%15s: %d call sites", entry.getKey(), entry.getValue()));
+        }
+        System.out.println(String.format("remaining splitting budget: %d nodes", context.getRemainingSplittingBudget()));
+        System.out.println("==========================");
+        // Checkstyle: resume
+    }
+
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.impl.func;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.oracle.truffle.api.CompilerAsserts;
+
+/**
+ * Records how often a megamorphic indirect call site called each of its target functions.
+ */
+public final class LLVMIndirectCallSiteStats {
+
+    private final String site;
+
+    /**
+     * Maps a function index (see
+     * {@link com.oracle.truffle.llvm.types.LLVMFunctionDescriptor#getFunctionIndex()}) to the number
+     * of calls to this function.
+     */
+    private final Map<Integer, Long> callsByFunctionIndex = new TreeMap<>();
+
+    private long calls;
+
+    public LLVMIndirectCallSiteStats(String site) {
+        this.site = site;
+    }
+
+    public void record(int functionIndex) {
+        CompilerAsserts.neverPartOfCompilation();
+        calls++;
+        Long val = callsByFunctionIndex.get(functionIndex);
+        callsByFunctionIndex.put(functionIndex, val == null ? 1 : val + 1);
+    }
+
+    public String getSite() {
+        return site;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public int getNrTargets() {
+        return callsByFunctionIndex.size();
+    }
+
+    public Map<Integer, Long> getCallsByFunctionIndex() {
+        return callsByFunctionIndex;
+    }
+
+}
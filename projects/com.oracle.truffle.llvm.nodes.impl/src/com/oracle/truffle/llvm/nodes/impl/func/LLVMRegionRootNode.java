@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.impl.func;
+
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeUtil;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMLanguage;
+import com.oracle.truffle.llvm.nodes.impl.others.LLVMBlockNode.LLVMRegionNode;
+
+/**
+ * The root of one part of a function that has been split into several compilation units. The
+ * part is executed on the frame of the function, which is passed as the first argument, from the
+ * block given as second argument.
+ */
+public final class LLVMRegionRootNode extends RootNode {
+
+    private final Node owner;
+    @Child private LLVMRegionNode region;
+    private final int header;
+
+    /**
+     * @param owner the node of the function that calls this part
+     * @param header the header of the loop whose body the part belongs to, or
+     *            {@link LLVMRegionNode#NO_HEADER}
+     */
+    public LLVMRegionRootNode(Node owner, LLVMRegionNode region, int header) {
+        super(LLVMLanguage.class, null, new FrameDescriptor());
+        this.owner = owner;
+        this.region = region;
+        this.header = header;
+    }
+
+    @Override
+    public Object execute(VirtualFrame frame) {
+        Object[] arguments = frame.getArguments();
+        MaterializedFrame functionFrame = (MaterializedFrame) arguments[0];
+        int entry = (int) arguments[1];
+        return region.executeRegion(functionFrame, entry, header);
+    }
+
+    /**
+     * Finds the function of a node, also if the node belongs to a part of a split function.
+     */
+    public static LLVMFunctionStartNode findFunctionStartNode(Node node) {
+        Node current = node;
+        while (true) {
+            LLVMFunctionStartNode functionStartNode = NodeUtil.findParent(current, LLVMFunctionStartNode.class);
+            if (functionStartNode != null || !(current.getRootNode() instanceof LLVMRegionRootNode)) {
+                return functionStartNode;
+            }
+            current = ((LLVMRegionRootNode) current.getRootNode()).owner;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(findFunctionStartNode(owner));
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.impl.intrinsics.c;
+
+import com.oracle.nfi.NativeFunctionInterfaceRuntime;
+import com.oracle.nfi.api.NativeFunctionHandle;
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.IndirectCallNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMAddressNode;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMContext;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMFunctionNode;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMLanguage;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI64Node;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMFrameArgumentsReader;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMIntrinsic.LLVMI32Intrinsic;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMIntrinsic.LLVMVoidIntrinsic;
+import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException;
+import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException.UnsupportedReason;
+import com.oracle.truffle.llvm.types.LLVMAddress;
+import com.oracle.truffle.llvm.types.LLVMFunctionDescriptor;
+import com.oracle.truffle.llvm.types.memory.LLVMHeap;
+
+/**
+ * Implements C library functions that take function pointers and call them back. Since Sulong
+ * function pointers cannot be passed to native code, substituting these functions keeps both the
+ * callee and the callbacks in Sulong.
+ *
+ * These substitutions read the stack pointer of the caller from the frame arguments, so they are
+ * always called through their own call target.
+ */
+public abstract class LLVMCCallbackIntrinsics {
+
+    @NodeChild(type = LLVMFunctionNode.class)
+    public abstract static class LLVMAtExit extends LLVMI32Intrinsic {
+
+        @Child private Node findContextNode = LLVMLanguage.INSTANCE.createFindContextNode0();
+
+        @Specialization
+        public int executeIntrinsic(LLVMFunctionDescriptor function) {
+            LLVMLanguage.INSTANCE.findContext0(findContextNode).registerAtExitFunction(function);
+            return 0;
+        }
+
+    }
+
+    /**
+     * The argument is passed to the exit function as is, so it can be any kind of pointer (e.g.,
+     * an {@link LLVMAddress} or a foreign object).
+     */
+    @NodeChildren({@NodeChild(type = LLVMFunctionNode.class), @NodeChild(type = LLVMAddressNode.class), @NodeChild(type = LLVMAddressNode.class)})
+    public abstract static class LLVMCxaAtExit extends LLVMI32Intrinsic {
+
+        @Child private Node findContextNode = LLVMLanguage.INSTANCE.createFindContextNode0();
+
+        @Specialization
+        public int executeIntrinsic(LLVMFunctionDescriptor function, Object argument, @SuppressWarnings("unused") Object dsoHandle) {
+            LLVMLanguage.INSTANCE.findContext0(findContextNode).registerAtExitFunction(function, argument);
+            return 0;
+        }
+
+    }
+
+    /**
+     * Sorts the elements with a bottom-up merge sort. The elements are first copied to a temporary
+     * buffer, the comparator is called with pointers into this buffer, and the elements are then
+     * copied back in sorted order, so that elements of any size are only moved once.
+     *
+     * A comparator that is not implemented in Sulong (e.g., a libc function) cannot be called back
+     * from here, so the elements are then sorted by the native <code>qsort</code> instead. Elements
+     * that are not stored in native memory (e.g., foreign objects) cannot be moved byte-wise, so
+     * only arrays with less than two elements are supported for them.
+     */
+    @NodeChildren({@NodeChild(type = LLVMAddressNode.class), @NodeChild(type = LLVMI64Node.class), @NodeChild(type = LLVMI64Node.class), @NodeChild(type = LLVMFunctionNode.class)})
+    public abstract static class LLVMQsort extends LLVMVoidIntrinsic implements LLVMFrameArgumentsReader {
+
+        @Child private Node findContextNode = LLVMLanguage.INSTANCE.createFindContextNode0();
+
+        @SuppressWarnings("unused")
+        @Specialization(limit = "1", guards = {"comparator.getFunctionIndex() == functionIndex", "!isNativeComparator(comparator)"})
+        public void executeDirect(VirtualFrame frame, LLVMAddress base, long nrElements, long elementSize, LLVMFunctionDescriptor comparator,
+                        @Cached("comparator.getFunctionIndex()") int functionIndex,
+                        @Cached("create(getComparator(comparator))") DirectCallNode callNode) {
+            sort(frame, base, nrElements, elementSize, callNode, null, null);
+        }
+
+        @Specialization(contains = "executeDirect", guards = "!isNativeComparator(comparator)")
+        public void executeIndirect(VirtualFrame frame, LLVMAddress base, long nrElements, long elementSize, LLVMFunctionDescriptor comparator,
+                        @Cached("create()") IndirectCallNode callNode) {
+            sort(frame, base, nrElements, elementSize, null, callNode, getComparator(comparator));
+        }
+
+        @Specialization(guards = "isNativeComparator(comparator)")
+        public void executeNative(LLVMAddress base, long nrElements, long elementSize, LLVMFunctionDescriptor comparator,
+                        @Cached("createNativeQsort()") NativeFunctionHandle nativeQsort) {
+            sortNative(nativeQsort, base.getVal(), nrElements, elementSize, getNativeComparator(comparator));
+        }
+
+        @Specialization
+        public void executeForeign(@SuppressWarnings("unused") Object base, long nrElements, @SuppressWarnings("unused") long elementSize, @SuppressWarnings("unused") LLVMFunctionDescriptor comparator) {
+            if (nrElements >= 2) {
+                CompilerDirectives.transferToInterpreter();
+                throw new LLVMUnsupportedException(UnsupportedReason.OTHER_TYPE_NOT_IMPLEMENTED);
+            }
+        }
+
+        protected static NativeFunctionHandle createNativeQsort() {
+            return NativeFunctionInterfaceRuntime.getNativeFunctionInterface().getFunctionHandle("qsort", void.class, long.class, long.class, long.class, long.class);
+        }
+
+        protected boolean isNativeComparator(LLVMFunctionDescriptor comparator) {
+            LLVMContext context = LLVMLanguage.INSTANCE.findContext0(findContextNode);
+            return context.getFunction(comparator.getFunctionIndex()) == null;
+        }
+
+        protected CallTarget getComparator(LLVMFunctionDescriptor comparator) {
+            LLVMContext context = LLVMLanguage.INSTANCE.findContext0(findContextNode);
+            CallTarget callTarget = context.getFunction(comparator.getFunctionIndex());
+            if (callTarget == null) {
+                CompilerDirectives.transferToInterpreter();
+                throw new LLVMUnsupportedException(UnsupportedReason.NATIVE_CALLBACK);
+            }
+            return callTarget;
+        }
+
+        private long getNativeComparator(LLVMFunctionDescriptor comparator) {
+            LLVMContext context = LLVMLanguage.INSTANCE.findContext0(findContextNode);
+            long symbol = lookupNativeComparator(context, comparator);
+            if (symbol == 0) {
+                CompilerDirectives.transferToInterpreter();
+                throw new LLVMUnsupportedException(UnsupportedReason.NATIVE_CALLBACK);
+            }
+            return symbol;
+        }
+
+        @TruffleBoundary
+        private static long lookupNativeComparator(LLVMContext context, LLVMFunctionDescriptor comparator) {
+            return context.getNativeHandle(comparator.getName());
+        }
+
+        @TruffleBoundary
+        private static void sortNative(NativeFunctionHandle qsort, long base, long nrElements, long elementSize, long comparator) {
+            qsort.call(base, nrElements, elementSize, comparator);
+        }
+
+        private static void sort(VirtualFrame frame, LLVMAddress base, long nrElements, long elementSize, DirectCallNode directCallNode, IndirectCallNode indirectCallNode, CallTarget callTarget) {
+            if (nrElements < 2 || elementSize == 0) {
+                return;
+            }
+            if (nrElements > Integer.MAX_VALUE) {
+                CompilerDirectives.transferToInterpreter();
+                throw new AssertionError(nrElements);
+            }
+            int n = (int) nrElements;
+            LLVMAddress stackPointer = (LLVMAddress) frame.getArguments()[0];
+            LLVMAddress elements = LLVMHeap.allocateMemory(nrElements * elementSize);
+            try {
+                LLVMHeap.memCopy(elements, base, nrElements * elementSize);
+                int[] order = new int[n];
+                int[] merged = new int[n];
+                for (int i = 0; i < n; i++) {
+                    order[i] = i;
+                }
+                for (int width = 1; width < n; width *= 2) {
+                    for (int left = 0; left < n; left += 2 * width) {
+                        int middle = Math.min(left + width, n);
+                        int right = Math.min(left + 2 * width, n);
+                        int i = left;
+                        int j = middle;
+                        for (int k = left; k < right; k++) {
+                            if (i < middle && (j >= right || compare(frame, stackPointer, elements, elementSize, order[i], order[j], directCallNode, indirectCallNode, callTarget) <= 0)) {
+                                merged[k] = order[i++];
+                            } else {
+                                merged[k] = order[j++];
+                            }
+                        }
+                    }
+                    int[] tmp = order;
+                    order = merged;
+                    merged = tmp;
+                }
+                for (int i = 0; i < n; i++) {
+                    LLVMHeap.memCopy(base.increment(i * elementSize), elements.increment(order[i] * elementSize), elementSize);
+                }
+            } finally {
+                LLVMHeap.freeMemory(elements);
+            }
+        }
+
+        private static int compare(VirtualFrame frame, LLVMAddress stackPointer, LLVMAddress elements, long elementSize, int first, int second, DirectCallNode directCallNode,
+                        IndirectCallNode indirectCallNode, CallTarget callTarget) {
+            Object[] arguments = new Object[]{stackPointer, elements.increment(first * elementSize), elements.increment(second * elementSize)};
+            if (directCallNode != null) {
+                return (int) directCallNode.call(frame, arguments);
+            } else {
+                return (int) indirectCallNode.call(frame, callTarget, arguments);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.impl.intrinsics.c;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMAddressNode;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI64Node;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMIntrinsic.LLVMAddressIntrinsic;
+import com.oracle.truffle.llvm.types.LLVMAddress;
+import com.oracle.truffle.llvm.types.memory.LLVMHeap;
+
+/**
+ * Implements the memory allocation functions from stdlib.h on top of {@link LLVMHeap}. The
+ * corresponding <code>free</code> is implemented by {@link LLVMFree}.
+ */
+public abstract class LLVMCMemoryIntrinsics {
+
+    @NodeChild(type = LLVMI64Node.class)
+    public abstract static class LLVMMalloc extends LLVMAddressIntrinsic {
+
+        @Specialization
+        public LLVMAddress executeIntrinsic(long size) {
+            return LLVMHeap.allocateMemory(size);
+        }
+
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMI64Node.class), @NodeChild(type = LLVMI64Node.class)})
+    public abstract static class LLVMCalloc extends LLVMAddressIntrinsic {
+
+        @Specialization
+        public LLVMAddress executeIntrinsic(long count, long size) {
+            if (count < 0 || size < 0) {
+                // no allocation of 2^63 bytes or more can succeed
+                return LLVMAddress.NULL_POINTER;
+            }
+            long totalSize;
+            try {
+                totalSize = Math.multiplyExact(count, size);
+            } catch (ArithmeticException e) {
+                return LLVMAddress.NULL_POINTER;
+            }
+            return LLVMHeap.allocateZeroedMemory(totalSize);
+        }
+
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMAddressNode.class), @NodeChild(type = LLVMI64Node.class)})
+    public abstract static class LLVMRealloc extends LLVMAddressIntrinsic {
+
+        @Specialization
+        public LLVMAddress executeIntrinsic(LLVMAddress address, long size) {
+            return LLVMHeap.reallocateMemory(address, size);
+        }
+
+    }
+
+}
@@ -43,6 +43,7 @@ import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.llvm.nodes.base.LLVMExpressionNode;
 import com.oracle.truffle.llvm.nodes.impl.func.LLVMCallNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMFrameArgumentsReader;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMIntrinsic.LLVMAddressIntrinsic;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMIntrinsic.LLVMBooleanIntrinsic;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMIntrinsic.LLVMDoubleIntrinsic;
@@ -92,7 +93,7 @@ public final class LLVMTruffleExecute {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleExecuteP extends LLVMAddressIntrinsic {
+    public abstract static class LLVMTruffleExecuteP extends LLVMAddressIntrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignExecute;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -119,7 +120,7 @@ public final class LLVMTruffleExecute {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleExecuteI extends LLVMI32Intrinsic {
+    public abstract static class LLVMTruffleExecuteI extends LLVMI32Intrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignExecute;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -146,7 +147,7 @@ public final class LLVMTruffleExecute {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleExecuteL extends LLVMI64Intrinsic {
+    public abstract static class LLVMTruffleExecuteL extends LLVMI64Intrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignExecute;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -173,7 +174,7 @@ public final class LLVMTruffleExecute {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleExecuteC extends LLVMI8Intrinsic {
+    public abstract static class LLVMTruffleExecuteC extends LLVMI8Intrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignExecute;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -200,7 +201,7 @@ public final class LLVMTruffleExecute {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleExecuteF extends LLVMFloatIntrinsic {
+    public abstract static class LLVMTruffleExecuteF extends LLVMFloatIntrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignExecute;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -227,7 +228,7 @@ public final class LLVMTruffleExecute {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleExecuteD extends LLVMDoubleIntrinsic {
+    public abstract static class LLVMTruffleExecuteD extends LLVMDoubleIntrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignExecute;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -254,7 +255,7 @@ public final class LLVMTruffleExecute {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleExecuteB extends LLVMBooleanIntrinsic {
+    public abstract static class LLVMTruffleExecuteB extends LLVMBooleanIntrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignExecute;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -35,10 +35,11 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.llvm.nodes.base.LLVMExpressionNode;
 import com.oracle.truffle.llvm.nodes.impl.func.LLVMCallNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMFrameArgumentsReader;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMIntrinsic.LLVMAddressIntrinsic;
 
 @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
-public abstract class LLVMTruffleGetArg extends LLVMAddressIntrinsic {
+public abstract class LLVMTruffleGetArg extends LLVMAddressIntrinsic implements LLVMFrameArgumentsReader {
 
     @Specialization
     public Object executeIntrinsic(VirtualFrame frame, int index) {
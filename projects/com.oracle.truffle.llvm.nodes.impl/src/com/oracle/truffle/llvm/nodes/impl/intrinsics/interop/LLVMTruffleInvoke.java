@@ -44,6 +44,7 @@ import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.llvm.nodes.base.LLVMExpressionNode;
 import com.oracle.truffle.llvm.nodes.impl.func.LLVMCallNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMFrameArgumentsReader;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMIntrinsic.LLVMAddressIntrinsic;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMIntrinsic.LLVMBooleanIntrinsic;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMIntrinsic.LLVMDoubleIntrinsic;
@@ -85,7 +86,7 @@ public final class LLVMTruffleInvoke {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleInvokeP extends LLVMAddressIntrinsic {
+    public abstract static class LLVMTruffleInvokeP extends LLVMAddressIntrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignInvoke;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -112,7 +113,7 @@ public final class LLVMTruffleInvoke {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleInvokeI extends LLVMI32Intrinsic {
+    public abstract static class LLVMTruffleInvokeI extends LLVMI32Intrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignInvoke;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -139,7 +140,7 @@ public final class LLVMTruffleInvoke {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleInvokeL extends LLVMI64Intrinsic {
+    public abstract static class LLVMTruffleInvokeL extends LLVMI64Intrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignInvoke;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -166,7 +167,7 @@ public final class LLVMTruffleInvoke {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleInvokeC extends LLVMI8Intrinsic {
+    public abstract static class LLVMTruffleInvokeC extends LLVMI8Intrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignInvoke;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -193,7 +194,7 @@ public final class LLVMTruffleInvoke {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleInvokeF extends LLVMFloatIntrinsic {
+    public abstract static class LLVMTruffleInvokeF extends LLVMFloatIntrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignInvoke;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -220,7 +221,7 @@ public final class LLVMTruffleInvoke {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleInvokeD extends LLVMDoubleIntrinsic {
+    public abstract static class LLVMTruffleInvokeD extends LLVMDoubleIntrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignInvoke;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
@@ -247,7 +248,7 @@ public final class LLVMTruffleInvoke {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMTruffleInvokeB extends LLVMBooleanIntrinsic {
+    public abstract static class LLVMTruffleInvokeB extends LLVMBooleanIntrinsic implements LLVMFrameArgumentsReader {
 
         @Child private Node foreignInvoke;
         @Child private ToLLVMNode toLLVM = new ToLLVMNode();
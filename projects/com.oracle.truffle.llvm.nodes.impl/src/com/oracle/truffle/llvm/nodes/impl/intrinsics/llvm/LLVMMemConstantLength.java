@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.llvm.nodes.base.LLVMNode;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMAddressNode;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI8Node;
+import com.oracle.truffle.llvm.types.LLVMAddress;
+import com.oracle.truffle.llvm.types.memory.LLVMHeap;
+
+/**
+ * Specializations of <code>llvm.memcpy</code> and <code>llvm.memset</code> for a constant length
+ * and alignment. The memory is accessed by an exploded sequence of aligned loads and stores that
+ * are as wide as the alignment permits, so that small struct copies compile to a few moves.
+ */
+public abstract class LLVMMemConstantLength {
+
+    /**
+     * The maximum number of loads and stores that a constant length node may explode to.
+     */
+    public static final int MAX_ACCESSES = 16;
+
+    /**
+     * Returns the widest access size (1, 2, 4 or 8 bytes) that satisfies the given alignment.
+     */
+    static int getAccessSize(int alignment) {
+        if (alignment <= 0) {
+            return Byte.BYTES;
+        }
+        return Math.min(Integer.lowestOneBit(alignment), Long.BYTES);
+    }
+
+    /**
+     * Checks whether a constant length node can be used for the given length and alignment.
+     */
+    public static boolean canSpecialize(long length, int alignment) {
+        if (length < 0) {
+            return false;
+        }
+        int accessSize = getAccessSize(alignment);
+        return length / accessSize + Integer.bitCount((int) (length % accessSize)) <= MAX_ACCESSES;
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMAddressNode.class, value = "destination"), @NodeChild(type = LLVMAddressNode.class, value = "source")})
+    public abstract static class LLVMMemCopyConstantLength extends LLVMNode {
+
+        private final int accessSize;
+        private final int accessCount;
+        private final int remainder;
+
+        public LLVMMemCopyConstantLength(long length, int alignment) {
+            assert canSpecialize(length, alignment);
+            accessSize = getAccessSize(alignment);
+            accessCount = (int) (length / accessSize);
+            remainder = (int) (length % accessSize);
+        }
+
+        @Specialization
+        @ExplodeLoop
+        public void executeVoid(LLVMAddress target, LLVMAddress source) {
+            long targetAddress = target.getVal();
+            long sourceAddress = source.getVal();
+            long offset = 0;
+            for (int i = 0; i < accessCount; i++) {
+                LLVMHeap.copyAccess(targetAddress + offset, sourceAddress + offset, accessSize);
+                offset += accessSize;
+            }
+            for (int size = accessSize / 2; size > 0; size /= 2) {
+                if ((remainder & size) != 0) {
+                    LLVMHeap.copyAccess(targetAddress + offset, sourceAddress + offset, size);
+                    offset += size;
+                }
+            }
+        }
+
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMAddressNode.class, value = "destination"), @NodeChild(type = LLVMI8Node.class, value = "value")})
+    public abstract static class LLVMMemSetConstantLength extends LLVMNode {
+
+        private final int accessSize;
+        private final int accessCount;
+        private final int remainder;
+
+        public LLVMMemSetConstantLength(long length, int alignment) {
+            assert canSpecialize(length, alignment);
+            accessSize = getAccessSize(alignment);
+            accessCount = (int) (length / accessSize);
+            remainder = (int) (length % accessSize);
+        }
+
+        @Specialization
+        @ExplodeLoop
+        public void executeVoid(LLVMAddress target, byte value) {
+            long targetAddress = target.getVal();
+            long pattern = LLVMHeap.replicateByte(value);
+            long offset = 0;
+            for (int i = 0; i < accessCount; i++) {
+                LLVMHeap.setAccess(targetAddress + offset, pattern, accessSize);
+                offset += accessSize;
+            }
+            for (int size = accessSize / 2; size > 0; size /= 2) {
+                if ((remainder & size) != 0) {
+                    LLVMHeap.setAccess(targetAddress + offset, pattern, size);
+                    offset += size;
+                }
+            }
+        }
+
+    }
+
+}
@@ -36,13 +36,14 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.llvm.nodes.base.LLVMNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMAddressNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMFrameArgumentsReader;
 import com.oracle.truffle.llvm.types.LLVMAddress;
 import com.oracle.truffle.llvm.types.LLVMFunctionDescriptor.LLVMRuntimeType;
 import com.oracle.truffle.llvm.types.memory.LLVMHeap;
 
 @NodeChildren({@NodeChild(type = LLVMAddressNode.class), @NodeChild(type = LLVMAddressNode.class)})
 @NodeField(type = int.class, name = "numberExplicitArguments")
-public abstract class LLVMX86_64BitVACopy extends LLVMNode {
+public abstract class LLVMX86_64BitVACopy extends LLVMNode implements LLVMFrameArgumentsReader {
 
     public abstract int getNumberExplicitArguments();
 
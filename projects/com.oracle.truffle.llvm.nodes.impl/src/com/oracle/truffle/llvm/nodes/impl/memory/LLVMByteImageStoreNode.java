@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.impl.memory;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.llvm.nodes.base.LLVMNode;
+import com.oracle.truffle.llvm.types.LLVMAddress;
+import com.oracle.truffle.llvm.types.memory.LLVMHeap;
+import com.oracle.truffle.llvm.types.memory.LLVMMemory;
+
+/**
+ * Installs a memory image that was computed by the parser at a fixed address, e.g., the initial
+ * values of all global variables of a module. Only the chunks of the image that are not all zero
+ * are kept as byte arrays; the memory between them is cleared with a memset, so that large
+ * zero-initialized globals do not cost the same amount of Java heap.
+ *
+ * Unless the image is stored again (e.g., when the static initializers are re-executed between
+ * several executions of the program), the chunks are released after the first store.
+ */
+public final class LLVMByteImageStoreNode extends LLVMNode {
+
+    private final LLVMAddress target;
+    private final long size;
+    private final boolean reusable;
+    private long[] offsets;
+    private byte[][] chunks;
+
+    /**
+     * @param size the size of the whole image
+     * @param offsets the offsets of the chunks, in increasing order
+     * @param chunks the non-overlapping chunks of the image that are not all zero
+     * @param reusable whether the image might be stored more than once
+     */
+    public LLVMByteImageStoreNode(LLVMAddress target, long size, long[] offsets, byte[][] chunks, boolean reusable) {
+        assert offsets.length == chunks.length;
+        this.target = target;
+        this.size = size;
+        this.offsets = offsets;
+        this.chunks = chunks;
+        this.reusable = reusable;
+    }
+
+    @Override
+    public void executeVoid(VirtualFrame frame) {
+        store();
+    }
+
+    @TruffleBoundary
+    private void store() {
+        if (chunks == null) {
+            throw new IllegalStateException("the image has already been stored and released");
+        }
+        long position = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            if (offsets[i] > position) {
+                LLVMHeap.memSet(target.increment(position), 0, offsets[i] - position);
+            }
+            LLVMMemory.putByteArray(target.increment(offsets[i]), chunks[i]);
+            position = offsets[i] + chunks[i].length;
+        }
+        if (size > position) {
+            LLVMHeap.memSet(target.increment(position), 0, size - position);
+        }
+        if (!reusable) {
+            offsets = null;
+            chunks = null;
+        }
+    }
+
+}
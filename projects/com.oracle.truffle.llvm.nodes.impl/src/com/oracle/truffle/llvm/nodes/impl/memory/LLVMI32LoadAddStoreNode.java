@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.impl.memory;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.llvm.nodes.base.LLVMNode;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMAddressNode;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI32Node;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.interop.ToLLVMNode;
+import com.oracle.truffle.llvm.types.LLVMAddress;
+import com.oracle.truffle.llvm.types.LLVMTruffleObject;
+import com.oracle.truffle.llvm.types.memory.LLVMMemory;
+
+/**
+ * Adds a value to the i32 stored at an address, for a load, an add and a store of the same address
+ * whose intermediate values are used by nothing else (as in <code>*p += x</code>). The address is
+ * computed only once.
+ */
+@NodeChildren({@NodeChild(type = LLVMAddressNode.class, value = "pointerNode"), @NodeChild(type = LLVMI32Node.class, value = "valueNode")})
+public abstract class LLVMI32LoadAddStoreNode extends LLVMNode {
+
+    @Child protected Node foreignRead = Message.READ.createNode();
+    @Child protected Node foreignWrite = Message.WRITE.createNode();
+    @Child protected ToLLVMNode toLLVM = new ToLLVMNode();
+
+    @Specialization
+    public void execute(LLVMAddress address, int value) {
+        LLVMMemory.putI32(address, LLVMMemory.getI32(address) + value);
+    }
+
+    @Specialization
+    public void execute(VirtualFrame frame, LLVMTruffleObject address, int value) {
+        try {
+            int index = (int) (address.getOffset() / LLVMI32Node.BYTE_SIZE);
+            Object current = ForeignAccess.sendRead(foreignRead, frame, address.getObject(), index);
+            int sum = (int) toLLVM.convert(frame, current, int.class) + value;
+            ForeignAccess.sendWrite(foreignWrite, frame, address.getObject(), index, sum);
+        } catch (UnknownIdentifierException | UnsupportedMessageException | UnsupportedTypeException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Specialization
+    public void execute(VirtualFrame frame, TruffleObject address, int value) {
+        execute(frame, new LLVMTruffleObject(address), value);
+    }
+
+}
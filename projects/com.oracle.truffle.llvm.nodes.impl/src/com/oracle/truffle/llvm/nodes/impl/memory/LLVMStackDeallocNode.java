@@ -38,6 +38,7 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.llvm.nodes.base.LLVMNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMAddressNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMContext;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMFrameUtil;
 import com.oracle.truffle.llvm.types.LLVMAddress;
 
 @NodeChild(type = LLVMAddressNode.class)
@@ -50,7 +51,7 @@ public abstract class LLVMStackDeallocNode extends LLVMNode {
 
     @Specialization
     public void executeVoid(VirtualFrame frame, LLVMAddress addr) {
-        frame.setObject(getStackPointerSlot(), addr);
+        LLVMFrameUtil.setAddress(frame, getStackPointerSlot(), addr);
     }
 
 }
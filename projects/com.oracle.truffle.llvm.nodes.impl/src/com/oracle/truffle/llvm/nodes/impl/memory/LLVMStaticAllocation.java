@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.impl.memory;
+
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameUtil;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.llvm.nodes.base.LLVMNode;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMAddressNode;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMContext;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMFrameUtil;
+import com.oracle.truffle.llvm.types.LLVMAddress;
+
+/**
+ * The <code>alloca</code>s with a constant size in the entry block of a function are coalesced
+ * into a single stack allocation that is performed in the function prologue. Each of these
+ * <code>alloca</code>s then only adds a constant offset to the base address of the allocation.
+ */
+public final class LLVMStaticAllocation {
+
+    private LLVMStaticAllocation() {
+    }
+
+    public static final class LLVMStaticAllocationPrologueNode extends LLVMNode {
+
+        private final LLVMContext context;
+        private final FrameSlot stackPointerSlot;
+        private final FrameSlot frameBaseSlot;
+        private final int size;
+        private final int alignment;
+
+        public LLVMStaticAllocationPrologueNode(LLVMContext context, FrameSlot stackPointerSlot, FrameSlot frameBaseSlot, int size, int alignment) {
+            this.context = context;
+            this.stackPointerSlot = stackPointerSlot;
+            this.frameBaseSlot = frameBaseSlot;
+            this.size = size;
+            this.alignment = alignment;
+        }
+
+        @Override
+        public void executeVoid(VirtualFrame frame) {
+            long frameBase = LLVMFrameUtil.allocateRawMemory(context.getStack(), frame, stackPointerSlot, size, alignment);
+            frame.setLong(frameBaseSlot, frameBase);
+        }
+
+    }
+
+    public static final class LLVMStaticAllocaNode extends LLVMAddressNode {
+
+        private final FrameSlot frameBaseSlot;
+        private final int offset;
+
+        public LLVMStaticAllocaNode(FrameSlot frameBaseSlot, int offset) {
+            this.frameBaseSlot = frameBaseSlot;
+            this.offset = offset;
+        }
+
+        @Override
+        public LLVMAddress executePointee(VirtualFrame frame) {
+            return LLVMAddress.fromLong(executeRawPointer(frame));
+        }
+
+        @Override
+        public long executeRawPointer(VirtualFrame frame) {
+            return FrameUtil.getLongSafe(frame, frameBaseSlot) + offset;
+        }
+
+    }
+
+}
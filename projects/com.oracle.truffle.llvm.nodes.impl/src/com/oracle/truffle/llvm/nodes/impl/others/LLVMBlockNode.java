@@ -29,65 +29,192 @@
  */
 package com.oracle.truffle.llvm.nodes.impl.others;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
-import com.oracle.truffle.api.nodes.LoopNode;
 import com.oracle.truffle.api.nodes.ExplodeLoop.LoopExplosionKind;
+import com.oracle.truffle.api.nodes.IndirectCallNode;
+import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.llvm.nodes.base.LLVMExpressionNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMStackFrameNuller;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMBasicBlockNode;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMRetNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMRegionRootNode;
 import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
 
 public abstract class LLVMBlockNode extends LLVMExpressionNode {
 
     public static class LLVMBlockControlFlowNode extends LLVMBlockNode {
 
-        @Children private final LLVMBasicBlockNode[] bodyNodes;
+        @Child private LLVMRegionNode region;
+        private final FrameSlot returnSlot;
+
+        public LLVMBlockControlFlowNode(LLVMBasicBlockNode[] bodyNodes, LLVMStackFrameNuller[][] beforeSlotNullerNodes, LLVMStackFrameNuller[][] afterSlotNullerNodes, FrameSlot returnSlot) {
+            this(new LLVMBlockRegionNode(bodyNodes, new LLVMLoopNode[0], beforeSlotNullerNodes, afterSlotNullerNodes), returnSlot);
+        }
+
+        public LLVMBlockControlFlowNode(LLVMRegionNode region, FrameSlot returnSlot) {
+            this.region = region;
+            this.returnSlot = returnSlot;
+        }
+
+        @Override
+        public Object executeGeneric(VirtualFrame frame) {
+            region.executeRegion(frame, 0, LLVMRegionNode.NO_HEADER);
+            if (returnSlot == null) {
+                return null;
+            } else {
+                return frame.getValue(returnSlot);
+            }
+        }
+
+    }
+
+    /**
+     * A region is either a whole function or the body of a natural loop.
+     */
+    public abstract static class LLVMRegionNode extends Node {
+
+        public static final int NO_HEADER = -2;
+        protected static final int NOT_IN_REGION = -1;
+
+        /**
+         * Executes the region from the given block until it reaches the header (if it is the body
+         * of a loop) or a block outside of the region.
+         *
+         * @return the index of the header, of the block outside of the region, or
+         *         {@link LLVMRetNode#RETURN_FROM_FUNCTION}
+         */
+        public abstract int executeRegion(VirtualFrame frame, int entry, int header);
+
+    }
+
+    /**
+     * Executes basic blocks in the order determined by their terminators, until control flow
+     * leaves the region. The blocks of the loops nested in a region are executed by their
+     * {@link LLVMLoopNode}, which is entered at the loop header and returns the block at which the
+     * loop was left.
+     */
+    public static final class LLVMBlockRegionNode extends LLVMRegionNode {
+
+        @Children private final LLVMBasicBlockNode[] blocks;
+        @Children private final LLVMLoopNode[] loops;
+        @CompilationFinal private final int[] blockIndices;
+        @CompilationFinal private final int[] loopIndices;
+        @CompilationFinal private final int[] entries;
         @CompilationFinal private final LLVMStackFrameNuller[][] beforeSlotNullerNodes;
         @CompilationFinal private final LLVMStackFrameNuller[][] afterSlotNullerNodes;
-        private final FrameSlot returnSlot;
         private final boolean injectBranchProbabilities = LLVMBaseOptionFacade.injectBranchProbabilities();
 
-        public LLVMBlockControlFlowNode(LLVMBasicBlockNode[] bodyNodes, LLVMStackFrameNuller[][] beforeSlotNullerNodes, LLVMStackFrameNuller[][] afterSlotNullerNodes, FrameSlot returnSlot) {
-            this.bodyNodes = bodyNodes;
+        /**
+         * Creates a region of the basic blocks of a function.
+         *
+         * @param functionBlocks all basic blocks of the function, of which the region contains the
+         *            non-null elements
+         * @param loops the loops whose headers are in the region
+         */
+        public LLVMBlockRegionNode(LLVMBasicBlockNode[] functionBlocks, LLVMLoopNode[] loops, LLVMStackFrameNuller[][] beforeSlotNullerNodes, LLVMStackFrameNuller[][] afterSlotNullerNodes) {
+            this(functionBlocks, loops, null, beforeSlotNullerNodes, afterSlotNullerNodes);
+        }
+
+        /**
+         * Creates a region that may be entered at a block that is not a partial evaluation
+         * constant, namely a part of a split region that is executed in its own call target.
+         *
+         * @param entries the blocks at which the region can be entered, or <code>null</code> if
+         *            the entry is always a constant
+         */
+        public LLVMBlockRegionNode(LLVMBasicBlockNode[] functionBlocks, LLVMLoopNode[] loops, int[] entries, LLVMStackFrameNuller[][] beforeSlotNullerNodes,
+                        LLVMStackFrameNuller[][] afterSlotNullerNodes) {
+            CompilerAsserts.neverPartOfCompilation();
+            List<LLVMBasicBlockNode> regionBlocks = new ArrayList<>();
+            this.blockIndices = new int[functionBlocks.length];
+            this.loopIndices = new int[functionBlocks.length];
+            Arrays.fill(blockIndices, NOT_IN_REGION);
+            Arrays.fill(loopIndices, NOT_IN_REGION);
+            for (int bci = 0; bci < functionBlocks.length; bci++) {
+                if (functionBlocks[bci] != null) {
+                    blockIndices[bci] = regionBlocks.size();
+                    regionBlocks.add(functionBlocks[bci]);
+                }
+            }
+            for (int i = 0; i < loops.length; i++) {
+                loopIndices[loops[i].getHeader()] = i;
+            }
+            this.blocks = regionBlocks.toArray(new LLVMBasicBlockNode[regionBlocks.size()]);
+            this.loops = loops;
+            this.entries = entries;
             this.beforeSlotNullerNodes = beforeSlotNullerNodes;
             this.afterSlotNullerNodes = afterSlotNullerNodes;
-            this.returnSlot = returnSlot;
+        }
+
+        private boolean isInRegion(int bci) {
+            return bci != LLVMRetNode.RETURN_FROM_FUNCTION && (blockIndices[bci] != NOT_IN_REGION || loopIndices[bci] != NOT_IN_REGION);
         }
 
         @Override
         @ExplodeLoop(kind = LoopExplosionKind.MERGE_EXPLODE)
-        public Object executeGeneric(VirtualFrame frame) {
-            CompilerAsserts.compilationConstant(bodyNodes.length);
-            int bci = 0;
+        public int executeRegion(VirtualFrame frame, int entry, int header) {
+            int bci = entry;
+            if (entries != null) {
+                /*
+                 * Turn the entry into a constant, so that every block is still partially evaluated
+                 * only once, regardless of the entry at which it is reached.
+                 */
+                for (int i = 0; i < entries.length; i++) {
+                    if (entry == entries[i]) {
+                        bci = entries[i];
+                        break;
+                    }
+                }
+            }
             int loopCount = 0;
-            outer: while (bci != LLVMRetNode.RETURN_FROM_FUNCTION) {
+            outer: do {
                 if (CompilerDirectives.inInterpreter()) {
                     loopCount++;
                 }
                 CompilerAsserts.partialEvaluationConstant(bci);
-                LLVMBasicBlockNode bb = bodyNodes[bci];
-                nullDeadSlots(frame, bci, beforeSlotNullerNodes);
-                int successorSelection = bb.executeGetSuccessorIndex(frame);
-                nullDeadSlots(frame, bci, afterSlotNullerNodes);
-                int[] successors = bb.getSuccessors();
-                for (int i = 0; i < successors.length; i++) {
-                    if (injectBranchProbabilities) {
-                        if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), i == successorSelection)) {
-                            bb.increaseBranchProbabilityDeoptIfZero(i);
-                            bci = successors[i];
+                int loopIndex = loopIndices[bci];
+                if (loopIndex != NOT_IN_REGION) {
+                    LLVMLoopNode loop = loops[loopIndex];
+                    int exit = loop.executeLoop(frame);
+                    int[] exitTargets = loop.getExitTargets();
+                    for (int i = 0; i < exitTargets.length; i++) {
+                        if (exit == exitTargets[i]) {
+                            bci = exitTargets[i];
                             continue outer;
                         }
-                    } else {
-                        if (i == successorSelection) {
-                            bci = successors[i];
-                            continue outer;
+                    }
+                } else {
+                    LLVMBasicBlockNode bb = blocks[blockIndices[bci]];
+                    nullDeadSlots(frame, bci, beforeSlotNullerNodes);
+                    int successorSelection = bb.executeGetSuccessorIndex(frame);
+                    nullDeadSlots(frame, bci, afterSlotNullerNodes);
+                    int[] successors = bb.getSuccessors();
+                    for (int i = 0; i < successors.length; i++) {
+                        if (injectBranchProbabilities) {
+                            if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), i == successorSelection)) {
+                                bb.increaseBranchProbabilityDeoptIfZero(i);
+                                bci = successors[i];
+                                continue outer;
+                            }
+                        } else {
+                            if (i == successorSelection) {
+                                bci = successors[i];
+                                continue outer;
+                            }
                         }
                     }
                 }
@@ -98,13 +225,9 @@ public abstract class LLVMBlockNode extends LLVMExpressionNode {
                  */
                 CompilerDirectives.transferToInterpreter();
                 throw new Error("No matching successor found");
-            }
+            } while (bci != header && isInRegion(bci));
             LoopNode.reportLoopCount(this, loopCount);
-            if (returnSlot == null) {
-                return null;
-            } else {
-                return frame.getValue(returnSlot);
-            }
+            return bci;
         }
 
         @ExplodeLoop
@@ -119,6 +242,60 @@ public abstract class LLVMBlockNode extends LLVMExpressionNode {
 
     }
 
+    /**
+     * Executes a region that is too large to be compiled as a whole, by dividing it into parts that
+     * are each executed by their own call target. The parts share the frame of the function,
+     * which is passed to them as a materialized frame.
+     */
+    public static final class LLVMSplitRegionNode extends LLVMRegionNode {
+
+        @CompilationFinal private final CallTarget[] parts;
+        @CompilationFinal private final int[] partIndices;
+        @Child private IndirectCallNode callNode = Truffle.getRuntime().createIndirectCallNode();
+
+        /**
+         * @param parts the parts of the region, each entered at any of the blocks that are
+         *            successors of the blocks of the other parts
+         * @param header the header of the loop whose body is split, or {@link #NO_HEADER}
+         */
+        public LLVMSplitRegionNode(LLVMBlockRegionNode[] parts, int header) {
+            CompilerAsserts.neverPartOfCompilation();
+            this.parts = new CallTarget[parts.length];
+            this.partIndices = new int[parts[0].blockIndices.length];
+            Arrays.fill(partIndices, NOT_IN_REGION);
+            for (int i = 0; i < parts.length; i++) {
+                for (int bci = 0; bci < partIndices.length; bci++) {
+                    if (parts[i].isInRegion(bci)) {
+                        partIndices[bci] = i;
+                    }
+                }
+                this.parts[i] = Truffle.getRuntime().createCallTarget(new LLVMRegionRootNode(this, parts[i], header));
+            }
+        }
+
+        private boolean isInRegion(int bci) {
+            return bci != LLVMRetNode.RETURN_FROM_FUNCTION && partIndices[bci] != NOT_IN_REGION;
+        }
+
+        /**
+         * Returns the call targets of the parts, whose nodes are not children of this node.
+         */
+        public CallTarget[] getParts() {
+            return parts.clone();
+        }
+
+        @Override
+        public int executeRegion(VirtualFrame frame, int entry, int header) {
+            MaterializedFrame functionFrame = frame.materialize();
+            int bci = entry;
+            do {
+                bci = (int) callNode.call(frame, parts[partIndices[bci]], new Object[]{functionFrame, bci});
+            } while (bci != header && isInRegion(bci));
+            return bci;
+        }
+
+    }
+
     public static class LLVMBlockNoControlFlowNode extends LLVMBlockNode {
 
         @Children private final LLVMNode[] bodyNodes;
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.impl.others;
+
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameUtil;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RepeatingNode;
+import com.oracle.truffle.llvm.nodes.base.LLVMNode;
+import com.oracle.truffle.llvm.nodes.impl.others.LLVMBlockNode.LLVMRegionNode;
+
+/**
+ * Executes a natural loop of a function in a Truffle {@link LoopNode}, so that a long running loop
+ * can be compiled by on-stack replacement, independently of the rest of the function. Each
+ * iteration executes the loop body from the header until control flow returns to the header or
+ * leaves the loop. The block at which the loop was left is passed to the enclosing region through
+ * a frame slot.
+ */
+public final class LLVMLoopNode extends LLVMNode {
+
+    @Child private LoopNode loop;
+    private final int header;
+    private final FrameSlot exitSlot;
+    @CompilationFinal private final int[] exitTargets;
+
+    /**
+     * @param body the blocks of the loop that are not part of nested loops
+     * @param header the index of the loop header
+     * @param exitSlot the int slot in which the index of the exit target is stored
+     * @param exitTargets the indices of the blocks outside of the loop that are successors of
+     *            blocks of the loop
+     */
+    public LLVMLoopNode(LLVMRegionNode body, int header, FrameSlot exitSlot, int[] exitTargets) {
+        this.loop = Truffle.getRuntime().createLoopNode(new LLVMLoopBodyNode(body, header, exitSlot));
+        this.header = header;
+        this.exitSlot = exitSlot;
+        this.exitTargets = exitTargets;
+    }
+
+    /**
+     * Executes the loop.
+     *
+     * @return the index of the block at which the loop was left, one of {@link #getExitTargets()}
+     */
+    public int executeLoop(VirtualFrame frame) {
+        loop.executeLoop(frame);
+        return FrameUtil.getIntSafe(frame, exitSlot);
+    }
+
+    @Override
+    public void executeVoid(VirtualFrame frame) {
+        executeLoop(frame);
+    }
+
+    public int getHeader() {
+        return header;
+    }
+
+    public int[] getExitTargets() {
+        return exitTargets;
+    }
+
+    private static final class LLVMLoopBodyNode extends Node implements RepeatingNode {
+
+        @Child private LLVMRegionNode body;
+        private final int header;
+        private final FrameSlot exitSlot;
+
+        LLVMLoopBodyNode(LLVMRegionNode body, int header, FrameSlot exitSlot) {
+            this.body = body;
+            this.header = header;
+            this.exitSlot = exitSlot;
+        }
+
+        @Override
+        public boolean executeRepeating(VirtualFrame frame) {
+            int next = body.executeRegion(frame, header, header);
+            if (next == header) {
+                return true;
+            }
+            frame.setInt(exitSlot, next);
+            return false;
+        }
+
+    }
+
+}
@@ -36,6 +36,7 @@ import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMContext;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMFrameUtil;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMLanguage;
 import com.oracle.truffle.llvm.types.memory.LLVMStack;
 
@@ -56,7 +57,7 @@ public class LLVMStaticInitsBlockNode extends RootNode {
     @ExplodeLoop
     @Override
     public Object execute(VirtualFrame frame) {
-        frame.setObject(stackSlot, stack.getUpperBounds());
+        LLVMFrameUtil.setAddress(frame, stackSlot, stack.getUpperBounds());
         for (LLVMNode node : nodes) {
             node.executeVoid(frame);
         }
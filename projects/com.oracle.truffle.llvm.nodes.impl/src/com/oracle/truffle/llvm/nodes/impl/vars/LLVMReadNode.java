@@ -47,6 +47,7 @@ import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI32Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI64Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI8Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMIVarBitNode;
+import com.oracle.truffle.llvm.types.LLVMAddress;
 import com.oracle.truffle.llvm.types.LLVMFunctionDescriptor;
 import com.oracle.truffle.llvm.types.LLVMIVarBit;
 import com.oracle.truffle.llvm.types.floating.LLVM80BitFloat;
@@ -157,10 +158,27 @@ public abstract class LLVMReadNode extends LLVMExpressionNode {
 
         protected abstract FrameSlot getSlot();
 
-        @Specialization
+        @Specialization(guards = "isRawPointer(frame)")
+        protected LLVMAddress readRawPointer(VirtualFrame frame) {
+            return LLVMAddress.fromLong(FrameUtil.getLongSafe(frame, getSlot()));
+        }
+
+        @Specialization(guards = "!isRawPointer(frame)")
         protected Object readObject(VirtualFrame frame) {
             return FrameUtil.getObjectSafe(frame, getSlot());
         }
+
+        protected boolean isRawPointer(VirtualFrame frame) {
+            return frame.isLong(getSlot());
+        }
+
+        @Override
+        public long executeRawPointer(VirtualFrame frame) {
+            if (isRawPointer(frame)) {
+                return FrameUtil.getLongSafe(frame, getSlot());
+            }
+            return super.executeRawPointer(frame);
+        }
     }
 
     @NodeField(name = "slot", type = FrameSlot.class)
@@ -35,6 +35,7 @@ import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeField;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeUtil;
 import com.oracle.truffle.api.source.SourceSection;
@@ -52,6 +53,8 @@ import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI64Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI8Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMIVarBitNode;
 import com.oracle.truffle.llvm.nodes.impl.func.LLVMFunctionStartNode;
+import com.oracle.truffle.llvm.nodes.impl.func.LLVMRegionRootNode;
+import com.oracle.truffle.llvm.types.LLVMAddress;
 import com.oracle.truffle.llvm.types.LLVMFunctionDescriptor;
 import com.oracle.truffle.llvm.types.LLVMIVarBit;
 import com.oracle.truffle.llvm.types.floating.LLVM80BitFloat;
@@ -70,7 +73,7 @@ public abstract class LLVMWriteNode extends LLVMNode {
             // No harm in racing to create the source section
             LLVMBasicBlockNode basicBlock = NodeUtil.findParent(this, LLVMBasicBlockNode.class);
             assert basicBlock != null : getParent().getClass();
-            LLVMFunctionStartNode functionStartNode = NodeUtil.findParent(basicBlock, LLVMFunctionStartNode.class);
+            LLVMFunctionStartNode functionStartNode = LLVMRegionRootNode.findFunctionStartNode(basicBlock);
             assert functionStartNode != null : basicBlock.getParent().getClass();
             String identifier;
             if (basicBlock.getBlockId() == 0) {
@@ -181,6 +184,25 @@ public abstract class LLVMWriteNode extends LLVMNode {
         }
     }
 
+    @NodeChild(value = "valueNode", type = LLVMExpressionNode.class)
+    public abstract static class LLVMWritePointerNode extends LLVMWriteNode {
+
+        @Specialization
+        protected void writePointer(VirtualFrame frame, LLVMAddress value) {
+            frame.setLong(getSlot(), value.getVal());
+        }
+
+        @Specialization
+        protected void writeObject(VirtualFrame frame, Object value) {
+            // managed pointers (e.g., LLVMTruffleObject) cannot be represented as a raw long
+            if (getSlot().getKind() != FrameSlotKind.Object) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                getSlot().setKind(FrameSlotKind.Object);
+            }
+            frame.setObject(getSlot(), value);
+        }
+    }
+
     @NodeChild(value = "valueNode", type = LLVMFunctionNode.class)
     public abstract static class LLVMWriteFunctionNode extends LLVMWriteNode {
 
@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.bc.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import uk.ac.man.cs.llvm.ir.model.FunctionDeclaration;
+import uk.ac.man.cs.llvm.ir.model.FunctionDefinition;
+import uk.ac.man.cs.llvm.ir.model.FunctionVisitor;
+import uk.ac.man.cs.llvm.ir.model.GlobalConstant;
+import uk.ac.man.cs.llvm.ir.model.GlobalVariable;
+import uk.ac.man.cs.llvm.ir.model.InstructionBlock;
+import uk.ac.man.cs.llvm.ir.model.InstructionVisitor;
+import uk.ac.man.cs.llvm.ir.model.Model;
+import uk.ac.man.cs.llvm.ir.model.ModelVisitor;
+import uk.ac.man.cs.llvm.ir.model.Symbol;
+import uk.ac.man.cs.llvm.ir.model.constants.IntegerConstant;
+import uk.ac.man.cs.llvm.ir.model.elements.AllocateInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.BinaryOperationInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.BranchInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.Call;
+import uk.ac.man.cs.llvm.ir.model.elements.CallInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.CastInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.CompareInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ConditionalBranchInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ExtractElementInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ExtractValueInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.GetElementPointerInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.IndirectBranchInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.InsertElementInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.InsertValueInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.LoadInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.PhiInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ReturnInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.SelectInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ShuffleVectorInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.StoreInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.SwitchInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.SwitchOldInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.UnreachableInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.VoidCallInstruction;
+import uk.ac.man.cs.llvm.ir.types.FloatingPointType;
+import uk.ac.man.cs.llvm.ir.types.IntegerType;
+import uk.ac.man.cs.llvm.ir.types.PointerType;
+import uk.ac.man.cs.llvm.ir.types.Type;
+
+/**
+ * Finds the allocas of each function whose address never escapes, so that the value they hold can
+ * live in a typed frame slot instead of on the native stack.
+ *
+ * An alloca is promoted if it allocates a single scalar in the entry block and is only ever used
+ * as the address of non-volatile loads and stores of exactly its allocated type. Every other use
+ * of its address (pointer arithmetic, casts, calls, phis, storing the address itself, ...) lets
+ * the address escape and keeps the alloca in memory.
+ */
+public final class LLVMAllocaPromotion implements ModelVisitor {
+
+    public static LLVMAllocaPromotion generate(Model model) {
+        LLVMAllocaPromotion visitor = new LLVMAllocaPromotion();
+
+        model.accept(visitor);
+
+        return visitor;
+    }
+
+    private final Map<String, Set<AllocateInstruction>> promoted = new HashMap<>();
+
+    private LLVMAllocaPromotion() {
+    }
+
+    public Set<AllocateInstruction> getPromotedAllocations(String method) {
+        Set<AllocateInstruction> allocations = promoted.get(method);
+        if (allocations == null) {
+            return Collections.emptySet();
+        } else {
+            return allocations;
+        }
+    }
+
+    @Override
+    public void visit(GlobalConstant constant) {
+    }
+
+    @Override
+    public void visit(GlobalVariable variable) {
+    }
+
+    @Override
+    public void visit(FunctionDeclaration method) {
+    }
+
+    @Override
+    public void visit(FunctionDefinition method) {
+        LLVMAllocaPromotionFunctionVisitor visitor = new LLVMAllocaPromotionFunctionVisitor();
+
+        method.accept(visitor);
+
+        promoted.put(method.getName(), visitor.getPromotedAllocations());
+    }
+
+    @Override
+    public void visit(Type type) {
+    }
+
+    private static boolean isPromotableType(Type type) {
+        if (type instanceof IntegerType) {
+            switch (((IntegerType) type).getBitCount()) {
+                case 1:
+                case Byte.SIZE:
+                case Short.SIZE:
+                case Integer.SIZE:
+                case Long.SIZE:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        if (type instanceof FloatingPointType) {
+            return type == FloatingPointType.FLOAT || type == FloatingPointType.DOUBLE;
+        }
+        return type instanceof PointerType;
+    }
+
+    private static class LLVMAllocaPromotionFunctionVisitor implements FunctionVisitor, InstructionVisitor {
+
+        private final Set<AllocateInstruction> candidates = new HashSet<>();
+
+        private final Set<Symbol> escaped = new HashSet<>();
+
+        private boolean isEntryBlock = false;
+
+        LLVMAllocaPromotionFunctionVisitor() {
+        }
+
+        public Set<AllocateInstruction> getPromotedAllocations() {
+            Set<AllocateInstruction> allocations = new HashSet<>(candidates);
+            allocations.removeAll(escaped);
+            return allocations;
+        }
+
+        private void escape(Symbol symbol) {
+            if (symbol instanceof AllocateInstruction) {
+                escaped.add(symbol);
+            }
+        }
+
+        private void escape(Call call) {
+            escape(call.getCallTarget());
+            for (int i = 0; i < call.getArgumentCount(); i++) {
+                escape(call.getArgument(i));
+            }
+        }
+
+        @Override
+        public void visit(InstructionBlock block) {
+            isEntryBlock = block.getBlockIndex() == 0;
+            block.accept(this);
+        }
+
+        @Override
+        public void visit(AllocateInstruction allocate) {
+            Symbol count = allocate.getCount();
+            if (isEntryBlock && count instanceof IntegerConstant && ((IntegerConstant) count).getValue() == 1 && isPromotableType(allocate.getPointeeType())) {
+                candidates.add(allocate);
+            }
+        }
+
+        @Override
+        public void visit(BinaryOperationInstruction operation) {
+            escape(operation.getLHS());
+            escape(operation.getRHS());
+        }
+
+        @Override
+        public void visit(BranchInstruction branch) {
+        }
+
+        @Override
+        public void visit(CallInstruction call) {
+            escape(call);
+        }
+
+        @Override
+        public void visit(CastInstruction cast) {
+            escape(cast.getValue());
+        }
+
+        @Override
+        public void visit(CompareInstruction compare) {
+            escape(compare.getLHS());
+            escape(compare.getRHS());
+        }
+
+        @Override
+        public void visit(ConditionalBranchInstruction branch) {
+            escape(branch.getCondition());
+        }
+
+        @Override
+        public void visit(ExtractElementInstruction extract) {
+            escape(extract.getVector());
+            escape(extract.getIndex());
+        }
+
+        @Override
+        public void visit(ExtractValueInstruction extract) {
+            escape(extract.getAggregate());
+        }
+
+        @Override
+        public void visit(GetElementPointerInstruction gep) {
+            escape(gep.getBasePointer());
+            for (int i = 0; i < gep.getIndexCount(); i++) {
+                escape(gep.getIndex(i));
+            }
+        }
+
+        @Override
+        public void visit(IndirectBranchInstruction branch) {
+            escape(branch.getAddress());
+        }
+
+        @Override
+        public void visit(InsertElementInstruction insert) {
+            escape(insert.getVector());
+            escape(insert.getValue());
+            escape(insert.getIndex());
+        }
+
+        @Override
+        public void visit(InsertValueInstruction insert) {
+            escape(insert.getAggregate());
+            escape(insert.getValue());
+        }
+
+        @Override
+        public void visit(LoadInstruction load) {
+            Symbol source = load.getSource();
+            if (source instanceof AllocateInstruction) {
+                if (load.isVolatile() || !load.getType().equals(((AllocateInstruction) source).getPointeeType())) {
+                    escape(source);
+                }
+            }
+        }
+
+        @Override
+        public void visit(PhiInstruction phi) {
+            for (int i = 0; i < phi.getSize(); i++) {
+                escape(phi.getValue(i));
+            }
+        }
+
+        @Override
+        public void visit(ReturnInstruction ret) {
+            escape(ret.getValue());
+        }
+
+        @Override
+        public void visit(SelectInstruction select) {
+            escape(select.getCondition());
+            escape(select.getTrueValue());
+            escape(select.getFalseValue());
+        }
+
+        @Override
+        public void visit(ShuffleVectorInstruction shuffle) {
+            escape(shuffle.getVector1());
+            escape(shuffle.getVector2());
+            escape(shuffle.getMask());
+        }
+
+        @Override
+        public void visit(StoreInstruction store) {
+            Symbol destination = store.getDestination();
+            Symbol source = store.getSource();
+            escape(source);
+            if (destination instanceof AllocateInstruction) {
+                if (store.isVolatile() || !source.getType().equals(((AllocateInstruction) destination).getPointeeType())) {
+                    escape(destination);
+                }
+            }
+        }
+
+        @Override
+        public void visit(SwitchInstruction select) {
+            escape(select.getCondition());
+            for (int i = 0; i < select.getCaseCount(); i++) {
+                escape(select.getCaseValue(i));
+            }
+        }
+
+        @Override
+        public void visit(SwitchOldInstruction select) {
+            escape(select.getCondition());
+        }
+
+        @Override
+        public void visit(UnreachableInstruction unreachable) {
+        }
+
+        @Override
+        public void visit(VoidCallInstruction call) {
+            escape(call);
+        }
+    }
+}
@@ -30,8 +30,10 @@
 package com.oracle.truffle.llvm.parser.bc.impl;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
@@ -48,11 +50,19 @@ import com.oracle.truffle.llvm.nodes.impl.base.LLVMBasicBlockNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMContext;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMTerminatorNode;
 import com.oracle.truffle.llvm.parser.bc.impl.LLVMPhiManager.Phi;
+import com.oracle.truffle.llvm.parser.factories.LLVMAllocFactory;
+import com.oracle.truffle.llvm.parser.factories.LLVMFrameReadWriteFactory;
+import com.oracle.truffle.llvm.parser.util.LLVMParallelMoves;
+import com.oracle.truffle.llvm.parser.util.LLVMStaticAllocationLayout;
 import com.oracle.truffle.llvm.runtime.LLVMOptimizationConfiguration;
 
 import uk.ac.man.cs.llvm.ir.model.InstructionBlock;
 import uk.ac.man.cs.llvm.ir.model.FunctionVisitor;
 import uk.ac.man.cs.llvm.ir.model.GlobalValueSymbol;
+import uk.ac.man.cs.llvm.ir.model.Symbol;
+import uk.ac.man.cs.llvm.ir.model.elements.AllocateInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ValueInstruction;
+import uk.ac.man.cs.llvm.ir.types.Type;
 
 public class LLVMBitcodeFunctionVisitor implements FunctionVisitor {
 
@@ -72,13 +82,29 @@ public class LLVMBitcodeFunctionVisitor implements FunctionVisitor {
 
     private final List<LLVMNode> instructions = new ArrayList<>();
 
+    private final Set<AllocateInstruction> promotedAllocations;
+
+    private final Set<ValueInstruction> fusedInstructions;
+
+    private final Map<Symbol, LLVMExpressionNode> forwardedValues = new HashMap<>();
+
+    private final LLVMStaticAllocationLayout staticAllocations = new LLVMStaticAllocationLayout();
+
+    private int phiMoves;
+
+    private int eliminatedPhiMoves;
+
+    private int phiTemporaries;
+
     public LLVMBitcodeFunctionVisitor(LLVMBitcodeVisitor module, FrameDescriptor frame, Map<InstructionBlock, List<FrameSlot>> slotsToNull, Map<String, Integer> labels,
-                    Map<InstructionBlock, List<Phi>> phis) {
+                    Map<InstructionBlock, List<Phi>> phis, Set<AllocateInstruction> promotedAllocations, Set<ValueInstruction> fusedInstructions) {
         this.module = module;
         this.frame = frame;
         this.slotsToNull = slotsToNull;
         this.labels = labels;
         this.phis = phis;
+        this.promotedAllocations = promotedAllocations;
+        this.fusedInstructions = fusedInstructions;
     }
 
     public void addInstruction(LLVMNode node) {
@@ -122,6 +148,82 @@ public class LLVMBitcodeFunctionVisitor implements FunctionVisitor {
         return getSlot(LLVMBitcodeHelper.STACK_ADDRESS_FRAME_SLOT_ID);
     }
 
+    public FrameSlot getStaticAllocationSlot() {
+        return getSlot(LLVMBitcodeHelper.STATIC_ALLOCATION_FRAME_SLOT_ID);
+    }
+
+    /**
+     * Returns whether the given symbol is an <code>alloca</code> whose value lives directly in its
+     * frame slot rather than in stack memory (see {@link LLVMAllocaPromotion}).
+     */
+    public boolean isPromotedAllocation(Symbol symbol) {
+        return promotedAllocations.contains(symbol);
+    }
+
+    /**
+     * Returns the writes that zero the frame slots of the promoted <code>alloca</code>s. A load
+     * before the first store is legal and yields an undefined value, so the slots need a value of
+     * their kind before the function body runs.
+     */
+    public List<LLVMNode> getPromotedAllocationPrologue() {
+        List<LLVMNode> nodes = new ArrayList<>();
+        for (AllocateInstruction allocate : promotedAllocations) {
+            Type type = allocate.getPointeeType();
+            LLVMExpressionNode zero = LLVMBitcodeHelper.toConstantZeroNode(type, allocate.getAlign(), getContext(), getStackSlot());
+            nodes.add(LLVMFrameReadWriteFactory.createFrameWrite(LLVMBitcodeHelper.toBaseType(type).getType(), zero, getSlot(allocate.getName())));
+        }
+        return nodes;
+    }
+
+    /**
+     * Returns whether the value of the given symbol is only used by the next instruction, which
+     * takes its node directly instead of reading a frame slot (see {@link LLVMInstructionFusion}).
+     */
+    public boolean isFused(Symbol symbol) {
+        return fusedInstructions.contains(symbol);
+    }
+
+    public void forwardValue(Symbol symbol, LLVMExpressionNode value) {
+        forwardedValues.put(symbol, value);
+    }
+
+    public LLVMExpressionNode takeForwardedValue(Symbol symbol) {
+        return forwardedValues.remove(symbol);
+    }
+
+    /**
+     * Returns the slot that holds the old value of a phi slot while the phis of an edge are written
+     * (see {@link LLVMParallelMoves}).
+     */
+    public FrameSlot getPhiTemporarySlot(FrameSlot slot) {
+        return frame.findOrAddFrameSlot("<phi temporary " + slot.getIdentifier() + ">", slot.getKind());
+    }
+
+    public void countPhiMoves(int moves, int eliminated, int temporaries) {
+        phiMoves += moves;
+        eliminatedPhiMoves += eliminated;
+        phiTemporaries += temporaries;
+    }
+
+    public void printPhiStats(String name) {
+        System.out.println(name + ": " + eliminatedPhiMoves + " of " + phiMoves + " phi moves eliminated, " + phiTemporaries + " temporaries");
+    }
+
+    public LLVMStaticAllocationLayout getStaticAllocations() {
+        return staticAllocations;
+    }
+
+    /**
+     * Returns the node that performs the coalesced allocation of the constant size
+     * <code>alloca</code>s in the entry block, or <code>null</code> if there are none.
+     */
+    public LLVMNode getStaticAllocationPrologue() {
+        if (staticAllocations.isEmpty()) {
+            return null;
+        }
+        return LLVMAllocFactory.createStaticAllocationPrologue(getStackSlot(), getStaticAllocationSlot(), staticAllocations.getSize(), staticAllocations.getAlignment());
+    }
+
     public LLVMExpressionNode global(GlobalValueSymbol symbol) {
         return module.getGlobalVariable(symbol);
     }
@@ -142,6 +142,8 @@ public final class LLVMBitcodeHelper {
 
     public static final String STACK_ADDRESS_FRAME_SLOT_ID = "<stack pointer>";
 
+    public static final String STATIC_ALLOCATION_FRAME_SLOT_ID = "<static allocation base>";
+
     public static int getAlignment(Symbol symbol, int align) {
         return getAlignment(symbol.getType(), align);
     }
@@ -346,48 +348,40 @@ public final class LLVMBitcodeHelper {
                 break;
         }
 
-        LLVMIntegerComparisonType comparison;
+        LLVMIntegerComparisonType comparison = toIntegerComparisonType(operator);
+
+        if (LLVMTypeHelper.isVectorType(llvmtype)) {
+            return LLVMComparisonFactory.createVectorComparison(target, lhs, rhs, llvmtype, comparison);
+        } else {
+            return LLVMComparisonFactory.createIntegerComparison(lhs, rhs, llvmtype, comparison);
+        }
+    }
+
+    public static LLVMIntegerComparisonType toIntegerComparisonType(CompareOperator operator) {
         switch (operator) {
             case INT_EQUAL:
-                comparison = LLVMIntegerComparisonType.EQUALS;
-                break;
+                return LLVMIntegerComparisonType.EQUALS;
             case INT_NOT_EQUAL:
-                comparison = LLVMIntegerComparisonType.NOT_EQUALS;
-                break;
+                return LLVMIntegerComparisonType.NOT_EQUALS;
             case INT_UNSIGNED_GREATER_THAN:
-                comparison = LLVMIntegerComparisonType.UNSIGNED_GREATER_THAN;
-                break;
+                return LLVMIntegerComparisonType.UNSIGNED_GREATER_THAN;
             case INT_UNSIGNED_GREATER_OR_EQUAL:
-                comparison = LLVMIntegerComparisonType.UNSIGNED_GREATER_EQUALS;
-                break;
+                return LLVMIntegerComparisonType.UNSIGNED_GREATER_EQUALS;
             case INT_UNSIGNED_LESS_THAN:
-                comparison = LLVMIntegerComparisonType.UNSIGNED_LESS_THAN;
-                break;
+                return LLVMIntegerComparisonType.UNSIGNED_LESS_THAN;
             case INT_UNSIGNED_LESS_OR_EQUAL:
-                comparison = LLVMIntegerComparisonType.UNSIGNED_LESS_EQUALS;
-                break;
+                return LLVMIntegerComparisonType.UNSIGNED_LESS_EQUALS;
             case INT_SIGNED_GREATER_THAN:
-                comparison = LLVMIntegerComparisonType.SIGNED_GREATER_THAN;
-                break;
+                return LLVMIntegerComparisonType.SIGNED_GREATER_THAN;
             case INT_SIGNED_GREATER_OR_EQUAL:
-                comparison = LLVMIntegerComparisonType.SIGNED_GREATER_EQUALS;
-                break;
+                return LLVMIntegerComparisonType.SIGNED_GREATER_EQUALS;
             case INT_SIGNED_LESS_THAN:
-                comparison = LLVMIntegerComparisonType.SIGNED_LESS_THAN;
-                break;
+                return LLVMIntegerComparisonType.SIGNED_LESS_THAN;
             case INT_SIGNED_LESS_OR_EQUAL:
-                comparison = LLVMIntegerComparisonType.SIGNED_LESS_EQUALS;
-                break;
-
+                return LLVMIntegerComparisonType.SIGNED_LESS_EQUALS;
             default:
                 throw new RuntimeException("Missed a compare operator");
         }
-
-        if (LLVMTypeHelper.isVectorType(llvmtype)) {
-            return LLVMComparisonFactory.createVectorComparison(target, lhs, rhs, llvmtype, comparison);
-        } else {
-            return LLVMComparisonFactory.createIntegerComparison(lhs, rhs, llvmtype, comparison);
-        }
     }
 
     public static LLVMExpressionNode toConstantLiteralNode(Symbol value, @SuppressWarnings("unused") int align) {
@@ -423,18 +417,22 @@ public final class LLVMBitcodeHelper {
         throw new RuntimeException("Unsupported literal constant " + value);
     }
 
+    public static LLVMFunctionDescriptor toFunctionDescriptor(Symbol function, LLVMContext context) {
+        String name = ((ValueSymbol) function).getName();
+        FunctionType type = (FunctionType) function;
+
+        LLVMRuntimeType returnType = LLVMBitcodeHelper.toRuntimeType(type.getReturnType());
+        LLVMRuntimeType[] argTypes = LLVMBitcodeHelper.toRuntimeTypes(type.getArgumentTypes());
+
+        return context.getFunctionRegistry().createFunctionDescriptor(name, returnType, argTypes, type.isVarArg());
+    }
+
     public static LLVMExpressionNode toConstantNode(Symbol value, int align, Function<GlobalValueSymbol, LLVMExpressionNode> variables, LLVMContext context, FrameSlot stack) {
         if (value instanceof GlobalValueSymbol) {
             return variables.apply((GlobalValueSymbol) value);
         }
         if (value instanceof FunctionDefinition || value instanceof FunctionDeclaration) {
-            String name = ((ValueSymbol) value).getName();
-            FunctionType type = (FunctionType) value;
-
-            LLVMRuntimeType returnType = LLVMBitcodeHelper.toRuntimeType(type.getReturnType());
-            LLVMRuntimeType[] argTypes = LLVMBitcodeHelper.toRuntimeTypes(type.getArgumentTypes());
-
-            return LLVMFunctionLiteralNodeGen.create(context.getFunctionRegistry().createFunctionDescriptor(name, returnType, argTypes, type.isVarArg()));
+            return LLVMFunctionLiteralNodeGen.create(toFunctionDescriptor(value, context));
         }
         if (value instanceof StringConstant) {
             StringConstant constant = (StringConstant) value;
@@ -626,48 +624,52 @@ public final class LLVMBitcodeHelper {
             GetElementPointerConstant ptr = (GetElementPointerConstant) value;
 
             LLVMAddressNode baseNode = (LLVMAddressNode) toConstantNode(ptr.getBasePointer(), align, variables, context, stack);
-            LLVMAddressNode currentAddress = baseNode;
-
-            Type type = ptr.getBasePointer().getType();
-
-            for (int i = 0; i < ptr.getIndexCount(); i++) {
-                Symbol index = ptr.getIndex(i);
-                int idx = index instanceof NullConstant ? 0 : (int) ((IntegerConstant) index).getValue();
-
-                if (type instanceof ArrayType) {
-                    type = ((ArrayType) type).getElementType();
-                } else if (type instanceof PointerType) {
-                    type = ((PointerType) type).getPointeeType();
-                } else {
-                    int offset = 0;
-                    for (int j = 0; j < idx; j++) {
-                        Type t = ((StructureType) type).getElementType(j);
-                        offset = offset + LLVMBitcodeHelper.getPaddingSize(t, align, offset) + LLVMBitcodeHelper.getSize(t, align);
-                    }
-                    type = ((StructureType) type).getElementType(idx);
-                    offset += LLVMBitcodeHelper.getPaddingSize(type, align, offset);
-                    if (offset != 0) {
-                        currentAddress = LLVMGetElementPtrFactory.create(
-                                        LLVMBaseType.I32,
-                                        currentAddress,
-                                        new LLVMI32LiteralNode(1),
-                                        offset);
-                    }
-                    continue;
-                }
+            Long offset = getConstantOffset(ptr, align);
+            if (offset == null) {
+                throw new AssertionError(ptr);
+            }
+            if (offset == 0) {
+                return baseNode;
+            }
+            return LLVMGetElementPtrFactory.create(LLVMBaseType.I64, baseNode, new LLVMI64LiteralNode(offset), 1);
+        }
+        return toConstantLiteralNode(value, align);
+    }
 
-                if (idx != 0) {
-                    currentAddress = LLVMGetElementPtrFactory.create(
-                                    LLVMBaseType.I32,
-                                    currentAddress,
-                                    new LLVMI32LiteralNode(idx),
-                                    LLVMBitcodeHelper.getSize(type, align));
+    /**
+     * Computes the offset in bytes of a constant <code>getelementptr</code> from its base pointer,
+     * or returns <code>null</code> if an index is not a constant integer or indexes into a type
+     * other than an array, pointer or structure.
+     */
+    public static Long getConstantOffset(GetElementPointerConstant ptr, int align) {
+        long offset = 0;
+        Type type = ptr.getBasePointer().getType();
+        for (int i = 0; i < ptr.getIndexCount(); i++) {
+            Symbol index = ptr.getIndex(i);
+            if (!(index instanceof NullConstant || index instanceof IntegerConstant)) {
+                return null;
+            }
+            int idx = index instanceof NullConstant ? 0 : (int) ((IntegerConstant) index).getValue();
+
+            if (type instanceof ArrayType) {
+                type = ((ArrayType) type).getElementType();
+            } else if (type instanceof PointerType) {
+                type = ((PointerType) type).getPointeeType();
+            } else if (type instanceof StructureType) {
+                int elementOffset = 0;
+                for (int j = 0; j < idx; j++) {
+                    Type t = ((StructureType) type).getElementType(j);
+                    elementOffset = elementOffset + getPaddingSize(t, align, elementOffset) + getSize(t, align);
                 }
+                type = ((StructureType) type).getElementType(idx);
+                offset += elementOffset + getPaddingSize(type, align, elementOffset);
+                continue;
+            } else {
+                return null;
             }
-
-            return currentAddress;
+            offset += (long) idx * getSize(type, align);
         }
-        return toConstantLiteralNode(value, align);
+        return offset;
     }
 
     public static LLVMExpressionNode toConstantZeroNode(Type value, int align, LLVMContext context, FrameSlot stack) {
@@ -848,6 +850,9 @@ public final class LLVMBitcodeHelper {
                     break;
             }
         }
+        if (type instanceof PointerType && !(((PointerType) type).getPointeeType() instanceof FunctionType)) {
+            return FrameSlotKind.Long;
+        }
         return FrameSlotKind.Object;
     }
 
@@ -30,6 +30,7 @@
 package com.oracle.truffle.llvm.parser.bc.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.oracle.truffle.api.frame.FrameSlot;
@@ -67,6 +68,7 @@ import com.oracle.truffle.llvm.nodes.impl.memory.LLVMAllocInstructionFactory.LLV
 import com.oracle.truffle.llvm.nodes.impl.others.LLVMUnreachableNode;
 import com.oracle.truffle.llvm.parser.LLVMBaseType;
 import com.oracle.truffle.llvm.parser.bc.impl.LLVMPhiManager.Phi;
+import com.oracle.truffle.llvm.parser.factories.LLVMAllocFactory;
 import com.oracle.truffle.llvm.parser.factories.LLVMArithmeticFactory;
 import com.oracle.truffle.llvm.parser.factories.LLVMBranchFactory;
 import com.oracle.truffle.llvm.parser.factories.LLVMCastsFactory;
@@ -82,7 +84,10 @@ import com.oracle.truffle.llvm.parser.factories.LLVMSwitchFactory;
 import com.oracle.truffle.llvm.parser.factories.LLVMVectorFactory;
 import com.oracle.truffle.llvm.parser.instructions.LLVMArithmeticInstructionType;
 import com.oracle.truffle.llvm.parser.instructions.LLVMConversionType;
+import com.oracle.truffle.llvm.parser.instructions.LLVMIntegerComparisonType;
 import com.oracle.truffle.llvm.parser.instructions.LLVMLogicalInstructionType;
+import com.oracle.truffle.llvm.parser.util.LLVMParallelMoves;
+import com.oracle.truffle.llvm.parser.util.LLVMParallelMoves.Step;
 import com.oracle.truffle.llvm.types.LLVMAddress;
 import com.oracle.truffle.llvm.types.LLVMFunctionDescriptor.LLVMRuntimeType;
 import com.oracle.truffle.llvm.types.LLVMIVarBit;
@@ -129,6 +134,8 @@ import uk.ac.man.cs.llvm.ir.model.elements.SwitchOldInstruction;
 import uk.ac.man.cs.llvm.ir.model.elements.UnreachableInstruction;
 import uk.ac.man.cs.llvm.ir.model.elements.ValueInstruction;
 import uk.ac.man.cs.llvm.ir.model.elements.VoidCallInstruction;
+import uk.ac.man.cs.llvm.ir.model.enums.BinaryOperator;
+import uk.ac.man.cs.llvm.ir.model.enums.CastOperator;
 import uk.ac.man.cs.llvm.ir.types.ArrayType;
 import uk.ac.man.cs.llvm.ir.types.FloatingPointType;
 import uk.ac.man.cs.llvm.ir.types.FunctionType;
@@ -150,21 +157,69 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
     }
 
     private LLVMNode[] getPhiWriteNodes() {
-        List<LLVMNode> nodes = new ArrayList<>();
         List<Phi> phis = method.getPhiManager().get(block);
-        if (phis != null) {
-            for (Phi phi : phis) {
-                FrameSlot slot = method.getSlot(phi.getPhiValue().getName());
-                LLVMExpressionNode value = resolve(phi.getValue());
+        if (phis == null) {
+            return new LLVMNode[0];
+        }
+        return getPhiWriteNodes(phis);
+    }
+
+    /**
+     * Creates the writes of the phis of one control flow edge. All phis of an edge read their values
+     * before any of them is written, so the writes are ordered as a parallel copy (see
+     * {@link LLVMParallelMoves}).
+     */
+    private LLVMNode[] getPhiWriteNodes(List<Phi> phis) {
+        FrameSlot[] destinations = new FrameSlot[phis.size()];
+        FrameSlot[] sources = new FrameSlot[phis.size()];
+        for (int i = 0; i < destinations.length; i++) {
+            Phi phi = phis.get(i);
+            destinations[i] = method.getSlot(phi.getPhiValue().getName());
+            if (phi.getValue() instanceof ValueInstruction || phi.getValue() instanceof FunctionParameter) {
+                sources[i] = method.getSlot(((ValueSymbol) phi.getValue()).getName());
+            }
+        }
+        LLVMParallelMoves<FrameSlot> moves = LLVMParallelMoves.sequentialize(destinations, sources);
+        method.countPhiMoves(destinations.length, moves.getEliminatedMoves(), moves.getTemporaries());
+
+        List<LLVMNode> nodes = new ArrayList<>();
+        for (Step<FrameSlot> step : moves.getSteps()) {
+            if (step.isSave()) {
+                FrameSlot slot = step.getLocation();
+                LLVMBaseType baseType = LLVMBitcodeHelper.toBaseType(phis.get(Arrays.asList(destinations).indexOf(slot)).getValue().getType()).getType();
+                LLVMExpressionNode value = LLVMFrameReadWriteFactory.createFrameRead(baseType, slot);
+                nodes.add(LLVMFrameReadWriteFactory.createFrameWrite(baseType, value, method.getPhiTemporarySlot(slot)));
+            } else {
+                Phi phi = phis.get(step.getMove());
                 LLVMBaseType baseType = LLVMBitcodeHelper.toBaseType(phi.getValue().getType()).getType();
-                LLVMNode phiWriteNode = LLVMFrameReadWriteFactory.createFrameWrite(baseType, value, slot);
-                nodes.add(phiWriteNode);
+                LLVMExpressionNode value;
+                if (step.getLocation() == null) {
+                    value = resolve(phi.getValue());
+                } else {
+                    value = LLVMFrameReadWriteFactory.createFrameRead(baseType, method.getPhiTemporarySlot(step.getLocation()));
+                }
+                nodes.add(LLVMFrameReadWriteFactory.createFrameWrite(baseType, value, destinations[step.getMove()]));
             }
         }
         return nodes.toArray(new LLVMNode[nodes.size()]);
     }
 
+    /**
+     * Writes the value of an instruction to its frame slot, or passes its node on to the next
+     * instruction if that is the only user of the value.
+     */
+    private void addValue(ValueInstruction instruction, LLVMBaseType type, LLVMExpressionNode value) {
+        if (method.isFused(instruction)) {
+            method.forwardValue(instruction, value);
+        } else {
+            method.addInstruction(LLVMFrameReadWriteFactory.createFrameWrite(type, value, method.getSlot(instruction.getName())));
+        }
+    }
+
     private LLVMExpressionNode resolve(Symbol symbol) {
+        if (method.isFused(symbol)) {
+            return method.takeForwardedValue(symbol);
+        }
         if (symbol instanceof ValueInstruction || symbol instanceof FunctionParameter) {
             FrameSlot slot = method.getFrame().findFrameSlot(((ValueSymbol) symbol).getName());
             return LLVMFrameReadWriteFactory.createFrameRead(LLVMBitcodeHelper.toBaseType(symbol.getType()).getType(), slot);
@@ -314,6 +369,10 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
 
     @Override
     public void visit(AllocateInstruction allocate) {
+        if (method.isPromotedAllocation(allocate)) {
+            // the allocated value lives in the frame slot of the alloca itself
+            return;
+        }
         Type type = allocate.getPointeeType();
         int align = allocate.getAlign();
 
@@ -323,7 +382,11 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
         int alignment = LLVMBitcodeHelper.getAlignment(type, align);
 
         LLVMExpressionNode result;
-        if (count instanceof IntegerConstant) {
+        if (count instanceof IntegerConstant && block.getBlockIndex() == 0) {
+            // the entry block is executed exactly once per call
+            int offset = method.getStaticAllocations().allocate(size * (int) ((IntegerConstant) count).getValue(), alignment);
+            result = LLVMAllocFactory.createStaticAlloc(method.getStaticAllocationSlot(), offset);
+        } else if (count instanceof IntegerConstant) {
             result = LLVMAllocaInstructionNodeGen.create(
                             size * (int) ((IntegerConstant) count).getValue(),
                             alignment,
@@ -361,16 +424,14 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
         LLVMArithmeticInstructionType opA = LLVMBitcodeHelper.toArithmeticInstructionType(operation.getOperator());
         if (opA != null) {
             LLVMExpressionNode result = LLVMArithmeticFactory.createArithmeticOperation(lhs, rhs, opA, type, target);
-            LLVMNode node = LLVMFrameReadWriteFactory.createFrameWrite(type, result, method.getFrame().findFrameSlot(operation.getName()));
-            method.addInstruction(node);
+            addValue(operation, type, result);
             return;
         }
 
         LLVMLogicalInstructionType opL = LLVMBitcodeHelper.toLogicalInstructionType(operation.getOperator());
         if (opL != null) {
             LLVMExpressionNode result = LLVMLogicalFactory.createLogicalOperation(lhs, rhs, opL, type, target);
-            LLVMNode node = LLVMFrameReadWriteFactory.createFrameWrite(type, result, method.getFrame().findFrameSlot(operation.getName()));
-            method.addInstruction(node);
+            addValue(operation, type, result);
             return;
         }
 
@@ -412,10 +473,17 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
 
     @Override
     public void visit(CastInstruction cast) {
+        LLVMBaseType to = LLVMBitcodeHelper.toBaseType(cast.getType()).getType();
+        if (isTruncationOfExtension(cast)) {
+            // the truncation of an extension returns the original value
+            method.takeForwardedValue(cast.getValue());
+            addValue(cast, to, resolve(((CastInstruction) cast.getValue()).getValue()));
+            return;
+        }
+
         LLVMConversionType type = LLVMBitcodeHelper.toConversionType(cast.getOperator());
         LLVMExpressionNode fromNode = resolve(cast.getValue());
         LLVMBaseType from = LLVMBitcodeHelper.toBaseType(cast.getValue().getType()).getType();
-        LLVMBaseType to = LLVMBitcodeHelper.toBaseType(cast.getType()).getType();
 
         int bits = 0;
         if (cast.getType() instanceof IntegerType) {
@@ -424,8 +492,16 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
 
         LLVMExpressionNode result = LLVMCastsFactory.cast(fromNode, to, from, type, bits);
 
-        LLVMNode node = LLVMFrameReadWriteFactory.createFrameWrite(LLVMBitcodeHelper.toBaseType(cast.getType()).getType(), result, method.getFrame().findFrameSlot(cast.getName()));
-        method.addInstruction(node);
+        addValue(cast, to, result);
+    }
+
+    private boolean isTruncationOfExtension(CastInstruction cast) {
+        if (cast.getOperator() != CastOperator.TRUNCATE || !method.isFused(cast.getValue())) {
+            return false;
+        }
+        CastInstruction extension = (CastInstruction) cast.getValue();
+        boolean isExtension = extension.getOperator() == CastOperator.ZERO_EXTEND || extension.getOperator() == CastOperator.SIGN_EXTEND;
+        return isExtension && extension.getValue().getType().equals(cast.getType()) && !method.isFused(extension.getValue());
     }
 
     @Override
@@ -450,37 +526,45 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
                             resolve(compare.getRHS()));
         }
 
-        LLVMNode node = LLVMFrameReadWriteFactory.createFrameWrite(LLVMBitcodeHelper.toBaseType(compare.getType()).getType(), result, method.getFrame().findFrameSlot(compare.getName()));
-        method.addInstruction(node);
+        addValue(compare, LLVMBitcodeHelper.toBaseType(compare.getType()).getType(), result);
     }
 
     @Override
     public void visit(ConditionalBranchInstruction branch) {
-        LLVMExpressionNode conditionNode = resolve(branch.getCondition());
         int trueIndex = method.labels().get(branch.getTrueSuccessor().getName());
         int falseIndex = method.labels().get(branch.getFalseSuccessor().getName());
 
-        List<LLVMNode> trueConditionPhiWriteNodes = new ArrayList<>();
-        List<LLVMNode> falseConditionPhiWriteNodes = new ArrayList<>();
+        List<Phi> truePhis = new ArrayList<>();
+        List<Phi> falsePhis = new ArrayList<>();
 
         List<Phi> phis = method.getPhiManager().get(block);
         if (phis != null) {
             for (Phi phi : phis) {
-                FrameSlot slot = method.getSlot(phi.getPhiValue().getName());
-                LLVMExpressionNode value = resolve(phi.getValue());
-                LLVMBaseType baseType = LLVMBitcodeHelper.toBaseType(phi.getValue().getType()).getType();
-                LLVMNode phiWriteNode = LLVMFrameReadWriteFactory.createFrameWrite(baseType, value, slot);
-
                 if (branch.getTrueSuccessor() == phi.getBlock()) {
-                    trueConditionPhiWriteNodes.add(phiWriteNode);
+                    truePhis.add(phi);
                 } else {
-                    falseConditionPhiWriteNodes.add(phiWriteNode);
+                    falsePhis.add(phi);
                 }
             }
         }
-        LLVMNode[] truePhiWriteNodes = trueConditionPhiWriteNodes.toArray(new LLVMNode[trueConditionPhiWriteNodes.size()]);
-        LLVMNode[] falsePhiWriteNodes = falseConditionPhiWriteNodes.toArray(new LLVMNode[falseConditionPhiWriteNodes.size()]);
-        LLVMTerminatorNode node = LLVMBranchFactory.createConditionalBranch(trueIndex, falseIndex, conditionNode, truePhiWriteNodes, falsePhiWriteNodes);
+        LLVMNode[] truePhiWriteNodes = getPhiWriteNodes(truePhis);
+        LLVMNode[] falsePhiWriteNodes = getPhiWriteNodes(falsePhis);
+        LLVMTerminatorNode node = null;
+        if (method.isFused(branch.getCondition())) {
+            CompareInstruction compare = (CompareInstruction) branch.getCondition();
+            LLVMBaseType type = LLVMBitcodeHelper.toBaseType(compare.getLHS().getType()).getType();
+            if (compare.getOperator().isIntegerOperator() && LLVMBranchFactory.isCompareAndBranchSupported(type)) {
+                // the comparison node is replaced by the fused node
+                method.takeForwardedValue(compare);
+                LLVMIntegerComparisonType comparison = LLVMBitcodeHelper.toIntegerComparisonType(compare.getOperator());
+                node = LLVMBranchFactory.createCompareAndBranch(trueIndex, falseIndex, type, comparison, resolve(compare.getLHS()), resolve(compare.getRHS()), truePhiWriteNodes,
+                                falsePhiWriteNodes);
+            }
+        }
+        if (node == null) {
+            LLVMExpressionNode conditionNode = resolve(branch.getCondition());
+            node = LLVMBranchFactory.createConditionalBranch(trueIndex, falseIndex, conditionNode, truePhiWriteNodes, falsePhiWriteNodes);
+        }
 
         method.addTerminatingInstruction(node, block.getBlockIndex(), block.getName());
     }
@@ -547,8 +631,7 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
                             sizeof);
         }
 
-        LLVMNode node = LLVMFrameReadWriteFactory.createFrameWrite(LLVMBitcodeHelper.toBaseType(gep.getType()).getType(), currentAddress, method.getFrame().findFrameSlot(gep.getName()));
-        method.addInstruction(node);
+        addValue(gep, LLVMBitcodeHelper.toBaseType(gep.getType()).getType(), currentAddress);
     }
 
     @Override
@@ -586,6 +669,12 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
 
     @Override
     public void visit(LoadInstruction load) {
+        if (method.isPromotedAllocation(load.getSource())) {
+            LLVMBaseType baseType = LLVMBitcodeHelper.toBaseType(load.getType()).getType();
+            LLVMExpressionNode value = LLVMFrameReadWriteFactory.createFrameRead(baseType, method.getSlot(((AllocateInstruction) load.getSource()).getName()));
+            addValue(load, baseType, value);
+            return;
+        }
         LLVMAddressNode source = (LLVMAddressNode) resolve(load.getSource());
         LLVMBaseType resultType = LLVMBitcodeHelper.toBaseType(load.getType()).getType();
         LLVMExpressionNode result;
@@ -601,8 +690,7 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
             result = LLVMMemoryReadWriteFactory.createLoad(resultType, source, method.getOptimizationConfiguration(), bits);
         }
 
-        LLVMNode node = LLVMFrameReadWriteFactory.createFrameWrite(LLVMBitcodeHelper.toBaseType(load.getType()).getType(), result, method.getSlot(load.getName()));
-        method.addInstruction(node);
+        addValue(load, resultType, result);
     }
 
     @Override
@@ -714,6 +802,20 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
 
     @Override
     public void visit(StoreInstruction store) {
+        if (method.isPromotedAllocation(store.getDestination())) {
+            LLVMBaseType baseType = LLVMBitcodeHelper.toBaseType(store.getSource().getType()).getType();
+            LLVMExpressionNode value = resolve(store.getSource());
+            method.addInstruction(LLVMFrameReadWriteFactory.createFrameWrite(baseType, value, method.getSlot(((AllocateInstruction) store.getDestination()).getName())));
+            return;
+        }
+        if (isLoadAddStore(store)) {
+            BinaryOperationInstruction add = (BinaryOperationInstruction) store.getSource();
+            Symbol increment = add.getLHS() instanceof LoadInstruction && method.isFused(add.getLHS()) ? add.getRHS() : add.getLHS();
+            // the add node is replaced by the fused node, which loads the value itself
+            method.takeForwardedValue(add);
+            method.addInstruction(LLVMMemoryReadWriteFactory.createLoadAddStore((LLVMAddressNode) resolve(store.getDestination()), resolve(increment)));
+            return;
+        }
         LLVMAddressNode pointerNode = (LLVMAddressNode) resolve(store.getDestination());
         LLVMExpressionNode valueNode = resolve(store.getSource());
 
@@ -724,6 +826,21 @@ public final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
         method.addInstruction(node);
     }
 
+    private boolean isLoadAddStore(StoreInstruction store) {
+        if (!method.isFused(store.getSource()) || !(store.getSource() instanceof BinaryOperationInstruction)) {
+            return false;
+        }
+        BinaryOperationInstruction operation = (BinaryOperationInstruction) store.getSource();
+        if (operation.getOperator() != BinaryOperator.INT_ADD || LLVMBitcodeHelper.toBaseType(operation.getType()).getType() != LLVMBaseType.I32) {
+            return false;
+        }
+        return isFusedLoadFrom(operation.getLHS(), store.getDestination()) || isFusedLoadFrom(operation.getRHS(), store.getDestination());
+    }
+
+    private boolean isFusedLoadFrom(Symbol symbol, Symbol address) {
+        return symbol instanceof LoadInstruction && method.isFused(symbol) && ((LoadInstruction) symbol).getSource() == address;
+    }
+
     @Override
     public void visit(SwitchInstruction zwitch) {
         LLVMExpressionNode cond = resolve(zwitch.getCondition());
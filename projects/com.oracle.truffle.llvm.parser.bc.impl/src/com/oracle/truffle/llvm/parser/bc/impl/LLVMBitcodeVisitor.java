@@ -59,7 +59,10 @@ import com.oracle.truffle.llvm.parser.factories.LLVMFrameReadWriteFactory;
 import com.oracle.truffle.llvm.parser.factories.LLVMFunctionFactory;
 import com.oracle.truffle.llvm.parser.factories.LLVMMemoryReadWriteFactory;
 import com.oracle.truffle.llvm.parser.factories.LLVMRootNodeFactory;
+import com.oracle.truffle.llvm.parser.util.LLVMStaticAllocationLayout;
 import com.oracle.truffle.llvm.runtime.LLVMOptimizationConfiguration;
+import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
+import com.oracle.truffle.llvm.types.LLVMAddress;
 import com.oracle.truffle.llvm.types.LLVMFunctionDescriptor;
 import com.oracle.truffle.llvm.types.LLVMFunctionDescriptor.LLVMRuntimeType;
 import com.oracle.truffle.llvm.types.memory.LLVMHeap;
@@ -90,7 +93,9 @@ public class LLVMBitcodeVisitor implements ModelVisitor {
 
         LLVMLabelList labels = LLVMLabelList.generate(model);
 
-        LLVMBitcodeVisitor module = new LLVMBitcodeVisitor(context, configuration, lifetimes, labels, phis);
+        LLVMInstructionFusion fusion = LLVMInstructionFusion.generate(model);
+
+        LLVMBitcodeVisitor module = new LLVMBitcodeVisitor(context, configuration, lifetimes, labels, phis, fusion);
 
         model.accept(module);
 
@@ -127,21 +132,33 @@ public class LLVMBitcodeVisitor implements ModelVisitor {
 
     private final LLVMPhiManager phis;
 
+    private final LLVMInstructionFusion fusion;
+
     private final List<LLVMNode> deallocations = new ArrayList<>();
 
     private final Map<LLVMFunctionDescriptor, RootCallTarget> functions = new HashMap<>();
 
+    private final Map<String, LLVMFunctionDescriptor> functionsByName = new HashMap<>();
+
     private final Map<GlobalValueSymbol, LLVMAddressNode> variables = new HashMap<>();
 
-    public LLVMBitcodeVisitor(LLVMContext context, LLVMOptimizationConfiguration optimizationConfiguration, LLVMFrameDescriptors frames, LLVMLabelList labels, LLVMPhiManager phis) {
+    private final Map<GlobalValueSymbol, Integer> dataSegmentOffsets = new HashMap<>();
+
+    private final LLVMStaticAllocationLayout dataSegmentLayout = new LLVMStaticAllocationLayout();
+
+    private LLVMAddress dataSegment;
+
+    public LLVMBitcodeVisitor(LLVMContext context, LLVMOptimizationConfiguration optimizationConfiguration, LLVMFrameDescriptors frames, LLVMLabelList labels, LLVMPhiManager phis,
+                    LLVMInstructionFusion fusion) {
         this.context = context;
         this.optimizationConfiguration = optimizationConfiguration;
         this.frames = frames;
         this.labels = labels;
         this.phis = phis;
+        this.fusion = fusion;
     }
 
-    private LLVMExpressionNode createFunction(FunctionDefinition method) {
+    private LLVMExpressionNode createFunction(FunctionDefinition method, List<LLVMNode> prologue) {
         String name = method.getName();
 
         LLVMBitcodeFunctionVisitor visitor = new LLVMBitcodeFunctionVisitor(
@@ -149,11 +166,24 @@ public class LLVMBitcodeVisitor implements ModelVisitor {
                         frames.getDescriptor(name),
                         frames.getSlots(name),
                         labels.labels(name),
-                        phis.getPhiMap(name));
+                        phis.getPhiMap(name),
+                        frames.getPromotedAllocations(name),
+                        fusion.getFusedInstructions(name));
 
         method.accept(visitor);
 
+        if (LLVMBaseOptionFacade.printPhiStats()) {
+            visitor.printPhiStats(name);
+        }
+
+        LLVMNode staticAllocation = visitor.getStaticAllocationPrologue();
+        if (staticAllocation != null) {
+            prologue.add(staticAllocation);
+        }
+        prologue.addAll(visitor.getPromotedAllocationPrologue());
+
         return LLVMBlockFactory.createFunctionBlock(
+                        frames.getDescriptor(name),
                         visitor.getReturnSlot(),
                         visitor.getBlocks(),
                         null, visitor.getNullers());
@@ -222,12 +252,7 @@ public class LLVMBitcodeVisitor implements ModelVisitor {
     }
 
     public LLVMFunctionDescriptor getFunction(String name) {
-        for (LLVMFunctionDescriptor function : functions.keySet()) {
-            if (function.getName().equals(name)) {
-                return function;
-            }
-        }
-        return null;
+        return functionsByName.get(name);
     }
 
     public Map<LLVMFunctionDescriptor, RootCallTarget> getFunctions() {
@@ -237,38 +262,71 @@ public class LLVMBitcodeVisitor implements ModelVisitor {
     public LLVMExpressionNode getGlobalVariable(GlobalValueSymbol global) {
         LLVMAddressNode address = variables.get(global);
         if (address == null) {
-            Type type = ((PointerType) global.getType()).getPointeeType();
-
-            address = new LLVMAddressLiteralNode(LLVMHeap.allocateMemory(LLVMBitcodeHelper.getSize(type, global.getAlign())));
-            deallocations.add(LLVMFreeFactory.create(address));
+            address = new LLVMAddressLiteralNode(getGlobalAddress(global));
             variables.put(global, address);
         }
         return address;
     }
 
+    private LLVMAddress getGlobalAddress(GlobalValueSymbol global) {
+        return getDataSegment().increment(dataSegmentOffsets.get(global));
+    }
+
+    /**
+     * Returns the base address of the data segment that holds all global variables of the module.
+     * The segment is allocated on first use, which is after all globals have been visited since the
+     * model visits them before any function.
+     */
+    private LLVMAddress getDataSegment() {
+        if (dataSegment == null) {
+            int alignment = dataSegmentLayout.getAlignment();
+            LLVMAddress allocation = LLVMHeap.allocateMemory(dataSegmentLayout.getSize() + alignment - 1);
+            deallocations.add(LLVMFreeFactory.create(new LLVMAddressLiteralNode(allocation)));
+            dataSegment = LLVMAddress.fromLong((allocation.getVal() + alignment - 1) & -alignment);
+        }
+        return dataSegment;
+    }
+
+    private void addGlobal(GlobalValueSymbol global) {
+        Type type = ((PointerType) global.getType()).getPointeeType();
+        int size = LLVMBitcodeHelper.getSize(type, global.getAlign());
+        int alignment = LLVMBitcodeHelper.getAlignment(type, global.getAlign());
+        dataSegmentOffsets.put(global, dataSegmentLayout.allocate(size, alignment));
+        variables.put(global, null);
+    }
+
     public LLVMOptimizationConfiguration getOptimizationConfiguration() {
         return optimizationConfiguration;
     }
 
     public List<LLVMNode> getGobalVariables(FrameSlot stack) {
         List<LLVMNode> globals = new ArrayList<>();
+        if (variables.isEmpty()) {
+            return globals;
+        }
+        LLVMDataSegmentImage image = new LLVMDataSegmentImage(dataSegmentLayout.getSize(), this::getGlobalAddress, context);
         for (GlobalValueSymbol global : variables.keySet()) {
+            if (global.getValue() == null || image.write(global.getValue(), dataSegmentOffsets.get(global), global.getAlign())) {
+                continue;
+            }
             LLVMNode store = createVariable(global, stack);
             if (store != null) {
                 globals.add(store);
             }
         }
+        // the image has to be stored before the initializers that are not part of it
+        globals.add(0, image.createStoreNode(getDataSegment(), LLVMBaseOptionFacade.getExecutionCount() > 1));
         return globals;
     }
 
     @Override
     public void visit(GlobalConstant constant) {
-        variables.put(constant, null);
+        addGlobal(constant);
     }
 
     @Override
     public void visit(GlobalVariable variable) {
-        variables.put(variable, null);
+        addGlobal(variable);
     }
 
     @Override
@@ -281,7 +339,7 @@ public class LLVMBitcodeVisitor implements ModelVisitor {
 
         List<LLVMNode> parameters = createParameters(frame, method.getParameters());
 
-        LLVMExpressionNode body = createFunction(method);
+        LLVMExpressionNode body = createFunction(method, parameters);
 
         LLVMNode[] beforeFunction = parameters.toArray(new LLVMNode[parameters.size()]);
         LLVMNode[] afterFunction = new LLVMNode[0];
@@ -292,6 +350,7 @@ public class LLVMBitcodeVisitor implements ModelVisitor {
         LLVMFunctionDescriptor function = context.getFunctionRegistry().createFunctionDescriptor(method.getName(), llvmReturnType, llvmParamTypes, method.isVarArg());
         RootCallTarget callTarget = Truffle.getRuntime().createCallTarget(rootNode);
         functions.put(function, callTarget);
+        functionsByName.put(function.getName(), function);
     }
 
     @Override
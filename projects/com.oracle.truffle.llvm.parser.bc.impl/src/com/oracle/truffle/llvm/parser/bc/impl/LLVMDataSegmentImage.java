@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.bc.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMContext;
+import com.oracle.truffle.llvm.nodes.impl.memory.LLVMByteImageStoreNode;
+import com.oracle.truffle.llvm.types.LLVMAddress;
+
+import uk.ac.man.cs.llvm.ir.model.FunctionDeclaration;
+import uk.ac.man.cs.llvm.ir.model.FunctionDefinition;
+import uk.ac.man.cs.llvm.ir.model.GlobalValueSymbol;
+import uk.ac.man.cs.llvm.ir.model.Symbol;
+import uk.ac.man.cs.llvm.ir.model.constants.ArrayConstant;
+import uk.ac.man.cs.llvm.ir.model.constants.CastConstant;
+import uk.ac.man.cs.llvm.ir.model.constants.Constant;
+import uk.ac.man.cs.llvm.ir.model.constants.FloatingPointConstant;
+import uk.ac.man.cs.llvm.ir.model.constants.GetElementPointerConstant;
+import uk.ac.man.cs.llvm.ir.model.constants.IntegerConstant;
+import uk.ac.man.cs.llvm.ir.model.constants.NullConstant;
+import uk.ac.man.cs.llvm.ir.model.constants.StringConstant;
+import uk.ac.man.cs.llvm.ir.model.constants.StructureConstant;
+import uk.ac.man.cs.llvm.ir.model.constants.UndefinedConstant;
+import uk.ac.man.cs.llvm.ir.model.enums.CastOperator;
+import uk.ac.man.cs.llvm.ir.types.FloatingPointType;
+import uk.ac.man.cs.llvm.ir.types.FunctionType;
+import uk.ac.man.cs.llvm.ir.types.IntegerType;
+import uk.ac.man.cs.llvm.ir.types.PointerType;
+import uk.ac.man.cs.llvm.ir.types.Type;
+
+/**
+ * Computes the initial content of the data segment of a module at parse time, so that the
+ * initializers of the global variables can be installed in bulk instead of executing a node tree
+ * per global.
+ *
+ * The image only keeps the initial values of the globals that are not all zero. The rest of the
+ * segment, in particular zero-initialized globals, is cleared with a memset when the image is
+ * stored (see {@link LLVMByteImageStoreNode}).
+ *
+ * Pointer-valued fields are relocated while the image is built, since the addresses of all
+ * globals in the data segment are already known at this point. Initializers that cannot be
+ * evaluated at parse time (e.g., constant expressions involving arithmetic) are left zeroed in the
+ * image and have to be initialized by nodes instead.
+ */
+public final class LLVMDataSegmentImage {
+
+    private final int size;
+
+    private final SortedMap<Integer, byte[]> chunks = new TreeMap<>();
+
+    private final Function<GlobalValueSymbol, LLVMAddress> addresses;
+
+    private final LLVMContext context;
+
+    private byte[] image;
+
+    private ByteBuffer buffer;
+
+    public LLVMDataSegmentImage(int size, Function<GlobalValueSymbol, LLVMAddress> addresses, LLVMContext context) {
+        this.size = size;
+        this.addresses = addresses;
+        this.context = context;
+    }
+
+    /**
+     * Writes the value of a constant to the image.
+     *
+     * @return <code>true</code> if the value could be written, <code>false</code> if the value is
+     *         not constant at parse time and the memory it would occupy was left zeroed
+     */
+    public boolean write(Symbol value, int offset, int align) {
+        image = new byte[LLVMBitcodeHelper.getSize(value.getType(), align)];
+        buffer = ByteBuffer.wrap(image).order(ByteOrder.nativeOrder());
+        boolean written = writeConstant(value, 0, align);
+        if (written && !isZero(image)) {
+            chunks.put(offset, image);
+        }
+        image = null;
+        buffer = null;
+        return written;
+    }
+
+    /**
+     * Creates the node that stores the image to the data segment at <code>target</code>.
+     *
+     * @param reusable whether the node might be executed more than once
+     */
+    public LLVMByteImageStoreNode createStoreNode(LLVMAddress target, boolean reusable) {
+        long[] offsets = new long[chunks.size()];
+        byte[][] values = new byte[chunks.size()][];
+        int i = 0;
+        for (Map.Entry<Integer, byte[]> chunk : chunks.entrySet()) {
+            offsets[i] = chunk.getKey();
+            values[i] = chunk.getValue();
+            i++;
+        }
+        return new LLVMByteImageStoreNode(target, size, offsets, values, reusable);
+    }
+
+    private static boolean isZero(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean writeConstant(Symbol value, int offset, int align) {
+        if (value instanceof NullConstant || value instanceof UndefinedConstant) {
+            // the image is zero-initialized, and undefined values are zero in the node based
+            // initialization as well
+            return true;
+        }
+        if (value instanceof IntegerConstant) {
+            long constant = ((IntegerConstant) value).getValue();
+            switch (((IntegerType) value.getType()).getBitCount()) {
+                case 1:
+                case Byte.SIZE:
+                    buffer.put(offset, (byte) constant);
+                    return true;
+                case Short.SIZE:
+                    buffer.putShort(offset, (short) constant);
+                    return true;
+                case Integer.SIZE:
+                    buffer.putInt(offset, (int) constant);
+                    return true;
+                case Long.SIZE:
+                    buffer.putLong(offset, constant);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        if (value instanceof FloatingPointConstant) {
+            FloatingPointConstant constant = (FloatingPointConstant) value;
+            switch ((FloatingPointType) constant.getType()) {
+                case FLOAT:
+                    buffer.putFloat(offset, constant.toFloat());
+                    return true;
+                case DOUBLE:
+                    buffer.putDouble(offset, constant.toDouble());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        if (value instanceof StringConstant) {
+            StringConstant constant = (StringConstant) value;
+            String chars = constant.getString();
+            for (int i = 0; i < chars.length(); i++) {
+                image[offset + i] = (byte) chars.charAt(i);
+            }
+            return true;
+        }
+        if (value instanceof ArrayConstant) {
+            ArrayConstant array = (ArrayConstant) value;
+            int stride = LLVMBitcodeHelper.getSize(array.getType().getElementType(), align);
+            for (int i = 0; i < array.getElementCount(); i++) {
+                if (!writeConstant(array.getElement(i), offset + i * stride, align)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof StructureConstant) {
+            StructureConstant structure = (StructureConstant) value;
+            int elementOffset = 0;
+            for (int i = 0; i < structure.getElementCount(); i++) {
+                Constant element = structure.getElement(i);
+                if (!structure.isPacked()) {
+                    elementOffset += LLVMBitcodeHelper.getPaddingSize(element, align, elementOffset);
+                }
+                if (!writeConstant(element, offset + elementOffset, align)) {
+                    return false;
+                }
+                elementOffset += LLVMBitcodeHelper.getSize(element, align);
+            }
+            return true;
+        }
+        if (value instanceof FunctionDefinition || value instanceof FunctionDeclaration) {
+            buffer.putInt(offset, LLVMBitcodeHelper.toFunctionDescriptor(value, context).getFunctionIndex());
+            return true;
+        }
+        LLVMAddress address = toAddress(value, align);
+        if (address != null) {
+            buffer.putLong(offset, address.getVal());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Resolves a pointer into the data segment, or returns <code>null</code> if the value is not
+     * such a pointer.
+     */
+    private LLVMAddress toAddress(Symbol value, int align) {
+        if (value instanceof GlobalValueSymbol) {
+            return addresses.apply((GlobalValueSymbol) value);
+        }
+        if (value instanceof CastConstant) {
+            CastConstant cast = (CastConstant) value;
+            if (cast.getOperator() == CastOperator.BITCAST && isDataPointer(cast.getType()) && isDataPointer(cast.getValue().getType())) {
+                return toAddress(cast.getValue(), align);
+            }
+            return null;
+        }
+        if (value instanceof GetElementPointerConstant) {
+            GetElementPointerConstant ptr = (GetElementPointerConstant) value;
+            LLVMAddress base = toAddress(ptr.getBasePointer(), align);
+            if (base == null) {
+                return null;
+            }
+
+            Long offset = LLVMBitcodeHelper.getConstantOffset(ptr, align);
+            if (offset == null) {
+                return null;
+            }
+            return base.increment(offset);
+        }
+        return null;
+    }
+
+    private static boolean isDataPointer(Type type) {
+        return type instanceof PointerType && !(((PointerType) type).getPointeeType() instanceof FunctionType);
+    }
+}
@@ -82,20 +82,25 @@ public final class LLVMFrameDescriptors {
     public static LLVMFrameDescriptors generate(Model model) {
         LLVMControlFlowAnalysis cfg = LLVMControlFlowAnalysis.generate(model);
 
-        LLVMFrameDescriptorsVisitor visitor = new LLVMFrameDescriptorsVisitor(cfg);
+        LLVMAllocaPromotion promotion = LLVMAllocaPromotion.generate(model);
+
+        LLVMFrameDescriptorsVisitor visitor = new LLVMFrameDescriptorsVisitor(cfg, promotion);
 
         model.accept(visitor);
 
-        return new LLVMFrameDescriptors(visitor.getDescriptors(), visitor.getSlots());
+        return new LLVMFrameDescriptors(visitor.getDescriptors(), visitor.getSlots(), promotion);
     }
 
     private final Map<String, FrameDescriptor> descriptors;
 
     private final Map<String, Map<InstructionBlock, List<FrameSlot>>> slots;
 
-    private LLVMFrameDescriptors(Map<String, FrameDescriptor> descriptors, Map<String, Map<InstructionBlock, List<FrameSlot>>> slots) {
+    private final LLVMAllocaPromotion promotion;
+
+    private LLVMFrameDescriptors(Map<String, FrameDescriptor> descriptors, Map<String, Map<InstructionBlock, List<FrameSlot>>> slots, LLVMAllocaPromotion promotion) {
         this.descriptors = descriptors;
         this.slots = slots;
+        this.promotion = promotion;
     }
 
     public FrameDescriptor getDescriptor(String method) {
@@ -110,16 +115,23 @@ public final class LLVMFrameDescriptors {
         return slots.get(method);
     }
 
+    public Set<AllocateInstruction> getPromotedAllocations(String method) {
+        return promotion.getPromotedAllocations(method);
+    }
+
     private static class LLVMFrameDescriptorsVisitor implements ModelVisitor {
 
         private final LLVMControlFlowAnalysis cfg;
 
+        private final LLVMAllocaPromotion promotion;
+
         private final Map<String, FrameDescriptor> descriptors = new HashMap<>();
 
         private final Map<String, Map<InstructionBlock, List<FrameSlot>>> slots = new HashMap<>();
 
-        LLVMFrameDescriptorsVisitor(LLVMControlFlowAnalysis cfg) {
+        LLVMFrameDescriptorsVisitor(LLVMControlFlowAnalysis cfg, LLVMAllocaPromotion promotion) {
             this.cfg = cfg;
+            this.promotion = promotion;
         }
 
         public Map<String, FrameDescriptor> getDescriptors() {
@@ -146,13 +158,15 @@ public final class LLVMFrameDescriptors {
         public void visit(FunctionDefinition method) {
             FrameDescriptor frame = new FrameDescriptor();
             frame.addFrameSlot(LLVMBitcodeHelper.FUNCTION_RETURN_VALUE_FRAME_SLOT_ID);
-            frame.addFrameSlot(LLVMBitcodeHelper.STACK_ADDRESS_FRAME_SLOT_ID, FrameSlotKind.Object);
+            frame.addFrameSlot(LLVMBitcodeHelper.STACK_ADDRESS_FRAME_SLOT_ID, FrameSlotKind.Long);
+            frame.addFrameSlot(LLVMBitcodeHelper.STATIC_ALLOCATION_FRAME_SLOT_ID, FrameSlotKind.Long);
 
             for (FunctionParameter parameter : method.getParameters()) {
                 frame.addFrameSlot(parameter.getName(), LLVMBitcodeHelper.toFrameSlotKind(parameter.getType()));
             }
 
-            LLVMFrameDescriptorsFunctionVisitor visitor = new LLVMFrameDescriptorsFunctionVisitor(frame, cfg.dependencies(method.getName()));
+            LLVMFrameDescriptorsFunctionVisitor visitor = new LLVMFrameDescriptorsFunctionVisitor(frame, cfg.dependencies(method.getName()),
+                            promotion.getPromotedAllocations(method.getName()));
 
             method.accept(visitor);
 
@@ -171,13 +185,16 @@ public final class LLVMFrameDescriptors {
 
         private LLVMControlFlow cfg;
 
+        private final Set<AllocateInstruction> promoted;
+
         private final Map<InstructionBlock, List<FrameSlot>> map = new HashMap<>();
 
         private InstructionBlock entry = null;
 
-        LLVMFrameDescriptorsFunctionVisitor(FrameDescriptor frame, LLVMControlFlow cfg) {
+        LLVMFrameDescriptorsFunctionVisitor(FrameDescriptor frame, LLVMControlFlow cfg, Set<AllocateInstruction> promoted) {
             this.frame = frame;
             this.cfg = cfg;
+            this.promoted = promoted;
         }
 
         private List<InstructionBlock> getNondominatingBlocks(InstructionBlock block) {
@@ -248,7 +265,8 @@ public final class LLVMFrameDescriptors {
 
         @Override
         public void visit(AllocateInstruction allocate) {
-            frame.findOrAddFrameSlot(allocate.getName(), LLVMBitcodeHelper.toFrameSlotKind(allocate.getType()));
+            Type type = promoted.contains(allocate) ? allocate.getPointeeType() : allocate.getType();
+            frame.findOrAddFrameSlot(allocate.getName(), LLVMBitcodeHelper.toFrameSlotKind(type));
         }
 
         @Override
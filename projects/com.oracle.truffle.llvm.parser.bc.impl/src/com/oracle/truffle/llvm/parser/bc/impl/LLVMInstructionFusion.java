@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.bc.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
+
+import uk.ac.man.cs.llvm.ir.model.FunctionDeclaration;
+import uk.ac.man.cs.llvm.ir.model.FunctionDefinition;
+import uk.ac.man.cs.llvm.ir.model.FunctionVisitor;
+import uk.ac.man.cs.llvm.ir.model.GlobalConstant;
+import uk.ac.man.cs.llvm.ir.model.GlobalVariable;
+import uk.ac.man.cs.llvm.ir.model.InstructionBlock;
+import uk.ac.man.cs.llvm.ir.model.InstructionVisitor;
+import uk.ac.man.cs.llvm.ir.model.Model;
+import uk.ac.man.cs.llvm.ir.model.ModelVisitor;
+import uk.ac.man.cs.llvm.ir.model.Symbol;
+import uk.ac.man.cs.llvm.ir.model.elements.AllocateInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.BinaryOperationInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.BranchInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.Call;
+import uk.ac.man.cs.llvm.ir.model.elements.CallInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.CastInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.CompareInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ConditionalBranchInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ExtractElementInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ExtractValueInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.GetElementPointerInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.IndirectBranchInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.InsertElementInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.InsertValueInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.Instruction;
+import uk.ac.man.cs.llvm.ir.model.elements.LoadInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.PhiInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ReturnInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.SelectInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ShuffleVectorInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.StoreInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.SwitchInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.SwitchOldInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.UnreachableInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.ValueInstruction;
+import uk.ac.man.cs.llvm.ir.model.elements.VoidCallInstruction;
+import uk.ac.man.cs.llvm.ir.types.Type;
+import uk.ac.man.cs.llvm.ir.types.VectorType;
+
+/**
+ * Finds the instructions of each function whose value is used exactly once, by the instruction
+ * that immediately follows them in the same block. Instead of passing such a value through a frame
+ * slot, the front end builds the node of the producing instruction directly into the node of its
+ * user, or replaces both by a single fused node.
+ *
+ * Only the idioms that are common in the output of clang are fused: a comparison consumed by a
+ * conditional branch, a <code>getelementptr</code> consumed by a load or store, a cast consumed by
+ * another cast, and a load consumed by a binary operation whose result is stored.
+ */
+public final class LLVMInstructionFusion implements ModelVisitor {
+
+    public static LLVMInstructionFusion generate(Model model) {
+        LLVMInstructionFusion visitor = new LLVMInstructionFusion();
+
+        if (LLVMBaseOptionFacade.fuseInstructions()) {
+            model.accept(visitor);
+        }
+
+        return visitor;
+    }
+
+    private final Map<String, Set<ValueInstruction>> fused = new HashMap<>();
+
+    private LLVMInstructionFusion() {
+    }
+
+    public Set<ValueInstruction> getFusedInstructions(String method) {
+        Set<ValueInstruction> instructions = fused.get(method);
+        if (instructions == null) {
+            return Collections.emptySet();
+        } else {
+            return instructions;
+        }
+    }
+
+    @Override
+    public void visit(GlobalConstant constant) {
+    }
+
+    @Override
+    public void visit(GlobalVariable variable) {
+    }
+
+    @Override
+    public void visit(FunctionDeclaration method) {
+    }
+
+    @Override
+    public void visit(FunctionDefinition method) {
+        LLVMInstructionFusionFunctionVisitor visitor = new LLVMInstructionFusionFunctionVisitor();
+
+        method.accept(visitor);
+
+        fused.put(method.getName(), visitor.getFusedInstructions());
+    }
+
+    @Override
+    public void visit(Type type) {
+    }
+
+    private static boolean isScalar(Symbol symbol) {
+        return !(symbol.getType() instanceof VectorType);
+    }
+
+    private static boolean isFusable(ValueInstruction producer, Instruction user) {
+        if (!isScalar(producer)) {
+            return false;
+        }
+        if (producer instanceof CompareInstruction) {
+            return user instanceof ConditionalBranchInstruction;
+        }
+        if (producer instanceof GetElementPointerInstruction) {
+            return (user instanceof LoadInstruction && ((LoadInstruction) user).getSource() == producer) || (user instanceof StoreInstruction && ((StoreInstruction) user).getDestination() == producer);
+        }
+        if (producer instanceof CastInstruction) {
+            return user instanceof CastInstruction && isScalar((CastInstruction) user);
+        }
+        if (producer instanceof LoadInstruction) {
+            return !((LoadInstruction) producer).isVolatile() && user instanceof BinaryOperationInstruction && isScalar((BinaryOperationInstruction) user);
+        }
+        if (producer instanceof BinaryOperationInstruction) {
+            return user instanceof StoreInstruction && ((StoreInstruction) user).getSource() == producer && !((StoreInstruction) user).isVolatile();
+        }
+        return false;
+    }
+
+    private static class LLVMInstructionFusionFunctionVisitor implements FunctionVisitor, InstructionVisitor {
+
+        private final List<InstructionBlock> blocks = new ArrayList<>();
+
+        private final Map<Symbol, Integer> useCounts = new HashMap<>();
+
+        private final Map<Symbol, Instruction> users = new HashMap<>();
+
+        private Instruction current;
+
+        LLVMInstructionFusionFunctionVisitor() {
+        }
+
+        public Set<ValueInstruction> getFusedInstructions() {
+            Set<ValueInstruction> instructions = new HashSet<>();
+            for (InstructionBlock block : blocks) {
+                for (int i = 0; i + 1 < block.getInstructionCount(); i++) {
+                    Instruction producer = block.getInstruction(i);
+                    Instruction user = block.getInstruction(i + 1);
+                    if (producer instanceof ValueInstruction && useCounts.get(producer) != null && useCounts.get(producer) == 1 && users.get(producer) == user &&
+                                    isFusable((ValueInstruction) producer, user)) {
+                        instructions.add((ValueInstruction) producer);
+                    }
+                }
+            }
+            return instructions;
+        }
+
+        private void use(Symbol symbol) {
+            if (symbol instanceof ValueInstruction) {
+                Integer count = useCounts.get(symbol);
+                useCounts.put(symbol, count == null ? 1 : count + 1);
+                users.put(symbol, current);
+            }
+        }
+
+        private void use(Call call) {
+            use(call.getCallTarget());
+            for (int i = 0; i < call.getArgumentCount(); i++) {
+                use(call.getArgument(i));
+            }
+        }
+
+        @Override
+        public void visit(InstructionBlock block) {
+            blocks.add(block);
+            for (int i = 0; i < block.getInstructionCount(); i++) {
+                current = block.getInstruction(i);
+                current.accept(this);
+            }
+        }
+
+        @Override
+        public void visit(AllocateInstruction allocate) {
+            use(allocate.getCount());
+        }
+
+        @Override
+        public void visit(BinaryOperationInstruction operation) {
+            use(operation.getLHS());
+            use(operation.getRHS());
+        }
+
+        @Override
+        public void visit(BranchInstruction branch) {
+        }
+
+        @Override
+        public void visit(CallInstruction call) {
+            use(call);
+        }
+
+        @Override
+        public void visit(CastInstruction cast) {
+            use(cast.getValue());
+        }
+
+        @Override
+        public void visit(CompareInstruction compare) {
+            use(compare.getLHS());
+            use(compare.getRHS());
+        }
+
+        @Override
+        public void visit(ConditionalBranchInstruction branch) {
+            use(branch.getCondition());
+        }
+
+        @Override
+        public void visit(ExtractElementInstruction extract) {
+            use(extract.getVector());
+            use(extract.getIndex());
+        }
+
+        @Override
+        public void visit(ExtractValueInstruction extract) {
+            use(extract.getAggregate());
+        }
+
+        @Override
+        public void visit(GetElementPointerInstruction gep) {
+            use(gep.getBasePointer());
+            for (int i = 0; i < gep.getIndexCount(); i++) {
+                use(gep.getIndex(i));
+            }
+        }
+
+        @Override
+        public void visit(IndirectBranchInstruction branch) {
+            use(branch.getAddress());
+        }
+
+        @Override
+        public void visit(InsertElementInstruction insert) {
+            use(insert.getVector());
+            use(insert.getValue());
+            use(insert.getIndex());
+        }
+
+        @Override
+        public void visit(InsertValueInstruction insert) {
+            use(insert.getAggregate());
+            use(insert.getValue());
+        }
+
+        @Override
+        public void visit(LoadInstruction load) {
+            use(load.getSource());
+        }
+
+        @Override
+        public void visit(PhiInstruction phi) {
+            for (int i = 0; i < phi.getSize(); i++) {
+                use(phi.getValue(i));
+            }
+        }
+
+        @Override
+        public void visit(ReturnInstruction ret) {
+            use(ret.getValue());
+        }
+
+        @Override
+        public void visit(SelectInstruction select) {
+            use(select.getCondition());
+            use(select.getTrueValue());
+            use(select.getFalseValue());
+        }
+
+        @Override
+        public void visit(ShuffleVectorInstruction shuffle) {
+            use(shuffle.getVector1());
+            use(shuffle.getVector2());
+            use(shuffle.getMask());
+        }
+
+        @Override
+        public void visit(StoreInstruction store) {
+            use(store.getDestination());
+            use(store.getSource());
+        }
+
+        @Override
+        public void visit(SwitchInstruction select) {
+            use(select.getCondition());
+            for (int i = 0; i < select.getCaseCount(); i++) {
+                use(select.getCaseValue(i));
+            }
+        }
+
+        @Override
+        public void visit(SwitchOldInstruction select) {
+            use(select.getCondition());
+        }
+
+        @Override
+        public void visit(UnreachableInstruction unreachable) {
+        }
+
+        @Override
+        public void visit(VoidCallInstruction call) {
+            use(call);
+        }
+    }
+}
@@ -29,7 +29,10 @@
  */
 package com.oracle.truffle.llvm.parser.factories;
 
+import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.llvm.nodes.base.LLVMExpressionNode;
+import com.oracle.truffle.llvm.nodes.base.LLVMNode;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMAddressNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMContext;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMLanguage;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI32Node;
@@ -38,6 +41,8 @@ import com.oracle.truffle.llvm.nodes.impl.memory.LLVMAllocInstruction.LLVMAlloca
 import com.oracle.truffle.llvm.nodes.impl.memory.LLVMAllocInstructionFactory.LLVMAllocaInstructionNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.memory.LLVMAllocInstructionFactory.LLVMI32AllocaInstructionNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.memory.LLVMAllocInstructionFactory.LLVMI64AllocaInstructionNodeGen;
+import com.oracle.truffle.llvm.nodes.impl.memory.LLVMStaticAllocation.LLVMStaticAllocaNode;
+import com.oracle.truffle.llvm.nodes.impl.memory.LLVMStaticAllocation.LLVMStaticAllocationPrologueNode;
 import com.oracle.truffle.llvm.parser.LLVMBaseType;
 import com.oracle.truffle.llvm.parser.LLVMParserRuntime;
 
@@ -60,4 +65,13 @@ public class LLVMAllocFactory {
         return LLVMAllocaInstructionNodeGen.create(byteSize, alignment, context, runtime.getStackPointerSlot());
     }
 
+    public static LLVMAddressNode createStaticAlloc(FrameSlot frameBaseSlot, int offset) {
+        return new LLVMStaticAllocaNode(frameBaseSlot, offset);
+    }
+
+    public static LLVMNode createStaticAllocationPrologue(FrameSlot stackPointerSlot, FrameSlot frameBaseSlot, int size, int alignment) {
+        LLVMContext context = LLVMLanguage.INSTANCE.findContext0(LLVMLanguage.INSTANCE.createFindContextNode0());
+        return new LLVMStaticAllocationPrologueNode(context, stackPointerSlot, frameBaseSlot, size, alignment);
+    }
+
 }
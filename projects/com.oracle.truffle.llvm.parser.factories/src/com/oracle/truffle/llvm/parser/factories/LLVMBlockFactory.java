@@ -29,23 +29,165 @@
  */
 package com.oracle.truffle.llvm.parser.factories;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeUtil;
 import com.oracle.truffle.llvm.nodes.base.LLVMExpressionNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMStackFrameNuller;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMBasicBlockNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMTerminatorNode;
 import com.oracle.truffle.llvm.nodes.impl.others.LLVMBlockNode.LLVMBlockControlFlowNode;
+import com.oracle.truffle.llvm.nodes.impl.others.LLVMBlockNode.LLVMBlockRegionNode;
+import com.oracle.truffle.llvm.nodes.impl.others.LLVMBlockNode.LLVMRegionNode;
+import com.oracle.truffle.llvm.nodes.impl.others.LLVMBlockNode.LLVMSplitRegionNode;
+import com.oracle.truffle.llvm.nodes.impl.others.LLVMLoopNode;
+import com.oracle.truffle.llvm.parser.util.LLVMNaturalLoops;
+import com.oracle.truffle.llvm.parser.util.LLVMNaturalLoops.LLVMNaturalLoop;
+import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
 
 public class LLVMBlockFactory {
 
+    private static final String LOOP_EXIT_FRAME_SLOT_ID = "<loop exit>";
+
     public static LLVMNode createBasicBlock(LLVMNode[] statementNodes, LLVMTerminatorNode terminatorNode, int blockId, String blockName) {
         return new LLVMBasicBlockNode(statementNodes, terminatorNode, blockId, blockName);
     }
 
-    public static LLVMExpressionNode createFunctionBlock(FrameSlot returnSlot, LLVMBasicBlockNode[] bbs, LLVMStackFrameNuller[][] beforeSlotNullerNodes,
+    public static LLVMExpressionNode createFunctionBlock(FrameDescriptor frameDescriptor, FrameSlot returnSlot, LLVMBasicBlockNode[] bbs, LLVMStackFrameNuller[][] beforeSlotNullerNodes,
                     LLVMStackFrameNuller[][] afterSlotNullerNodes) {
-        return new LLVMBlockControlFlowNode(bbs, beforeSlotNullerNodes, afterSlotNullerNodes, returnSlot);
+        int[][] successors = new int[bbs.length][];
+        for (int i = 0; i < bbs.length; i++) {
+            successors[i] = bbs[i].getSuccessors();
+        }
+        List<LLVMNaturalLoop> loops;
+        FrameSlot exitSlot = null;
+        if (LLVMBaseOptionFacade.extractLoops()) {
+            loops = LLVMNaturalLoops.compute(successors).getOutermostLoops();
+            if (!loops.isEmpty()) {
+                exitSlot = frameDescriptor.findOrAddFrameSlot(LOOP_EXIT_FRAME_SLOT_ID, FrameSlotKind.Int);
+            }
+        } else {
+            loops = new ArrayList<>();
+        }
+        BitSet functionBlocks = new BitSet(bbs.length);
+        functionBlocks.set(0, bbs.length);
+        LLVMRegionNode region = createRegion(bbs, successors, functionBlocks, LLVMRegionNode.NO_HEADER, loops, beforeSlotNullerNodes, afterSlotNullerNodes, exitSlot);
+        return new LLVMBlockControlFlowNode(region, returnSlot);
+    }
+
+    /**
+     * Creates a region with the given blocks, in which the blocks of the given loops are executed
+     * by nested loop nodes. A region whose blocks and loops exceed the maximum compilation unit
+     * size is split into parts.
+     */
+    private static LLVMRegionNode createRegion(LLVMBasicBlockNode[] bbs, int[][] successors, BitSet blocks, int header, List<LLVMNaturalLoop> loops,
+                    LLVMStackFrameNuller[][] beforeSlotNullerNodes, LLVMStackFrameNuller[][] afterSlotNullerNodes, FrameSlot exitSlot) {
+        LLVMBasicBlockNode[] regionBlocks = new LLVMBasicBlockNode[bbs.length];
+        for (int i = blocks.nextSetBit(0); i >= 0; i = blocks.nextSetBit(i + 1)) {
+            regionBlocks[i] = bbs[i];
+        }
+        LLVMLoopNode[] loopNodes = new LLVMLoopNode[loops.size()];
+        for (int i = 0; i < loopNodes.length; i++) {
+            LLVMNaturalLoop loop = loops.get(i);
+            for (int j = loop.getBlocks().nextSetBit(0); j >= 0; j = loop.getBlocks().nextSetBit(j + 1)) {
+                regionBlocks[j] = null;
+            }
+            LLVMRegionNode body = createRegion(bbs, successors, loop.getBlocks(), loop.getHeader(), loop.getNestedLoops(), beforeSlotNullerNodes, afterSlotNullerNodes, exitSlot);
+            loopNodes[i] = new LLVMLoopNode(body, loop.getHeader(), exitSlot, getExitTargets(successors, loop.getBlocks()));
+        }
+        int maxSize = LLVMBaseOptionFacade.getMaxCompilationUnitSize();
+        if (maxSize > 0) {
+            LLVMBlockRegionNode[] parts = splitRegion(successors, regionBlocks, loopNodes, header, maxSize, beforeSlotNullerNodes, afterSlotNullerNodes);
+            if (parts.length > 1) {
+                return new LLVMSplitRegionNode(parts, header);
+            }
+        }
+        return new LLVMBlockRegionNode(regionBlocks, loopNodes, beforeSlotNullerNodes, afterSlotNullerNodes);
+    }
+
+    /**
+     * Divides the blocks and loops of a region, in the order of their indices, into parts of at
+     * most the given number of AST nodes (unless a single block or loop is larger). A part can be
+     * entered at the entry of the region and at every successor of a block or loop of another part.
+     */
+    private static LLVMBlockRegionNode[] splitRegion(int[][] successors, LLVMBasicBlockNode[] regionBlocks, LLVMLoopNode[] loopNodes, int header, int maxSize,
+                    LLVMStackFrameNuller[][] beforeSlotNullerNodes, LLVMStackFrameNuller[][] afterSlotNullerNodes) {
+        LLVMLoopNode[] loopAt = new LLVMLoopNode[regionBlocks.length];
+        for (LLVMLoopNode loop : loopNodes) {
+            loopAt[loop.getHeader()] = loop;
+        }
+        int[] partOf = new int[regionBlocks.length];
+        Arrays.fill(partOf, -1);
+        int partCount = 0;
+        int partSize = 0;
+        for (int bci = 0; bci < regionBlocks.length; bci++) {
+            Node unit = regionBlocks[bci] != null ? regionBlocks[bci] : loopAt[bci];
+            if (unit != null) {
+                int size = NodeUtil.countNodes(unit);
+                if (partCount == 0 || (partSize > 0 && partSize + size > maxSize)) {
+                    partCount++;
+                    partSize = 0;
+                }
+                partOf[bci] = partCount - 1;
+                partSize += size;
+            }
+        }
+        if (partCount <= 1) {
+            return new LLVMBlockRegionNode[partCount];
+        }
+        List<BitSet> entries = new ArrayList<>();
+        for (int i = 0; i < partCount; i++) {
+            entries.add(new BitSet(regionBlocks.length));
+        }
+        int entry = header == LLVMRegionNode.NO_HEADER ? 0 : header;
+        entries.get(partOf[entry]).set(entry);
+        for (int bci = 0; bci < regionBlocks.length; bci++) {
+            if (partOf[bci] != -1) {
+                int[] unitSuccessors = regionBlocks[bci] != null ? successors[bci] : loopAt[bci].getExitTargets();
+                for (int successor : unitSuccessors) {
+                    if (successor >= 0 && partOf[successor] != -1 && partOf[successor] != partOf[bci]) {
+                        entries.get(partOf[successor]).set(successor);
+                    }
+                }
+            }
+        }
+        LLVMBlockRegionNode[] parts = new LLVMBlockRegionNode[partCount];
+        for (int i = 0; i < partCount; i++) {
+            LLVMBasicBlockNode[] partBlocks = new LLVMBasicBlockNode[regionBlocks.length];
+            List<LLVMLoopNode> partLoops = new ArrayList<>();
+            for (int bci = 0; bci < regionBlocks.length; bci++) {
+                if (partOf[bci] == i) {
+                    if (regionBlocks[bci] != null) {
+                        partBlocks[bci] = regionBlocks[bci];
+                    } else {
+                        partLoops.add(loopAt[bci]);
+                    }
+                }
+            }
+            int[] partEntries = entries.get(i).stream().toArray();
+            parts[i] = new LLVMBlockRegionNode(partBlocks, partLoops.toArray(new LLVMLoopNode[partLoops.size()]), partEntries, beforeSlotNullerNodes, afterSlotNullerNodes);
+        }
+        return parts;
+    }
+
+    private static int[] getExitTargets(int[][] successors, BitSet loopBlocks) {
+        List<Integer> exitTargets = new ArrayList<>();
+        for (int i = loopBlocks.nextSetBit(0); i >= 0; i = loopBlocks.nextSetBit(i + 1)) {
+            for (int successor : successors[i]) {
+                if ((successor < 0 || !loopBlocks.get(successor)) && !exitTargets.contains(successor)) {
+                    exitTargets.add(successor);
+                }
+            }
+        }
+        return exitTargets.stream().mapToInt(Integer::intValue).toArray();
     }
 
 }
@@ -34,9 +34,16 @@ import com.oracle.truffle.llvm.nodes.base.LLVMNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMAddressNode;
 import com.oracle.truffle.llvm.nodes.impl.base.LLVMTerminatorNode;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI1Node;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI32Node;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI64Node;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMBrUnconditionalNode;
+import com.oracle.truffle.llvm.nodes.impl.control.LLVMCompareAndBranchNode.Condition;
+import com.oracle.truffle.llvm.nodes.impl.control.LLVMCompareAndBranchNodeFactory.LLVMI32CompareAndBranchNodeGen;
+import com.oracle.truffle.llvm.nodes.impl.control.LLVMCompareAndBranchNodeFactory.LLVMI64CompareAndBranchNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMConditionalBranchNodeFactory;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMIndirectBranchNode;
+import com.oracle.truffle.llvm.parser.LLVMBaseType;
+import com.oracle.truffle.llvm.parser.instructions.LLVMIntegerComparisonType;
 
 public class LLVMBranchFactory {
 
@@ -49,6 +56,58 @@ public class LLVMBranchFactory {
         return LLVMConditionalBranchNodeFactory.LLVMBrConditionalNodeGen.create(trueIndex, falseIndex, truePhiWriteNodes, falsePhiWriteNodes, (LLVMI1Node) conditionNode);
     }
 
+    /**
+     * Returns whether {@link #createCompareAndBranch} supports comparisons of values of the given
+     * type.
+     */
+    public static boolean isCompareAndBranchSupported(LLVMBaseType type) {
+        return type == LLVMBaseType.I32 || type == LLVMBaseType.I64;
+    }
+
+    /**
+     * Creates a conditional branch on an integer comparison that is not used otherwise (see
+     * {@link #isCompareAndBranchSupported}).
+     */
+    public static LLVMTerminatorNode createCompareAndBranch(int trueIndex, int falseIndex, LLVMBaseType type, LLVMIntegerComparisonType comparison, LLVMExpressionNode left,
+                    LLVMExpressionNode right, LLVMNode[] truePhiWriteNodes, LLVMNode[] falsePhiWriteNodes) {
+        Condition condition = toCondition(comparison);
+        switch (type) {
+            case I32:
+                return LLVMI32CompareAndBranchNodeGen.create(trueIndex, falseIndex, condition, truePhiWriteNodes, falsePhiWriteNodes, (LLVMI32Node) left, (LLVMI32Node) right);
+            case I64:
+                return LLVMI64CompareAndBranchNodeGen.create(trueIndex, falseIndex, condition, truePhiWriteNodes, falsePhiWriteNodes, (LLVMI64Node) left, (LLVMI64Node) right);
+            default:
+                throw new AssertionError(type);
+        }
+    }
+
+    private static Condition toCondition(LLVMIntegerComparisonType comparison) {
+        switch (comparison) {
+            case EQUALS:
+                return Condition.EQ;
+            case NOT_EQUALS:
+                return Condition.NE;
+            case UNSIGNED_GREATER_THAN:
+                return Condition.UGT;
+            case UNSIGNED_GREATER_EQUALS:
+                return Condition.UGE;
+            case UNSIGNED_LESS_THAN:
+                return Condition.ULT;
+            case UNSIGNED_LESS_EQUALS:
+                return Condition.ULE;
+            case SIGNED_GREATER_THAN:
+                return Condition.SGT;
+            case SIGNED_GREATER_EQUALS:
+                return Condition.SGE;
+            case SIGNED_LESS_THAN:
+                return Condition.SLT;
+            case SIGNED_LESS_EQUALS:
+                return Condition.SLE;
+            default:
+                throw new AssertionError(comparison);
+        }
+    }
+
     public static LLVMTerminatorNode createUnconditionalBranch(int unconditionalIndex, LLVMNode[] phiWrites) {
         return new LLVMBrUnconditionalNode(unconditionalIndex, phiWrites);
     }
@@ -73,6 +73,7 @@ import com.oracle.truffle.llvm.nodes.impl.vars.LLVMWriteNodeFactory.LLVMWriteI1N
 import com.oracle.truffle.llvm.nodes.impl.vars.LLVMWriteNodeFactory.LLVMWriteI32NodeGen;
 import com.oracle.truffle.llvm.nodes.impl.vars.LLVMWriteNodeFactory.LLVMWriteI64NodeGen;
 import com.oracle.truffle.llvm.nodes.impl.vars.LLVMWriteNodeFactory.LLVMWriteI8NodeGen;
+import com.oracle.truffle.llvm.nodes.impl.vars.LLVMWriteNodeFactory.LLVMWritePointerNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.vars.LLVMWriteNodeFactory.LLVMWriteIVarBitNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.vars.LLVMWriteVectorNodeGen;
 import com.oracle.truffle.llvm.parser.LLVMBaseType;
@@ -157,7 +158,7 @@ public final class LLVMFrameReadWriteFactory {
             case X86_FP80:
                 return LLVMWrite80BitFloatingNodeGen.create((LLVM80BitFloatNode) result, slot);
             case ADDRESS:
-                return LLVMWriteAddressNodeGen.create(result, slot);
+                return LLVMWritePointerNodeGen.create(result, slot);
             case FUNCTION_ADDRESS:
                 return LLVMWriteFunctionNodeGen.create((LLVMFunctionNode) result, slot);
             case STRUCT:
@@ -184,6 +185,7 @@ public final class LLVMFrameReadWriteFactory {
             case I32:
                 return FrameSlotKind.Int;
             case I64:
+            case ADDRESS:
                 return FrameSlotKind.Long;
             case FLOAT:
                 return FrameSlotKind.Float;
@@ -200,7 +202,6 @@ public final class LLVMFrameReadWriteFactory {
             case DOUBLE_VECTOR:
             case STRUCT:
             case FUNCTION_ADDRESS:
-            case ADDRESS:
             case ARRAY:
                 return FrameSlotKind.Object;
             case VOID:
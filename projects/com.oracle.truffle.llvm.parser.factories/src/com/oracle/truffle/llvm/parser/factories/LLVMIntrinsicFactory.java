@@ -42,6 +42,7 @@ import com.oracle.truffle.llvm.nodes.impl.base.LLVMLanguage;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI1Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI32Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI64Node;
+import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI8Node;
 import com.oracle.truffle.llvm.nodes.impl.func.LLVMCallNode;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMByteSwapFactory.LLVMByteSwapI16Factory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMByteSwapFactory.LLVMByteSwapI32Factory;
@@ -56,6 +57,9 @@ import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMFrameAddressNodeGe
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMI64ObjectSizeNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMLifetimeEndFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMLifetimeStartFactory;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMMemConstantLength;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMMemConstantLengthFactory.LLVMMemCopyConstantLengthNodeGen;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMMemConstantLengthFactory.LLVMMemSetConstantLengthNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMMemCopyFactory.LLVMMemI32CopyFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMMemCopyFactory.LLVMMemI64CopyFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.LLVMMemMoveFactory.LLVMMemMoveI64Factory;
@@ -81,6 +85,8 @@ import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.bit.CountTrailingZeroe
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.x86.LLVMX86_64BitVACopyNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.x86.LLVMX86_64BitVAEnd;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.llvm.x86.LLVMX86_64BitVAStart;
+import com.oracle.truffle.llvm.nodes.impl.literals.LLVMSimpleLiteralNode.LLVMI32LiteralNode;
+import com.oracle.truffle.llvm.nodes.impl.literals.LLVMSimpleLiteralNode.LLVMI64LiteralNode;
 import com.oracle.truffle.llvm.parser.LLVMParserRuntime;
 import com.oracle.truffle.llvm.runtime.LLVMOptimizationConfiguration;
 import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException;
@@ -147,6 +153,12 @@ public final class LLVMIntrinsicFactory {
         LLVMAddressNode readStackPointerNode = (LLVMAddressNode) argNodes[0];
         Object[] realArgNodes = new Object[argNodes.length - LLVMCallNode.ARG_START_INDEX];
         System.arraycopy(argNodes, LLVMCallNode.ARG_START_INDEX, realArgNodes, 0, realArgNodes.length);
+        if (functionName.startsWith("@llvm.memcpy") || functionName.startsWith("@llvm.memset")) {
+            LLVMNode constantLengthNode = getConstantLengthMemoryIntrinsic(functionName, realArgNodes);
+            if (constantLengthNode != null) {
+                return constantLengthNode;
+            }
+        }
         if (factory == null) {
             if (functionName.equals("@llvm.uadd.with.overflow.i32")) {
                 return LLVMUAddWithOverflowI32NodeGen.create((LLVMI32Node) realArgNodes[1], (LLVMI32Node) realArgNodes[2], (LLVMAddressNode) realArgNodes[0]);
@@ -177,6 +189,31 @@ public final class LLVMIntrinsicFactory {
 
     }
 
+    private static LLVMNode getConstantLengthMemoryIntrinsic(String functionName, Object[] argNodes) {
+        Object lengthNode = argNodes[2];
+        Object alignNode = argNodes[3];
+        if (!(alignNode instanceof LLVMI32LiteralNode)) {
+            return null;
+        }
+        long length;
+        if (lengthNode instanceof LLVMI32LiteralNode) {
+            length = ((LLVMI32LiteralNode) lengthNode).executeI32(null);
+        } else if (lengthNode instanceof LLVMI64LiteralNode) {
+            length = ((LLVMI64LiteralNode) lengthNode).executeI64(null);
+        } else {
+            return null;
+        }
+        int align = ((LLVMI32LiteralNode) alignNode).executeI32(null);
+        if (!LLVMMemConstantLength.canSpecialize(length, align)) {
+            return null;
+        }
+        if (functionName.startsWith("@llvm.memcpy")) {
+            return LLVMMemCopyConstantLengthNodeGen.create(length, align, (LLVMAddressNode) argNodes[0], (LLVMAddressNode) argNodes[1]);
+        } else {
+            return LLVMMemSetConstantLengthNodeGen.create(length, align, (LLVMAddressNode) argNodes[0], (LLVMI8Node) argNodes[1]);
+        }
+    }
+
     private static LLVMNode getExpect(Object[] argNodes, String functionName, LLVMOptimizationConfiguration optimizationConfig) {
         if (functionName.startsWith("@llvm.expect.i1")) {
             boolean expectedValue = ((LLVMI1Node) argNodes[1]).executeI1(null);
@@ -46,6 +46,7 @@ import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI64Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI8Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMIVarBitNode;
 import com.oracle.truffle.llvm.nodes.impl.base.vector.LLVMVectorNode;
+import com.oracle.truffle.llvm.nodes.impl.memory.LLVMI32LoadAddStoreNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.memory.LLVMLoadVectorNodeFactory.LLVMLoadDoubleVectorNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.memory.LLVMLoadVectorNodeFactory.LLVMLoadFloatVectorNodeGen;
 import com.oracle.truffle.llvm.nodes.impl.memory.LLVMLoadVectorNodeFactory.LLVMLoadI16VectorNodeGen;
@@ -237,4 +238,12 @@ public final class LLVMMemoryReadWriteFactory {
         }
     }
 
+    /**
+     * Creates a node that adds a value to the i32 at an address, for a load, add and store of the
+     * same address whose intermediate values are not used otherwise.
+     */
+    public static LLVMNode createLoadAddStore(LLVMAddressNode pointerNode, LLVMExpressionNode valueNode) {
+        return LLVMI32LoadAddStoreNodeGen.create(pointerNode, (LLVMI32Node) valueNode);
+    }
+
 }
@@ -36,6 +36,9 @@ import com.oracle.graal.replacements.amd64.AMD64MathSubstitutions;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.llvm.nodes.base.LLVMNode;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMAbortFactory;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCCallbackIntrinsicsFactory.LLVMAtExitFactory;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCCallbackIntrinsicsFactory.LLVMCxaAtExitFactory;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCCallbackIntrinsicsFactory.LLVMQsortFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCMathsIntrinsicsFactory.LLVMAbsFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCMathsIntrinsicsFactory.LLVMCeilFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCMathsIntrinsicsFactory.LLVMExpFactory;
@@ -47,7 +50,11 @@ import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCMathsIntrinsicsFacto
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCMathsIntrinsicsFactory.LLVMPowFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCMathsIntrinsicsFactory.LLVMRintFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCMathsIntrinsicsFactory.LLVMSqrtFactory;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCMemoryIntrinsicsFactory.LLVMCallocFactory;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCMemoryIntrinsicsFactory.LLVMMallocFactory;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMCMemoryIntrinsicsFactory.LLVMReallocFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMExitFactory;
+import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMFreeFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.c.LLVMTruffleReadBytesFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.interop.LLVMTruffleAddressToFunctionFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.interop.LLVMTruffleBinaryFactory.LLVMTruffleHasSizeFactory;
@@ -110,6 +117,7 @@ import com.oracle.truffle.llvm.nodes.impl.intrinsics.interop.LLVMTruffleWriteFac
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.interop.LLVMTruffleWriteFactory.LLVMTruffleWriteLFactory;
 import com.oracle.truffle.llvm.nodes.impl.intrinsics.interop.LLVMTruffleWriteFactory.LLVMTruffleWritePFactory;
 import com.oracle.truffle.llvm.runtime.LLVMOptimizationConfiguration;
+import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
 
 public class LLVMRuntimeIntrinsicFactory {
 
@@ -127,6 +135,14 @@ public class LLVMRuntimeIntrinsicFactory {
             intrinsifyCFunctions(intrinsics);
         }
 
+        if (LLVMBaseOptionFacade.useSulongAllocator()) {
+            intrinsifyMemoryAllocation(intrinsics);
+        }
+
+        if (LLVMBaseOptionFacade.intrinsifyCallbackFunctions()) {
+            intrinsifyCallbackFunctions(intrinsics);
+        }
+
         // Interop intrinsics
         intrinsics.put("@truffle_import", LLVMTruffleImportFactory.getInstance());
         intrinsics.put("@truffle_import_cached", LLVMTruffleImportCachedFactory.getInstance());
@@ -225,4 +241,26 @@ public class LLVMRuntimeIntrinsicFactory {
         intrinsics.put("@exp", LLVMExpFactory.getInstance());
     }
 
+    /**
+     * Memory that is allocated by the Sulong allocator must not be passed to the native
+     * <code>free</code> or <code>realloc</code>, so all of these functions are substituted
+     * together.
+     */
+    private static void intrinsifyMemoryAllocation(Map<String, NodeFactory<? extends LLVMNode>> intrinsics) {
+        intrinsics.put("@malloc", LLVMMallocFactory.getInstance());
+        intrinsics.put("@calloc", LLVMCallocFactory.getInstance());
+        intrinsics.put("@realloc", LLVMReallocFactory.getInstance());
+        intrinsics.put("@free", LLVMFreeFactory.getInstance());
+    }
+
+    /**
+     * Sulong function pointers cannot be passed to native code, so C functions that call back
+     * their function pointer arguments are substituted, and the callbacks stay in Sulong.
+     */
+    private static void intrinsifyCallbackFunctions(Map<String, NodeFactory<? extends LLVMNode>> intrinsics) {
+        intrinsics.put("@qsort", LLVMQsortFactory.getInstance());
+        intrinsics.put("@atexit", LLVMAtExitFactory.getInstance());
+        intrinsics.put("@__cxa_atexit", LLVMCxaAtExitFactory.getInstance());
+    }
+
 }
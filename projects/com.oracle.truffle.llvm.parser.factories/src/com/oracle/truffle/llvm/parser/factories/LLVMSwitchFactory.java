@@ -38,14 +38,22 @@ import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI16Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI32Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI64Node;
 import com.oracle.truffle.llvm.nodes.impl.base.integers.LLVMI8Node;
+import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI16ConstantSwitchNode;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI16ProfilingSwitchNode;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI16SwitchNode;
+import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI32ConstantSwitchNode;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI32ProfilingSwitchNode;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI32SwitchNode;
+import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI64ConstantSwitchNode;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI64ProfilingSwitchNode;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI64SwitchNode;
+import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI8ConstantSwitchNode;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI8ProfilingSwitchNode;
 import com.oracle.truffle.llvm.nodes.impl.control.LLVMSwitchNode.LLVMI8SwitchNode;
+import com.oracle.truffle.llvm.nodes.impl.literals.LLVMSimpleLiteralNode.LLVMI16LiteralNode;
+import com.oracle.truffle.llvm.nodes.impl.literals.LLVMSimpleLiteralNode.LLVMI32LiteralNode;
+import com.oracle.truffle.llvm.nodes.impl.literals.LLVMSimpleLiteralNode.LLVMI64LiteralNode;
+import com.oracle.truffle.llvm.nodes.impl.literals.LLVMSimpleLiteralNode.LLVMI8LiteralNode;
 import com.oracle.truffle.llvm.parser.LLVMBaseType;
 import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
 
@@ -53,6 +61,10 @@ public class LLVMSwitchFactory {
 
     public static LLVMTerminatorNode createSwitch(LLVMExpressionNode cond, int defaultLabel, int[] otherLabels, LLVMExpressionNode[] cases,
                     LLVMBaseType llvmType, LLVMNode[] phiWriteNodes) {
+        long[] caseValues = getConstantCaseValues(cases);
+        if (caseValues != null) {
+            return createConstantSwitch(cond, defaultLabel, otherLabels, caseValues, llvmType, phiWriteNodes);
+        }
         switch (llvmType) {
             case I8:
                 LLVMI8Node[] i8Cases = Arrays.copyOf(cases, cases.length, LLVMI8Node[].class);
@@ -87,4 +99,42 @@ public class LLVMSwitchFactory {
         }
     }
 
+    private static LLVMTerminatorNode createConstantSwitch(LLVMExpressionNode cond, int defaultLabel, int[] otherLabels, long[] caseValues, LLVMBaseType llvmType,
+                    LLVMNode[] phiWriteNodes) {
+        switch (llvmType) {
+            case I8:
+                return new LLVMI8ConstantSwitchNode((LLVMI8Node) cond, caseValues, otherLabels, defaultLabel, phiWriteNodes);
+            case I16:
+                return new LLVMI16ConstantSwitchNode((LLVMI16Node) cond, caseValues, otherLabels, defaultLabel, phiWriteNodes);
+            case I32:
+                return new LLVMI32ConstantSwitchNode((LLVMI32Node) cond, caseValues, otherLabels, defaultLabel, phiWriteNodes);
+            case I64:
+                return new LLVMI64ConstantSwitchNode((LLVMI64Node) cond, caseValues, otherLabels, defaultLabel, phiWriteNodes);
+            default:
+                throw new AssertionError(llvmType);
+        }
+    }
+
+    /**
+     * Returns the values of the cases if all of them are literals, and <code>null</code>
+     * otherwise.
+     */
+    private static long[] getConstantCaseValues(LLVMExpressionNode[] cases) {
+        long[] values = new long[cases.length];
+        for (int i = 0; i < cases.length; i++) {
+            if (cases[i] instanceof LLVMI8LiteralNode) {
+                values[i] = ((LLVMI8LiteralNode) cases[i]).executeI8(null);
+            } else if (cases[i] instanceof LLVMI16LiteralNode) {
+                values[i] = ((LLVMI16LiteralNode) cases[i]).executeI16(null);
+            } else if (cases[i] instanceof LLVMI32LiteralNode) {
+                values[i] = ((LLVMI32LiteralNode) cases[i]).executeI32(null);
+            } else if (cases[i] instanceof LLVMI64LiteralNode) {
+                values[i] = ((LLVMI64LiteralNode) cases[i]).executeI64(null);
+            } else {
+                return null;
+            }
+        }
+        return values;
+    }
+
 }
@@ -181,6 +181,11 @@ public class NodeFactoryFacadeImpl implements NodeFactoryFacade {
         return LLVMFunctionFactory.createRetVoid(runtime);
     }
 
+    @Override
+    public LLVMTerminatorNode createSelfTailCall(LLVMNode[] argumentWrites, LLVMNode[] parameterWrites) {
+        return LLVMFunctionFactory.createSelfTailCall(argumentWrites, parameterWrites);
+    }
+
     @Override
     public LLVMTerminatorNode createNonVoidRet(LLVMExpressionNode retValue, ResolvedType resolvedType) {
         return LLVMFunctionFactory.createNonVoidRet(runtime, retValue, resolvedType);
@@ -302,6 +307,16 @@ public class NodeFactoryFacadeImpl implements NodeFactoryFacade {
         }
     }
 
+    @Override
+    public LLVMExpressionNode createStaticAlloc(FrameSlot frameBaseSlot, int offset) {
+        return LLVMAllocFactory.createStaticAlloc(frameBaseSlot, offset);
+    }
+
+    @Override
+    public LLVMNode createStaticAllocationPrologue(FrameSlot frameBaseSlot, int size, int alignment) {
+        return LLVMAllocFactory.createStaticAllocationPrologue(runtime.getStackPointerSlot(), frameBaseSlot, size, alignment);
+    }
+
     @Override
     public LLVMExpressionNode createInsertValue(LLVMExpressionNode resultAggregate, LLVMExpressionNode sourceAggregate, int size, int offset, LLVMExpressionNode valueToInsert, LLVMBaseType llvmType) {
         return LLVMAggregateFactory.createInsertValue((LLVMAddressNode) resultAggregate, (LLVMAddressNode) sourceAggregate, size, offset, valueToInsert, llvmType);
@@ -339,9 +354,9 @@ public class NodeFactoryFacadeImpl implements NodeFactoryFacade {
     }
 
     @Override
-    public LLVMExpressionNode createFunctionBlockNode(FrameSlot retSlot, List<LLVMNode> allFunctionNodes, LLVMStackFrameNuller[][] beforeSlotNullerNodes,
+    public LLVMExpressionNode createFunctionBlockNode(FrameDescriptor frameDescriptor, FrameSlot retSlot, List<LLVMNode> allFunctionNodes, LLVMStackFrameNuller[][] beforeSlotNullerNodes,
                     LLVMStackFrameNuller[][] afterSlotNullerNodes) {
-        return LLVMBlockFactory.createFunctionBlock(retSlot, allFunctionNodes.toArray(new LLVMBasicBlockNode[allFunctionNodes.size()]), beforeSlotNullerNodes, afterSlotNullerNodes);
+        return LLVMBlockFactory.createFunctionBlock(frameDescriptor, retSlot, allFunctionNodes.toArray(new LLVMBasicBlockNode[allFunctionNodes.size()]), beforeSlotNullerNodes, afterSlotNullerNodes);
     }
 
     @Override
@@ -33,8 +33,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -149,6 +151,9 @@ import com.oracle.truffle.llvm.parser.instructions.LLVMConversionType;
 import com.oracle.truffle.llvm.parser.instructions.LLVMFloatComparisonType;
 import com.oracle.truffle.llvm.parser.instructions.LLVMIntegerComparisonType;
 import com.oracle.truffle.llvm.parser.instructions.LLVMLogicalInstructionType;
+import com.oracle.truffle.llvm.parser.util.LLVMParallelMoves;
+import com.oracle.truffle.llvm.parser.util.LLVMParallelMoves.Step;
+import com.oracle.truffle.llvm.parser.util.LLVMStaticAllocationLayout;
 import com.oracle.truffle.llvm.parser.util.LLVMTypeHelper;
 import com.oracle.truffle.llvm.runtime.LLVMLogger;
 import com.oracle.truffle.llvm.runtime.LLVMOptimizationConfiguration;
@@ -171,6 +176,8 @@ public final class LLVMVisitor implements LLVMParserRuntime {
 
     private static final String FUNCTION_RETURN_VALUE_FRAME_SLOT_ID = "<function return value>";
     private static final String STACK_ADDRESS_FRAME_SLOT_ID = "<stack pointer>";
+    private static final String STATIC_ALLOCATION_FRAME_SLOT_ID = "<static allocation base>";
+    private static final String SELF_TAIL_CALL_ARGUMENT_FRAME_SLOT_ID = "<tail call argument>";
 
     private static final TypeResolver typeResolver = new TypeResolver();
     private FrameDescriptor frameDescriptor;
@@ -181,11 +188,18 @@ public final class LLVMVisitor implements LLVMParserRuntime {
     private Map<String, Integer> labelList;
     private FrameSlot retSlot;
     private FrameSlot stackPointerSlot;
+    private FrameSlot staticAllocationSlot;
+    private LLVMStaticAllocationLayout staticAllocationLayout;
+    private boolean isEntryBlock;
+    private Set<BasicBlock> selfTailCallBlocks;
     private FunctionDef containingFunctionDef;
     private NodeFactoryFacade factoryFacade;
     private final LLVMOptimizationConfiguration optimizationConfiguration;
 
     private Map<BasicBlock, List<Phi>> phiRefs;
+    private int phiMoves;
+    private int eliminatedPhiMoves;
+    private int phiTemporaries;
 
     private NativeLookup nativeLookup;
 
@@ -364,7 +378,7 @@ public final class LLVMVisitor implements LLVMParserRuntime {
 
     private List<LLVMNode> addGlobalVars(LLVMVisitor visitor, List<GlobalVariable> globalVariables) {
         frameDescriptor = globalFrameDescriptor = new FrameDescriptor();
-        stackPointerSlot = frameDescriptor.addFrameSlot(STACK_ADDRESS_FRAME_SLOT_ID, FrameSlotKind.Object);
+        stackPointerSlot = frameDescriptor.addFrameSlot(STACK_ADDRESS_FRAME_SLOT_ID, FrameSlotKind.Long);
         List<LLVMNode> globalVarNodes = new ArrayList<>();
         for (GlobalVariable globalVar : globalVariables) {
             LLVMNode globalVarWrite = visitor.visitGlobalVariable(globalVar);
@@ -486,13 +500,25 @@ public final class LLVMVisitor implements LLVMParserRuntime {
         if (!resolve(def.getHeader().getRettype()).isVoid()) {
             retSlot = frameDescriptor.addFrameSlot(FUNCTION_RETURN_VALUE_FRAME_SLOT_ID);
         }
-        stackPointerSlot = frameDescriptor.addFrameSlot(STACK_ADDRESS_FRAME_SLOT_ID, FrameSlotKind.Object);
+        stackPointerSlot = frameDescriptor.addFrameSlot(STACK_ADDRESS_FRAME_SLOT_ID, FrameSlotKind.Long);
+        staticAllocationSlot = null;
+        staticAllocationLayout = new LLVMStaticAllocationLayout();
         functionEpilogue = new ArrayList<>();
+        selfTailCallBlocks = new HashSet<>();
+        phiMoves = 0;
+        eliminatedPhiMoves = 0;
+        phiTemporaries = 0;
         LLVMAttributeVisitor.visitFunctionHeader(def.getHeader());
         labelList = getBlockLabelIndexMapping(def);
         List<LLVMNode> formalParameters = getFormalParametersInit(def);
         LLVMExpressionNode block = getFunctionBlockStatements(def);
+        if (!staticAllocationLayout.isEmpty()) {
+            formalParameters.add(factoryFacade.createStaticAllocationPrologue(staticAllocationSlot, staticAllocationLayout.getSize(), staticAllocationLayout.getAlignment()));
+        }
         String functionName = def.getHeader().getName();
+        if (LLVMBaseOptionFacade.printPhiStats()) {
+            System.out.println(functionName + ": " + eliminatedPhiMoves + " of " + phiMoves + " phi moves eliminated, " + phiTemporaries + " temporaries");
+        }
         LLVMNode[] beforeFunction = formalParameters.toArray(new LLVMNode[formalParameters.size()]);
         LLVMNode[] afterFunction = functionEpilogue.toArray(new LLVMNode[functionEpilogue.size()]);
         RootNode rootNode = factoryFacade.createFunctionStartNode(block, beforeFunction, afterFunction, sourceFile.createSection(functionName, 1), frameDescriptor, functionName);
@@ -511,11 +537,13 @@ public final class LLVMVisitor implements LLVMParserRuntime {
         int[] basicBlockIndices = new int[def.getBasicBlocks().size()];
         int i = 0;
         for (BasicBlock basicBlock : def.getBasicBlocks()) {
+            isEntryBlock = i == 0;
             LLVMNode statementNodes = visitBasicBlock(basicBlock);
             basicBlockIndices[i++] = currentIndex;
             currentIndex++;
             allFunctionNodes.add(statementNodes);
         }
+        isEntryBlock = false;
 
         Map<BasicBlock, FrameSlot[]> deadSlotsAtBeginBlock;
         Map<BasicBlock, FrameSlot[]> deadSlotsAfterBlock;
@@ -527,9 +555,13 @@ public final class LLVMVisitor implements LLVMParserRuntime {
             deadSlotsAfterBlock = new HashMap<>();
             deadSlotsAtBeginBlock = new HashMap<>();
         }
+        for (BasicBlock selfTailCallBlock : selfTailCallBlocks) {
+            // the parameter slots written by the self tail call are live again in the entry block
+            deadSlotsAfterBlock.replace(selfTailCallBlock, new FrameSlot[0]);
+        }
         LLVMStackFrameNuller[][] slotNullerBeginNodes = getSlotNuller(def, currentIndex, basicBlockIndices, deadSlotsAtBeginBlock);
         LLVMStackFrameNuller[][] slotNullerAfterNodes = getSlotNuller(def, currentIndex, basicBlockIndices, deadSlotsAfterBlock);
-        return factoryFacade.createFunctionBlockNode(retSlot, allFunctionNodes, slotNullerBeginNodes, slotNullerAfterNodes);
+        return factoryFacade.createFunctionBlockNode(frameDescriptor, retSlot, allFunctionNodes, slotNullerBeginNodes, slotNullerAfterNodes);
     }
 
     private static LLVMStackFrameNuller[][] getSlotNuller(FunctionDef def, int size, int[] basicBlockIndices, Map<BasicBlock, FrameSlot[]> deadSlotsAfterBlock) {
@@ -636,13 +668,23 @@ public final class LLVMVisitor implements LLVMParserRuntime {
 
     private LLVMNode visitBasicBlock(BasicBlock basicBlock) {
         currentBasicBlock = basicBlock;
+        List<Instruction> instructions = basicBlock.getInstructions();
+        Instruction_call_nonVoid selfTailCall = getSelfTailCall(basicBlock);
+        if (selfTailCall != null) {
+            // the call and the subsequent ret are replaced by a single terminator
+            instructions = instructions.subList(0, instructions.size() - 2);
+        }
         List<LLVMNode> statements = new ArrayList<>(basicBlock.getInstructions().size());
-        for (Instruction instr : basicBlock.getInstructions()) {
+        for (Instruction instr : instructions) {
             List<LLVMNode> instrInstructions = visitInstruction(instr);
             for (LLVMNode instruction : instrInstructions) {
                 statements.add(instruction);
             }
         }
+        if (selfTailCall != null) {
+            statements.add(visitSelfTailCall(selfTailCall));
+            selfTailCallBlocks.add(basicBlock);
+        }
         LLVMNode[] statementNodes = new LLVMNode[statements.size() - 1];
         System.arraycopy(statements.toArray(new LLVMNode[statementNodes.length]), 0, statementNodes, 0, statementNodes.length);
         LLVMParserAsserts.assertNoNullElement(statementNodes);
@@ -652,6 +694,75 @@ public final class LLVMVisitor implements LLVMParserRuntime {
         return basicBlockNode;
     }
 
+    /**
+     * Returns the call if the basic block ends with a <code>tail</code> call of the enclosing
+     * function whose result is immediately returned, and <code>null</code> otherwise.
+     */
+    private Instruction_call_nonVoid getSelfTailCall(BasicBlock basicBlock) {
+        EList<Instruction> instructions = basicBlock.getInstructions();
+        FunctionHeader header = containingFunctionDef.getHeader();
+        if (!LLVMBaseOptionFacade.eliminateSelfTailCalls() || instructions.size() < 2 || header.getParameters().getVararg() != null || resolve(header.getRettype()).isStruct()) {
+            return null;
+        }
+        Instruction last = instructions.get(instructions.size() - 1);
+        Instruction secondLast = instructions.get(instructions.size() - 2);
+        if (!(last instanceof TerminatorInstruction) || !(((TerminatorInstruction) last).getInstruction() instanceof Instruction_ret) || !(secondLast instanceof MiddleInstruction)) {
+            return null;
+        }
+        TypedValue retValue = ((Instruction_ret) ((TerminatorInstruction) last).getInstruction()).getVal();
+        EObject instr = ((MiddleInstruction) secondLast).getInstruction();
+        Instruction_call_nonVoid call;
+        if (instr instanceof Instruction_call_nonVoid && retValue == null) {
+            call = (Instruction_call_nonVoid) instr;
+        } else if (instr instanceof NamedMiddleInstruction && ((NamedMiddleInstruction) instr).getInstruction() instanceof Instruction_call_nonVoid && retValue != null &&
+                        retValue.getRef() instanceof LocalValueRef && ((LocalValueRef) retValue.getRef()).getRef() == instr) {
+            call = (Instruction_call_nonVoid) ((NamedMiddleInstruction) instr).getInstruction();
+        } else {
+            return null;
+        }
+        if (!call.isIsTail() || !(call.getCallee() instanceof GlobalValueRef)) {
+            return null;
+        }
+        EObject callee = ((GlobalValueRef) call.getCallee()).getConstant().getRef();
+        if (!(callee instanceof FunctionHeader) || !header.getName().equals(((FunctionHeader) callee).getName())) {
+            return null;
+        }
+        if (call.getArgs().getArguments().size() != header.getParameters().getParameters().size()) {
+            return null;
+        }
+        return call;
+    }
+
+    private LLVMNode visitSelfTailCall(Instruction_call_nonVoid call) {
+        EList<Parameter> pars = containingFunctionDef.getHeader().getParameters().getParameters();
+        EList<Argument> args = call.getArgs().getArguments();
+        List<LLVMNode> argumentWrites = new ArrayList<>(args.size());
+        List<LLVMNode> parameterWrites = new ArrayList<>(args.size());
+        if (call.eContainer() instanceof NamedMiddleInstruction) {
+            // the result and return slots are never written here but still known to the lifetime
+            // analysis
+            findOrAddFrameSlot(((NamedMiddleInstruction) call.eContainer()).getName(), call);
+            retSlot.setKind(factoryFacade.getFrameSlotKind(resolve(call)));
+        }
+        for (int i = 0; i < args.size(); i++) {
+            Argument arg = args.get(i);
+            Parameter par = pars.get(i);
+            Type type = par.getType().getType();
+            LLVMExpressionNode argNode = visitValueRef(arg.getRef(), arg.getType().getType());
+            if (args.size() == 1) {
+                // a single parameter cannot be read by the other arguments
+                parameterWrites.add(createAssignment(par.getName(), argNode, type));
+            } else {
+                String argumentSlotName = SELF_TAIL_CALL_ARGUMENT_FRAME_SLOT_ID + par.getName();
+                argumentWrites.add(createAssignment(argumentSlotName, argNode, type));
+                parameterWrites.add(createAssignment(par.getName(), getReadNode(argumentSlotName, type), type));
+            }
+        }
+        LLVMNode[] argumentWritesArr = argumentWrites.toArray(new LLVMNode[argumentWrites.size()]);
+        LLVMNode[] parameterWritesArr = parameterWrites.toArray(new LLVMNode[parameterWrites.size()]);
+        return factoryFacade.createSelfTailCall(argumentWritesArr, parameterWritesArr);
+    }
+
     private List<LLVMNode> visitInstruction(Instruction instr) {
         if (instr instanceof TerminatorInstruction) {
             List<LLVMNode> statements = new ArrayList<>();
@@ -988,7 +1099,7 @@ public final class LLVMVisitor implements LLVMParserRuntime {
         int byteSize = LLVMTypeHelper.getByteSize(resolvedInstructionType);
         LLVMExpressionNode alloc;
         if (numElementsVal == null) {
-            alloc = factoryFacade.createAlloc(resolvedInstructionType, byteSize, alignment, null, null);
+            alloc = createConstantSizeAlloc(resolvedInstructionType, byteSize, alignment);
         } else {
             Type numElementsType = instr.getNumElements().getType();
             LLVMBaseType llvmType = getLLVMType(numElementsType).getType();
@@ -1436,24 +1547,18 @@ public final class LLVMVisitor implements LLVMParserRuntime {
             int trueIndex = getIndexFromBasicBlock(trueBasicBlock);
             BasicBlock falseBasicBlock = brInstruction.getFalse().getRef();
             int falseIndex = getIndexFromBasicBlock(falseBasicBlock);
-            List<LLVMNode> trueConditionPhiWriteNodes = new ArrayList<>();
-            List<LLVMNode> falseConditionPhiWriteNodes = new ArrayList<>();
-            if (!phiRefs.get(currentBasicBlock).isEmpty()) {
-                List<Phi> phiValues = phiRefs.get(currentBasicBlock);
-                for (Phi phi : phiValues) {
-                    FrameSlot phiSlot = frameDescriptor.findOrAddFrameSlot(phi.getAssignTo());
-                    LLVMExpressionNode phiValueNode = visitValueRef(phi.getValueRef(), phi.getType());
-                    boolean isTrueCondition = brInstruction.getTrue().getRef() == phi.getStartingInstr().eContainer();
-                    LLVMNode phiWriteNode = getWriteNode(phiValueNode, phiSlot, phi.getType());
-                    if (isTrueCondition) {
-                        trueConditionPhiWriteNodes.add(phiWriteNode);
-                    } else {
-                        falseConditionPhiWriteNodes.add(phiWriteNode);
-                    }
+            List<Phi> truePhis = new ArrayList<>();
+            List<Phi> falsePhis = new ArrayList<>();
+            for (Phi phi : phiRefs.get(currentBasicBlock)) {
+                boolean isTrueCondition = brInstruction.getTrue().getRef() == phi.getStartingInstr().eContainer();
+                if (isTrueCondition) {
+                    truePhis.add(phi);
+                } else {
+                    falsePhis.add(phi);
                 }
             }
-            LLVMNode[] truePhiWriteNodesArr = trueConditionPhiWriteNodes.toArray(new LLVMNode[trueConditionPhiWriteNodes.size()]);
-            LLVMNode[] falsePhiWriteNodesArr = falseConditionPhiWriteNodes.toArray(new LLVMNode[falseConditionPhiWriteNodes.size()]);
+            LLVMNode[] truePhiWriteNodesArr = getPhiWriteNodes(truePhis);
+            LLVMNode[] falsePhiWriteNodesArr = getPhiWriteNodes(falsePhis);
             return factoryFacade.createConditionalBranch(trueIndex, falseIndex, conditionNode, truePhiWriteNodesArr, falsePhiWriteNodesArr);
         } else {
             LLVMNode[] unconditionalPhiWriteNodeArr = getUnconditionalPhiWriteNodes();
@@ -1464,18 +1569,51 @@ public final class LLVMVisitor implements LLVMParserRuntime {
     }
 
     private LLVMNode[] getUnconditionalPhiWriteNodes() {
-        List<LLVMNode> unconditionalPhiWriteNode = new ArrayList<>();
-        if (!phiRefs.get(currentBasicBlock).isEmpty()) {
-            List<Phi> phiValues = phiRefs.get(currentBasicBlock);
-            for (Phi phi : phiValues) {
-                FrameSlot phiSlot = frameDescriptor.findOrAddFrameSlot(phi.getAssignTo());
-                LLVMExpressionNode phiValueNode = visitValueRef(phi.getValueRef(), phi.getType());
-                LLVMNode phiWriteNode = getWriteNode(phiValueNode, phiSlot, phi.getType());
-                unconditionalPhiWriteNode.add(phiWriteNode);
+        return getPhiWriteNodes(phiRefs.get(currentBasicBlock));
+    }
+
+    /**
+     * Creates the writes of the phis of one control flow edge. All phis of an edge read their values
+     * before any of them is written, so the writes are ordered as a parallel copy (see
+     * {@link LLVMParallelMoves}).
+     */
+    private LLVMNode[] getPhiWriteNodes(List<Phi> phis) {
+        FrameSlot[] destinations = new FrameSlot[phis.size()];
+        FrameSlot[] sources = new FrameSlot[phis.size()];
+        for (int i = 0; i < destinations.length; i++) {
+            Phi phi = phis.get(i);
+            destinations[i] = frameDescriptor.findOrAddFrameSlot(phi.getAssignTo());
+            if (phi.getValueRef() instanceof LocalValueRef) {
+                sources[i] = frameDescriptor.findOrAddFrameSlot(((LocalValueRef) phi.getValueRef()).getRef().getName());
+            }
+        }
+        LLVMParallelMoves<FrameSlot> moves = LLVMParallelMoves.sequentialize(destinations, sources);
+        phiMoves += destinations.length;
+        eliminatedPhiMoves += moves.getEliminatedMoves();
+        phiTemporaries += moves.getTemporaries();
+
+        List<LLVMNode> phiWriteNodes = new ArrayList<>();
+        for (Step<FrameSlot> step : moves.getSteps()) {
+            if (step.isSave()) {
+                FrameSlot slot = step.getLocation();
+                Type type = phis.get(Arrays.asList(destinations).indexOf(slot)).getType();
+                phiWriteNodes.add(getWriteNode(getReadNodeForSlot(slot, type), getPhiTemporarySlot(slot), type));
+            } else {
+                Phi phi = phis.get(step.getMove());
+                LLVMExpressionNode phiValueNode;
+                if (step.getLocation() == null) {
+                    phiValueNode = visitValueRef(phi.getValueRef(), phi.getType());
+                } else {
+                    phiValueNode = getReadNodeForSlot(getPhiTemporarySlot(step.getLocation()), phi.getType());
+                }
+                phiWriteNodes.add(getWriteNode(phiValueNode, destinations[step.getMove()], phi.getType()));
             }
         }
-        LLVMNode[] unconditionalPhiWriteNodeArr = unconditionalPhiWriteNode.toArray(new LLVMNode[unconditionalPhiWriteNode.size()]);
-        return unconditionalPhiWriteNodeArr;
+        return phiWriteNodes.toArray(new LLVMNode[phiWriteNodes.size()]);
+    }
+
+    private FrameSlot getPhiTemporarySlot(FrameSlot slot) {
+        return frameDescriptor.findOrAddFrameSlot("<phi temporary " + slot.getIdentifier() + ">");
     }
 
     private int getIndexFromBasicBlock(BasicBlock trueBasicBlock) {
@@ -1522,7 +1660,22 @@ public final class LLVMVisitor implements LLVMParserRuntime {
 
     @Override
     public LLVMExpressionNode allocateFunctionLifetime(ResolvedType type, int size, int alignment) {
-        return factoryFacade.createAlloc(type, size, alignment, null, null);
+        return createConstantSizeAlloc(type, size, alignment);
+    }
+
+    /**
+     * Allocations in the entry block are executed exactly once per call and are therefore
+     * coalesced into a single allocation in the function prologue.
+     */
+    private LLVMExpressionNode createConstantSizeAlloc(ResolvedType type, int byteSize, int alignment) {
+        if (isGlobalScope || !isEntryBlock) {
+            return factoryFacade.createAlloc(type, byteSize, alignment, null, null);
+        }
+        if (staticAllocationSlot == null) {
+            staticAllocationSlot = frameDescriptor.addFrameSlot(STATIC_ALLOCATION_FRAME_SLOT_ID, FrameSlotKind.Long);
+        }
+        int offset = staticAllocationLayout.allocate(byteSize, alignment);
+        return factoryFacade.createStaticAlloc(staticAllocationSlot, offset);
     }
 
     @Override
@@ -104,6 +104,16 @@ public interface NodeFactoryFacade {
 
     LLVMNode createRetVoid();
 
+    /**
+     * Creates a terminator that replaces a <code>tail</code> call of a function to itself and the
+     * subsequent <code>ret</code> by a jump back to the entry block of the function.
+     *
+     * @param argumentWrites nodes that write the evaluated call arguments to temporary slots
+     * @param parameterWrites nodes that copy the temporary slots to the parameter slots
+     * @return the terminator node
+     */
+    LLVMNode createSelfTailCall(LLVMNode[] argumentWrites, LLVMNode[] parameterWrites);
+
     LLVMNode createNonVoidRet(LLVMExpressionNode retValue, ResolvedType resolvedType);
 
     LLVMExpressionNode createFunctionArgNode(int argIndex, LLVMBaseType paramType);
@@ -195,6 +205,27 @@ public interface NodeFactoryFacade {
      */
     LLVMExpressionNode createAlloc(ResolvedType type, int byteSize, int alignment, LLVMBaseType numElementsType, LLVMExpressionNode numElements);
 
+    /**
+     * Creates an <code>alloca</code> node that is part of a coalesced allocation created by
+     * {@link #createStaticAllocationPrologue(FrameSlot, int, int)}.
+     *
+     * @param frameBaseSlot the slot that holds the base address of the coalesced allocation
+     * @param offset the offset of this allocation relative to the base address
+     * @return a node that returns the address of the allocation
+     */
+    LLVMExpressionNode createStaticAlloc(FrameSlot frameBaseSlot, int offset);
+
+    /**
+     * Creates a node that allocates the memory for all coalesced <code>alloca</code>s of a function
+     * and stores its base address in <code>frameBaseSlot</code>.
+     *
+     * @param frameBaseSlot the slot that holds the base address of the coalesced allocation
+     * @param size the total size of the coalesced allocation
+     * @param alignment the maximum alignment of the coalesced allocations
+     * @return a node that performs the allocation
+     */
+    LLVMNode createStaticAllocationPrologue(FrameSlot frameBaseSlot, int size, int alignment);
+
     LLVMExpressionNode createInsertValue(LLVMExpressionNode resultAggregate, LLVMExpressionNode sourceAggregate, int size, int offset, LLVMExpressionNode valueToInsert, LLVMBaseType llvmType);
 
     LLVMExpressionNode createZeroNode(LLVMExpressionNode addressNode, int size);
@@ -246,13 +277,15 @@ public interface NodeFactoryFacade {
      * Creates a node that groups together several basic blocks in a function and returns the
      * function's result.
      *
+     * @param frameDescriptor the frame descriptor of the function
      * @param returnSlot the frame slot for the return value
      * @param basicBlockNodes the basic blocks
      * @param indexToSlotNuller nuller node for nulling dead variables
      * @param slotNullerAfterNodes
      * @return the function block node
      */
-    LLVMExpressionNode createFunctionBlockNode(FrameSlot returnSlot, List<LLVMNode> basicBlockNodes, LLVMStackFrameNuller[][] indexToSlotNuller, LLVMStackFrameNuller[][] slotNullerAfterNodes);
+    LLVMExpressionNode createFunctionBlockNode(FrameDescriptor frameDescriptor, FrameSlot returnSlot, List<LLVMNode> basicBlockNodes, LLVMStackFrameNuller[][] indexToSlotNuller,
+                    LLVMStackFrameNuller[][] slotNullerAfterNodes);
 
     /**
      * Creates the entry point for a function.
@@ -137,6 +137,11 @@ public class NodeFactoryFacadeAdapter implements NodeFactoryFacade {
         return null;
     }
 
+    @Override
+    public LLVMNode createSelfTailCall(LLVMNode[] argumentWrites, LLVMNode[] parameterWrites) {
+        return null;
+    }
+
     @Override
     public LLVMNode createNonVoidRet(LLVMExpressionNode retValue, ResolvedType resolvedType) {
         return null;
@@ -247,6 +252,16 @@ public class NodeFactoryFacadeAdapter implements NodeFactoryFacade {
         return null;
     }
 
+    @Override
+    public LLVMExpressionNode createStaticAlloc(FrameSlot frameBaseSlot, int offset) {
+        return null;
+    }
+
+    @Override
+    public LLVMNode createStaticAllocationPrologue(FrameSlot frameBaseSlot, int size, int alignment) {
+        return null;
+    }
+
     @Override
     public LLVMExpressionNode createInsertValue(LLVMExpressionNode resultAggregate, LLVMExpressionNode sourceAggregate, int size, int offset, LLVMExpressionNode valueToInsert, LLVMBaseType llvmType) {
         return null;
@@ -283,7 +298,7 @@ public class NodeFactoryFacadeAdapter implements NodeFactoryFacade {
     }
 
     @Override
-    public LLVMExpressionNode createFunctionBlockNode(FrameSlot returnSlot, List<LLVMNode> basicBlockNodes, LLVMStackFrameNuller[][] beforeSlotNullerNodes,
+    public LLVMExpressionNode createFunctionBlockNode(FrameDescriptor frameDescriptor, FrameSlot returnSlot, List<LLVMNode> basicBlockNodes, LLVMStackFrameNuller[][] beforeSlotNullerNodes,
                     LLVMStackFrameNuller[][] afterSlotNullerNodes) {
         return null;
     }
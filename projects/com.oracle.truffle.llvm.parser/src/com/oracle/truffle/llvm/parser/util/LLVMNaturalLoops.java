@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the natural loops in the control flow graph of a function. The basic blocks are identified
+ * by their index, the first block is the entry block, and negative successor indices (e.g. for
+ * returning from the function) are ignored.
+ *
+ * A natural loop is formed by the back edges to a header block that dominates the sources of these
+ * back edges, so a natural loop can only be entered through its header. Natural loops are either
+ * disjoint or nested. Irreducible control flow does not form a natural loop.
+ */
+public final class LLVMNaturalLoops {
+
+    public static final class LLVMNaturalLoop {
+
+        private final int header;
+        private final BitSet blocks;
+        private final List<LLVMNaturalLoop> nestedLoops = new ArrayList<>();
+
+        private LLVMNaturalLoop(int header, BitSet blocks) {
+            this.header = header;
+            this.blocks = blocks;
+        }
+
+        public int getHeader() {
+            return header;
+        }
+
+        /**
+         * Returns the blocks of the loop, including the header and the blocks of nested loops.
+         */
+        public BitSet getBlocks() {
+            return blocks;
+        }
+
+        public List<LLVMNaturalLoop> getNestedLoops() {
+            return Collections.unmodifiableList(nestedLoops);
+        }
+
+    }
+
+    private static final int UNREACHABLE = -1;
+
+    private final int[][] successors;
+    private final int[][] predecessors;
+    private final int[] reversePostOrder;
+    private final int[] reversePostOrderNumber;
+    private final int[] immediateDominators;
+    private final List<LLVMNaturalLoop> outermostLoops = new ArrayList<>();
+
+    private LLVMNaturalLoops(int[][] successors) {
+        this.successors = successors;
+        this.predecessors = computePredecessors(successors);
+        this.reversePostOrderNumber = new int[successors.length];
+        this.reversePostOrder = computeReversePostOrder();
+        this.immediateDominators = computeImmediateDominators();
+    }
+
+    /**
+     * Finds the natural loops of a control flow graph.
+     *
+     * @param successors the successor indices of each block
+     */
+    public static LLVMNaturalLoops compute(int[][] successors) {
+        LLVMNaturalLoops loops = new LLVMNaturalLoops(successors);
+        loops.findLoops();
+        return loops;
+    }
+
+    /**
+     * Returns the loops that are not nested in other loops.
+     */
+    public List<LLVMNaturalLoop> getOutermostLoops() {
+        return Collections.unmodifiableList(outermostLoops);
+    }
+
+    private boolean isBlock(int block) {
+        return block >= 0 && block < successors.length;
+    }
+
+    private static int[][] computePredecessors(int[][] successors) {
+        List<List<Integer>> predecessorLists = new ArrayList<>();
+        for (int i = 0; i < successors.length; i++) {
+            predecessorLists.add(new ArrayList<>());
+        }
+        for (int block = 0; block < successors.length; block++) {
+            for (int successor : successors[block]) {
+                if (successor >= 0 && successor < successors.length) {
+                    predecessorLists.get(successor).add(block);
+                }
+            }
+        }
+        int[][] predecessors = new int[successors.length][];
+        for (int i = 0; i < successors.length; i++) {
+            predecessors[i] = predecessorLists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return predecessors;
+    }
+
+    private int[] computeReversePostOrder() {
+        Arrays.fill(reversePostOrderNumber, UNREACHABLE);
+        if (successors.length == 0) {
+            return new int[0];
+        }
+        boolean[] visited = new boolean[successors.length];
+        List<Integer> postOrder = new ArrayList<>();
+        // the stack holds the block and the index of its next successor to visit
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[]{0, 0});
+        visited[0] = true;
+        while (!stack.isEmpty()) {
+            int[] top = stack.peek();
+            int[] blockSuccessors = successors[top[0]];
+            if (top[1] < blockSuccessors.length) {
+                int successor = blockSuccessors[top[1]++];
+                if (isBlock(successor) && !visited[successor]) {
+                    visited[successor] = true;
+                    stack.push(new int[]{successor, 0});
+                }
+            } else {
+                postOrder.add(stack.pop()[0]);
+            }
+        }
+        int[] order = new int[postOrder.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = postOrder.get(order.length - 1 - i);
+            reversePostOrderNumber[order[i]] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Computes the dominator tree with the algorithm of Cooper, Harvey and Kennedy ("A Simple, Fast
+     * Dominance Algorithm").
+     */
+    private int[] computeImmediateDominators() {
+        int[] dominators = new int[successors.length];
+        Arrays.fill(dominators, UNREACHABLE);
+        if (reversePostOrder.length == 0) {
+            return dominators;
+        }
+        dominators[0] = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1; i < reversePostOrder.length; i++) {
+                int block = reversePostOrder[i];
+                int newDominator = UNREACHABLE;
+                for (int predecessor : predecessors[block]) {
+                    if (dominators[predecessor] != UNREACHABLE) {
+                        newDominator = newDominator == UNREACHABLE ? predecessor : intersect(dominators, predecessor, newDominator);
+                    }
+                }
+                if (dominators[block] != newDominator) {
+                    dominators[block] = newDominator;
+                    changed = true;
+                }
+            }
+        }
+        return dominators;
+    }
+
+    private int intersect(int[] dominators, int first, int second) {
+        int finger1 = first;
+        int finger2 = second;
+        while (finger1 != finger2) {
+            while (reversePostOrderNumber[finger1] > reversePostOrderNumber[finger2]) {
+                finger1 = dominators[finger1];
+            }
+            while (reversePostOrderNumber[finger2] > reversePostOrderNumber[finger1]) {
+                finger2 = dominators[finger2];
+            }
+        }
+        return finger1;
+    }
+
+    private boolean dominates(int dominator, int block) {
+        int current = block;
+        while (current != dominator) {
+            if (current == 0) {
+                return false;
+            }
+            current = immediateDominators[current];
+        }
+        return true;
+    }
+
+    private void findLoops() {
+        Map<Integer, BitSet> loopBlocks = new LinkedHashMap<>();
+        for (int source : reversePostOrder) {
+            for (int header : successors[source]) {
+                if (isBlock(header) && dominates(header, source)) {
+                    BitSet blocks = loopBlocks.get(header);
+                    if (blocks == null) {
+                        blocks = new BitSet(successors.length);
+                        blocks.set(header);
+                        loopBlocks.put(header, blocks);
+                    }
+                    addBackEdge(blocks, source);
+                }
+            }
+        }
+        List<LLVMNaturalLoop> loops = new ArrayList<>();
+        for (Map.Entry<Integer, BitSet> entry : loopBlocks.entrySet()) {
+            loops.add(new LLVMNaturalLoop(entry.getKey(), entry.getValue()));
+        }
+        // enclosing loops have more blocks than the loops nested in them
+        loops.sort((a, b) -> Integer.compare(b.getBlocks().cardinality(), a.getBlocks().cardinality()));
+        for (LLVMNaturalLoop loop : loops) {
+            List<LLVMNaturalLoop> siblings = outermostLoops;
+            LLVMNaturalLoop parent = findEnclosingLoop(siblings, loop.getHeader());
+            while (parent != null) {
+                siblings = parent.nestedLoops;
+                parent = findEnclosingLoop(siblings, loop.getHeader());
+            }
+            siblings.add(loop);
+        }
+    }
+
+    /**
+     * Adds the blocks from which the source of a back edge can be reached without passing through
+     * the header.
+     */
+    private void addBackEdge(BitSet blocks, int source) {
+        Deque<Integer> worklist = new ArrayDeque<>();
+        worklist.push(source);
+        while (!worklist.isEmpty()) {
+            int block = worklist.pop();
+            if (!blocks.get(block)) {
+                blocks.set(block);
+                for (int predecessor : predecessors[block]) {
+                    if (reversePostOrderNumber[predecessor] != UNREACHABLE) {
+                        worklist.push(predecessor);
+                    }
+                }
+            }
+        }
+    }
+
+    private static LLVMNaturalLoop findEnclosingLoop(List<LLVMNaturalLoop> loops, int header) {
+        for (LLVMNaturalLoop loop : loops) {
+            if (loop.getBlocks().get(header)) {
+                return loop;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sequentializes a parallel copy, such as the phi writes on a control flow edge, where all moves
+ * read their sources before any destination is written. A move whose source is its own destination
+ * is eliminated. The other moves are ordered so that a destination is only written after all moves
+ * reading it are done, and a destination is only saved to a temporary if it is part of a cycle of
+ * moves that cannot be ordered otherwise.
+ */
+public final class LLVMParallelMoves<T> {
+
+    public static final class Step<T> {
+
+        private final int move;
+        private final T saved;
+
+        private Step(int move, T saved) {
+            this.move = move;
+            this.saved = saved;
+        }
+
+        /**
+         * Returns whether this step copies the location returned by {@link #getLocation()} to its
+         * temporary before it is overwritten.
+         */
+        public boolean isSave() {
+            return move < 0;
+        }
+
+        /**
+         * Returns the index of the move that writes its destination in this step.
+         */
+        public int getMove() {
+            return move;
+        }
+
+        /**
+         * Returns the location that is saved in this step, or the location whose temporary the move
+         * of this step reads instead of its original source (<code>null</code> if the source is
+         * read directly).
+         */
+        public T getLocation() {
+            return saved;
+        }
+
+    }
+
+    private final List<Step<T>> steps;
+    private final int eliminatedMoves;
+    private final int temporaries;
+
+    private LLVMParallelMoves(List<Step<T>> steps, int eliminatedMoves, int temporaries) {
+        this.steps = steps;
+        this.eliminatedMoves = eliminatedMoves;
+        this.temporaries = temporaries;
+    }
+
+    public List<Step<T>> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    public int getEliminatedMoves() {
+        return eliminatedMoves;
+    }
+
+    public int getTemporaries() {
+        return temporaries;
+    }
+
+    /**
+     * Orders the moves <code>destinations[i] := sources[i]</code>. A source is <code>null</code> if
+     * the value of the move is not read from one of the locations, e.g. for a constant.
+     */
+    public static <T> LLVMParallelMoves<T> sequentialize(T[] destinations, T[] sources) {
+        assert destinations.length == sources.length;
+        int count = destinations.length;
+        List<Step<T>> steps = new ArrayList<>(count);
+        boolean[] pending = new boolean[count];
+        boolean[] fromTemporary = new boolean[count];
+        int remaining = 0;
+        int eliminatedMoves = 0;
+        for (int i = 0; i < count; i++) {
+            if (sources[i] != null && sources[i].equals(destinations[i])) {
+                eliminatedMoves++;
+            } else {
+                pending[i] = true;
+                remaining++;
+            }
+        }
+        int temporaries = 0;
+        while (remaining > 0) {
+            boolean progress = false;
+            for (int i = 0; i < count; i++) {
+                if (pending[i] && !isRead(destinations[i], sources, pending, fromTemporary)) {
+                    steps.add(new Step<>(i, fromTemporary[i] ? sources[i] : null));
+                    pending[i] = false;
+                    remaining--;
+                    progress = true;
+                }
+            }
+            if (!progress) {
+                // only cycles are left: saving one destination breaks its cycle
+                int i = 0;
+                while (!pending[i]) {
+                    i++;
+                }
+                T location = destinations[i];
+                steps.add(new Step<>(-1, location));
+                temporaries++;
+                for (int j = 0; j < count; j++) {
+                    if (pending[j] && !fromTemporary[j] && location.equals(sources[j])) {
+                        fromTemporary[j] = true;
+                    }
+                }
+            }
+        }
+        return new LLVMParallelMoves<>(steps, eliminatedMoves, temporaries);
+    }
+
+    private static <T> boolean isRead(T location, T[] sources, boolean[] pending, boolean[] fromTemporary) {
+        for (int j = 0; j < sources.length; j++) {
+            if (pending[j] && !fromTemporary[j] && location.equals(sources[j])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
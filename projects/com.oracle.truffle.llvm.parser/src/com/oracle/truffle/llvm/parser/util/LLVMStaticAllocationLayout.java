@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.util;
+
+import com.oracle.truffle.llvm.types.memory.LLVMStack;
+
+/**
+ * Computes the layout of a coalesced allocation, such as the one for the constant size
+ * <code>alloca</code>s in the entry block of a function or the data segment for the global
+ * variables of a module.
+ */
+public final class LLVMStaticAllocationLayout {
+
+    private int allocationCount;
+    private int size;
+    private int alignment = LLVMStack.NO_ALIGNMENT_REQUIREMENTS;
+
+    /**
+     * Reserves memory in the coalesced allocation.
+     *
+     * @param byteSize the size of the allocation
+     * @param byteAlignment the alignment of the allocation, a power of two
+     * @return the offset of the allocation relative to the base of the coalesced allocation
+     */
+    public int allocate(int byteSize, int byteAlignment) {
+        int offset = (size + byteAlignment - 1) & -byteAlignment;
+        size = offset + byteSize;
+        alignment = Math.max(alignment, byteAlignment);
+        allocationCount++;
+        return offset;
+    }
+
+    public boolean isEmpty() {
+        return allocationCount == 0;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getAlignment() {
+        return alignment;
+    }
+
+}
@@ -39,6 +39,11 @@ public final class LLVMUnsupportedException extends RuntimeException {
          * We cannot let Truffle LLVM function pointeres escape to native functions.
          */
         FUNCTION_POINTER_ESCAPES_TO_NATIVE,
+        /**
+         * Native function pointers passed to substituted C functions that call them back (e.g.
+         * the comparator of qsort).
+         */
+        NATIVE_CALLBACK,
         /**
          * Inline assembler calls.
          */
@@ -63,7 +63,13 @@ public enum LLVMBaseOption implements LLVMOption {
                     null,
                     LLVMOptions::parseString,
                     PropertyCategory.TESTS),
-    STACK_SIZE_KB("StackSizeKB", "The stack size in KB.", 81920L, LLVMOptions::parseLong, PropertyCategory.GENERAL),
+    STACK_SIZE_KB("StackSizeKB", "The maximum stack size in KB.", 81920L, LLVMOptions::parseLong, PropertyCategory.GENERAL),
+    STACK_SEGMENT_SIZE_KB(
+                    "StackSegmentSizeKB",
+                    "The size in KB of the initial stack segment. Further segments are allocated on demand until StackSizeKB is reached.",
+                    256L,
+                    LLVMOptions::parseLong,
+                    PropertyCategory.GENERAL),
     DYN_LIBRARY_PATHS(
                     "DynamicNativeLibraryPath",
                     "The native library search paths delimited by " + LLVMOptions.getPathDelimiter(),
@@ -87,8 +93,62 @@ public enum LLVMBaseOption implements LLVMOption {
     OPTIMIZATION_VALUE_PROFILE_MEMORY_READS("ValueProfileMemoryReads", "Enable value profiling for memory reads", true, LLVMOptions::parseBoolean, PropertyCategory.PERFORMANCE),
     OPTIMIZATION_VALUE_PROFILE_FUNCTION_ARGS("ValueProfileFunctionArgs", "Enable value profiling for function arguments", true, LLVMOptions::parseBoolean, PropertyCategory.PERFORMANCE),
     OPTIMIZATION_BRANCH_PROBABILITIES("InjectBranchProbabilities", "Injects branch probabilities for the basic block successors", true, LLVMOptions::parseBoolean, PropertyCategory.PERFORMANCE),
+    OPTIMIZATION_INTRINSIFY_CALLBACK_FUNCTIONS(
+                    "IntrinsifyCallbackFunctions",
+                    "Substitute C functions that call back function pointers (e.g. qsort or atexit) by Java equivalents, so that Sulong functions can be passed to them",
+                    true,
+                    LLVMOptions::parseBoolean,
+                    PropertyCategory.PERFORMANCE),
     OPTIMIZATION_INTRINSIFY_C_FUNCTIONS("IntrinsifyCFunctions", "Substitute C functions by Java equivalents where possible", true, LLVMOptions::parseBoolean, PropertyCategory.PERFORMANCE),
+    OPTIMIZATION_SULONG_ALLOCATOR(
+                    "UseSulongAllocator",
+                    "Serves small malloc and free calls from Sulong-managed arenas. Only enable it if no memory allocated by Sulong is reallocated or freed by native code (e.g., buffers passed to getline or setvbuf)",
+                    false,
+                    LLVMOptions::parseBoolean,
+                    PropertyCategory.PERFORMANCE),
+    OPTIMIZATION_NATIVE_MEMORY_OPERATION_THRESHOLD(
+                    "NativeMemoryOperationThreshold",
+                    "Byte size above which memcpy, memmove and memset are delegated to the native C library instead of being performed in Java",
+                    262144L,
+                    LLVMOptions::parseLong,
+                    PropertyCategory.PERFORMANCE),
+    OPTIMIZATION_SELF_TAIL_CALLS(
+                    "EliminateSelfTailCalls",
+                    "Turns tail calls of a function to itself into a jump back to its entry block",
+                    true,
+                    LLVMOptions::parseBoolean,
+                    PropertyCategory.PERFORMANCE),
+    OPTIMIZATION_PRE_RESOLVE_NATIVE_SYMBOLS(
+                    "PreResolveNativeSymbols",
+                    "Resolves the native symbols of all external functions of a module in one batch when the module is loaded",
+                    false,
+                    LLVMOptions::parseBoolean,
+                    PropertyCategory.PERFORMANCE),
+    OPTIMIZATION_SPLITTING_BUDGET(
+                    "SplittingBudget",
+                    "Maximum number of AST nodes that may be copied in total to give hot call sites their own copy of small Sulong functions (0 disables splitting)",
+                    20000,
+                    LLVMOptions::parseInteger,
+                    PropertyCategory.PERFORMANCE),
     OPTIMIZATION_INLINE_CACHE_SIZE("InlineCacheSize", "Specifies the size of the polymorphic inline cache", 5, LLVMOptions::parseInteger, PropertyCategory.PERFORMANCE),
+    OPTIMIZATION_EXTRACT_LOOPS(
+                    "ExtractLoops",
+                    "Executes the natural loops of a function in Truffle loop nodes, so that they can be compiled by on-stack replacement",
+                    true,
+                    LLVMOptions::parseBoolean,
+                    PropertyCategory.PERFORMANCE),
+    OPTIMIZATION_MAX_COMPILATION_UNIT_SIZE(
+                    "MaxCompilationUnitSize",
+                    "Maximum number of AST nodes of the basic blocks of a function or loop that are compiled together; larger ones are split into several call targets (0 disables splitting)",
+                    10000,
+                    LLVMOptions::parseInteger,
+                    PropertyCategory.PERFORMANCE),
+    OPTIMIZATION_FUSE_INSTRUCTIONS(
+                    "FuseInstructions",
+                    "Builds instructions whose value is only used by the next instruction into the node of that instruction, using fused nodes for common idioms",
+                    true,
+                    LLVMOptions::parseBoolean,
+                    PropertyCategory.PERFORMANCE),
     OPTIMIZATION_LIFE_TIME_ANALYSIS(
                     "EnableLifetimeAnalysis",
                     "Performs a lifetime analysis to set dead frame slots to null to assist the PE",
@@ -96,7 +156,10 @@ public enum LLVMBaseOption implements LLVMOption {
                     LLVMOptions::parseBoolean,
                     PropertyCategory.PERFORMANCE),
     NATIVE_CALL_STATS("PrintNativeCallStats", "Outputs stats about native call site frequencies", false, LLVMOptions::parseBoolean, PropertyCategory.DEBUG),
-    LIFE_TIME_ANALYSIS_STATS("PrintLifetimeAnalysisStats", "Outputs the results of the lifetime analysis (if enabled)", false, LLVMOptions::parseBoolean, PropertyCategory.DEBUG);
+    SPLITTING_STATS("PrintSplittingStats", "Outputs how many call sites received their own copy of each Sulong function", false, LLVMOptions::parseBoolean, PropertyCategory.DEBUG),
+    INDIRECT_CALL_STATS("PrintIndirectCallStats", "Outputs stats about the functions called by megamorphic indirect call sites", false, LLVMOptions::parseBoolean, PropertyCategory.DEBUG),
+    LIFE_TIME_ANALYSIS_STATS("PrintLifetimeAnalysisStats", "Outputs the results of the lifetime analysis (if enabled)", false, LLVMOptions::parseBoolean, PropertyCategory.DEBUG),
+    PHI_STATS("PrintPhiStats", "Outputs how many phi moves were eliminated and how many temporaries were needed per function", false, LLVMOptions::parseBoolean, PropertyCategory.DEBUG);
 
     LLVMBaseOption(String key, String description, Object defaultValue, OptionParser parser, PropertyCategory category) {
         this.key = LLVMOptions.getOptionPrefix() + key;
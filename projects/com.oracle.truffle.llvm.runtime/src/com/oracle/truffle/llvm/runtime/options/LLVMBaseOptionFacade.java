@@ -73,6 +73,10 @@ public final class LLVMBaseOptionFacade {
         return !disableSpeculativeOptimizations() && (boolean) LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_VALUE_PROFILE_MEMORY_READS);
     }
 
+    public static boolean intrinsifyCallbackFunctions() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_INTRINSIFY_CALLBACK_FUNCTIONS);
+    }
+
     public static boolean intrinsifyCLibraryFunctions() {
         return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_INTRINSIFY_C_FUNCTIONS);
     }
@@ -81,14 +85,38 @@ public final class LLVMBaseOptionFacade {
         return !disableSpeculativeOptimizations() && (boolean) LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_BRANCH_PROBABILITIES);
     }
 
+    public static boolean eliminateSelfTailCalls() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_SELF_TAIL_CALLS);
+    }
+
+    public static boolean preResolveNativeSymbols() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_PRE_RESOLVE_NATIVE_SYMBOLS);
+    }
+
     public static boolean printNativeCallStats() {
         return LLVMOptions.getParsedProperty(LLVMBaseOption.NATIVE_CALL_STATS);
     }
 
+    public static boolean printIndirectCallStats() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.INDIRECT_CALL_STATS);
+    }
+
     public static boolean disableSpeculativeOptimizations() {
         return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATIONS_DISABLE_SPECULATIVE);
     }
 
+    public static boolean extractLoops() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_EXTRACT_LOOPS);
+    }
+
+    public static int getMaxCompilationUnitSize() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_MAX_COMPILATION_UNIT_SIZE);
+    }
+
+    public static boolean fuseInstructions() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_FUSE_INSTRUCTIONS);
+    }
+
     public static boolean lifeTimeAnalysisEnabled() {
         return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_LIFE_TIME_ANALYSIS);
     }
@@ -97,6 +125,10 @@ public final class LLVMBaseOptionFacade {
         return lifeTimeAnalysisEnabled() && (boolean) LLVMOptions.getParsedProperty(LLVMBaseOption.LIFE_TIME_ANALYSIS_STATS);
     }
 
+    public static boolean printPhiStats() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.PHI_STATS);
+    }
+
     public static boolean launchRemoteTestCasesAsLocal() {
         return LLVMOptions.getParsedProperty(LLVMBaseOption.REMOTE_TEST_CASES_AS_LOCAL);
     }
@@ -109,6 +141,14 @@ public final class LLVMBaseOptionFacade {
         return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_INLINE_CACHE_SIZE);
     }
 
+    public static int getSplittingBudget() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_SPLITTING_BUDGET);
+    }
+
+    public static boolean printSplittingStats() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.SPLITTING_STATS);
+    }
+
     public static int getExecutionCount() {
         return LLVMOptions.getParsedProperty(LLVMBaseOption.EXECUTION_COUNT);
     }
@@ -129,8 +169,20 @@ public final class LLVMBaseOptionFacade {
         return LLVMOptions.getParsedProperty(LLVMBaseOption.PRINT_EXECUTION_TIME);
     }
 
+    public static boolean useSulongAllocator() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_SULONG_ALLOCATOR);
+    }
+
+    public static long getNativeMemoryOperationThreshold() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.OPTIMIZATION_NATIVE_MEMORY_OPERATION_THRESHOLD);
+    }
+
     public static long getStackSizeKB() {
         return LLVMOptions.getParsedProperty(LLVMBaseOption.STACK_SIZE_KB);
     }
 
+    public static long getStackSegmentSizeKB() {
+        return LLVMOptions.getParsedProperty(LLVMBaseOption.STACK_SEGMENT_SIZE_KB);
+    }
+
 }
@@ -0,0 +1,81 @@
+#include <stdlib.h>
+#include <string.h>
+
+struct inner {
+  char c;
+  int values[3];
+};
+
+struct outer {
+  short s;
+  struct inner inner;
+  double d;
+  const char *name;
+};
+
+int numbers[5] = {1, -2, 3, -4, 5};
+long longs[2] = {0x123456789L, -1L};
+float f = 1.25f;
+double doubles[3] = {0.5, -2.0, 1e10};
+char text[] = "hello";
+const char *string = "world";
+char padded[16] = "ab";
+struct outer outer = {7, {'x', {8, 9, 10}}, 3.5, "name"};
+struct inner inners[2] = {{1, {2, 3, 4}}, {5, {6, 7, 8}}};
+
+int mixed[64] = {[0] = 1, [31] = 2, [63] = 3};
+
+int *numberPointer = &numbers[0];
+int *elementPointer = &numbers[3];
+int *fieldPointer = &outer.inner.values[1];
+int *nestedPointer = &inners[1].values[2];
+char *bytePointer = (char *)&numbers[1];
+long *castPointer = (long *)&longs;
+struct inner *innerPointer = &outer.inner;
+
+int add(int a, int b) { return a + b; }
+
+int sub(int a, int b) { return a - b; }
+
+int (*operations[2])(int, int) = {add, sub};
+
+struct {
+  int (*operation)(int, int);
+  int *operand;
+} call = {sub, &numbers[4]};
+
+int main() {
+  int i;
+  if (numbers[1] != -2 || longs[0] != 0x123456789L || longs[1] != -1 || f != 1.25f) {
+    abort();
+  }
+  if (doubles[0] != 0.5 || doubles[1] != -2.0 || doubles[2] != 1e10) {
+    abort();
+  }
+  if (strcmp(text, "hello") != 0 || strcmp(string, "world") != 0 || strcmp(outer.name, "name") != 0) {
+    abort();
+  }
+  for (i = 2; i < 16; i++) {
+    if (padded[i] != 0) {
+      abort();
+    }
+  }
+  for (i = 0; i < 64; i++) {
+    if (mixed[i] != (i == 0 ? 1 : i == 31 ? 2 : i == 63 ? 3 : 0)) {
+      abort();
+    }
+  }
+  if (outer.s != 7 || outer.inner.c != 'x' || outer.inner.values[2] != 10 || outer.d != 3.5) {
+    abort();
+  }
+  if (numberPointer != numbers || elementPointer != numbers + 3 || fieldPointer != &outer.inner.values[1] ||
+      nestedPointer != &inners[1].values[2] || bytePointer != (char *)numbers + sizeof(int) || castPointer != longs ||
+      innerPointer != &outer.inner) {
+    abort();
+  }
+  if (operations[0] != add || operations[1] != sub || call.operation != sub || call.operand != &numbers[4]) {
+    abort();
+  }
+  return *elementPointer + *fieldPointer + *nestedPointer + innerPointer->c + operations[0](numbers[0], numbers[2]) +
+         call.operation(*call.operand, mixed[31]);
+}
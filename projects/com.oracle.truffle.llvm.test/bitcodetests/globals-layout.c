@@ -0,0 +1,60 @@
+#include <stdlib.h>
+
+char c1 = 1;
+short s1 = 2;
+char c2 = 3;
+int i1 = 4;
+char c3 = 5;
+long l1 = 6;
+double d1 = 7.5;
+char bytes[3] = {8, 9, 10};
+int zeros[100];
+char aligned16 __attribute__((aligned(16))) = 11;
+char aligned64 __attribute__((aligned(64))) = 12;
+struct {
+  char c;
+  long l;
+  short s;
+} record = {13, 14, 15};
+int *pointer = &i1;
+
+int counter() {
+  static int count = 100;
+  return count++;
+}
+
+int main() {
+  int i;
+  if ((unsigned long)&s1 % __alignof__(short) != 0 || (unsigned long)&i1 % __alignof__(int) != 0 || (unsigned long)&l1 % __alignof__(long) != 0 ||
+      (unsigned long)&d1 % __alignof__(double) != 0 || (unsigned long)&record % __alignof__(long) != 0) {
+    abort();
+  }
+  if ((unsigned long)&aligned16 % 16 != 0 || (unsigned long)&aligned64 % 64 != 0) {
+    abort();
+  }
+  if (&c1 == &c2 || &c2 == &c3 || (char *)&i1 == &c3 || pointer != &i1) {
+    abort();
+  }
+  for (i = 0; i < 100; i++) {
+    if (zeros[i] != 0) {
+      abort();
+    }
+  }
+  /* writes must not touch the neighboring globals */
+  c1 = -1;
+  c2 = -1;
+  c3 = -1;
+  zeros[0] = -1;
+  zeros[99] = -1;
+  bytes[2] = -1;
+  if (s1 != 2 || i1 != 4 || l1 != 6 || d1 != 7.5 || bytes[0] != 8 || bytes[1] != 9 || aligned16 != 11 || aligned64 != 12) {
+    abort();
+  }
+  if (record.c != 13 || record.l != 14 || record.s != 15) {
+    abort();
+  }
+  *pointer = 40;
+  counter();
+  counter();
+  return i1 + counter() + zeros[1];
+}
@@ -0,0 +1,13 @@
+typedef int (*function)(int);
+
+int apply(function f, int x) { return f(x); }
+
+int applyAll(function *functions, int n, int x) {
+  int sum = 0;
+  for (int i = 0; i < n; i++) {
+    sum += apply(functions[i], x);
+  }
+  return sum;
+}
+
+int main() { return 0; }
@@ -0,0 +1,14 @@
+typedef int (*function)(int);
+
+int applyAll(function *functions, int n, int x);
+
+int inc(int x) { return x + 1; }
+int twice(int x) { return x * 2; }
+int square(int x) { return x * x; }
+int negate(int x) { return -x; }
+int half(int x) { return x / 2; }
+
+int main() {
+  function functions[] = { inc, twice, square, negate, half };
+  return applyAll(functions, 5, 6);
+}
@@ -0,0 +1,6 @@
+int first(int *values, int x) { return values[0] + x; }
+
+int main() {
+  int values[] = { 40, 1 };
+  return first(values, 1);
+}
@@ -0,0 +1,16 @@
+#include <truffle.h>
+
+int getWithOwnArguments(void *obj, int a, int b) {
+  // the arguments of this function must not be passed to the foreign method
+  return truffle_invoke_i(obj, "getValueI") + a - b;
+}
+
+int main() {
+  void *obj = truffle_import("foreign");
+  int sum = 0;
+  int i;
+  for (i = 0; i < 10; i++) {
+    sum += getWithOwnArguments(obj, i, 2 * i) + i;
+  }
+  return sum; // 30
+}
@@ -74,6 +74,9 @@ public final class LLVMPaths {
     // Interop test suites
     public static final String INTEROP_TESTS = LOCAL_TESTS + "/../interoptests";
 
+    // Bitcode parser test cases
+    public static final File BITCODE_TESTS = new File(PROJECT_ROOT, "bitcodetests/");
+
     static {
         TEMP_DIRECTORY.mkdir();
     }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.oracle.truffle.llvm.LLVM;
+import com.oracle.truffle.llvm.tools.Clang;
+import com.oracle.truffle.llvm.tools.LLVMAssembler;
+import com.oracle.truffle.llvm.tools.util.PathUtil;
+
+/**
+ * Compiles the C files in the "bitcodetests" directory, assembles them to LLVM bitcode (with file
+ * extension .bc), and executes them with the bitcode parser. The return value is compared to the
+ * one of the natively compiled program.
+ */
+@RunWith(Parameterized.class)
+public class TestBitcodeParser {
+
+    private static final String BITCODE_EXTENSION = ".bc";
+
+    private final File irFile;
+    private final File bitcodeFile;
+
+    public TestBitcodeParser(File irFile, File bitcodeFile) {
+        this.irFile = irFile;
+        this.bitcodeFile = bitcodeFile;
+    }
+
+    @Parameterized.Parameters
+    public static List<File[]> getTestFiles() {
+        List<File> cFiles = TestHelper.collectFilesWithExtension(LLVMPaths.BITCODE_TESTS, Clang.getSupportedLanguages());
+        return cFiles.parallelStream().map(file -> {
+            File irFile = TestHelper.compileToLLVMIRWithClang(file, TestHelper.getTempLLFile(file, "bitcode")).getBitCodeFile();
+            LLVMAssembler.assembleToBitcodeFile(irFile);
+            return new File[]{irFile, new File(PathUtil.replaceExtension(irFile.getAbsolutePath(), BITCODE_EXTENSION))};
+        }).collect(Collectors.toList());
+    }
+
+    @Test
+    public void test() {
+        int expectedResult = TestHelper.executeLLVMBinary(irFile).getReturnValue();
+        int truffleResult = LLVM.executeMain(bitcodeFile);
+        Assert.assertEquals(bitcodeFile.getAbsolutePath(), expectedResult, truffleResult);
+    }
+
+}
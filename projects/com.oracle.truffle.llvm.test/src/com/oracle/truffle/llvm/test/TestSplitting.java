@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.llvm.LLVM;
+import com.oracle.truffle.llvm.nodes.impl.base.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
+
+/**
+ * Checks the splitting statistics of a program that calls a small and a large function from several
+ * hot call sites. The options are only read once, so this test has to be run once with the
+ * splitting budget enabled and once with <code>-Dsulong.SplittingBudget=0</code>, both times with
+ * <code>-Dsulong.PrintSplittingStats=true</code>.
+ */
+public class TestSplitting {
+
+    private static final File TEST_FILE = new File(LLVMPaths.LOCAL_TESTS, "c/splitting/hot-call-sites.c");
+
+    private static final int EXPECTED_RESULT = 245;
+
+    private static final Pattern SPLIT_FUNCTION = Pattern.compile("^\\s*@?(\\S+): (\\d+) call sites$", Pattern.MULTILINE);
+    private static final Pattern REMAINING_BUDGET = Pattern.compile("^remaining splitting budget: (\\d+) nodes$", Pattern.MULTILINE);
+
+    @Test
+    public void testSplittingStats() {
+        assertTrue("run with -Dsulong.PrintSplittingStats=true", LLVMBaseOptionFacade.printSplittingStats());
+        File bitcodeFile = TestHelper.compileToLLVMIRWithClang(TEST_FILE, TestHelper.getTempLLFile(TEST_FILE, "splitting")).getBitCodeFile();
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int result;
+        try {
+            System.setOut(new PrintStream(output, true));
+            result = LLVM.executeMain(bitcodeFile);
+        } finally {
+            System.setOut(originalOut);
+        }
+        assertEquals(EXPECTED_RESULT, result);
+
+        String stats = output.toString();
+        Map<String, Integer> splitFunctions = new HashMap<>();
+        Matcher splitFunction = SPLIT_FUNCTION.matcher(stats);
+        while (splitFunction.find()) {
+            splitFunctions.put(splitFunction.group(1), Integer.parseInt(splitFunction.group(2)));
+        }
+        Matcher remainingBudgetMatcher = REMAINING_BUDGET.matcher(stats);
+        assertTrue(stats, remainingBudgetMatcher.find());
+        int remainingBudget = Integer.parseInt(remainingBudgetMatcher.group(1));
+
+        int budget = LLVMBaseOptionFacade.getSplittingBudget();
+        if (budget == 0) {
+            assertTrue(splitFunctions.toString(), splitFunctions.isEmpty());
+            assertEquals(0, remainingBudget);
+        } else {
+            // the large function exceeds the size limit for splitting
+            assertFalse(splitFunctions.containsKey("large"));
+            if (isCloningSupported()) {
+                // each of the four call sites gets its own copy of the small function
+                assertEquals(Integer.valueOf(4), splitFunctions.get("scale"));
+                assertTrue(remainingBudget < budget);
+            } else {
+                assertTrue(splitFunctions.toString(), splitFunctions.isEmpty());
+                assertEquals(budget, remainingBudget);
+            }
+        }
+    }
+
+    /**
+     * The default Truffle runtime never clones call targets.
+     */
+    private static boolean isCloningSupported() {
+        RootNode rootNode = new RootNode(LLVMLanguage.class, null, null) {
+
+            @Override
+            public Object execute(VirtualFrame frame) {
+                return null;
+            }
+
+            @Override
+            public boolean isCloningAllowed() {
+                return true;
+            }
+        };
+        return Truffle.getRuntime().createDirectCallNode(Truffle.getRuntime().createCallTarget(rootNode)).isCallTargetCloningAllowed();
+    }
+
+}
@@ -539,6 +539,43 @@ public final class LLVMInteropTest {
         }
     }
 
+    // functions of a module that is loaded later are called from an earlier module
+    @Test
+    public void test043() throws Exception {
+        Runner runner = new Runner("interop043");
+        try {
+            runner.findGlobalSymbol("applyAll");
+            Assert.assertEquals(7 + 12 + 36 - 6 + 3, runner.load("interop044"));
+        } finally {
+            runner.dispose();
+        }
+    }
+
+    // the same function is called directly from Sulong and through interop
+    @Test
+    public void test045() throws Exception {
+        Runner runner = new Runner("interop045");
+        try {
+            PolyglotEngine.Value first = runner.findGlobalSymbol("first");
+            int[] a = new int[]{40, 1};
+            Number result = (Number) first.execute(JavaInterop.asTruffleObject(a), 2).get();
+            Assert.assertEquals(42, result.intValue());
+            PolyglotEngine.Value main = runner.findGlobalSymbol("main");
+            Assert.assertEquals(41, ((Number) main.execute().get()).intValue());
+        } finally {
+            runner.dispose();
+        }
+    }
+
+    // truffle_invoke without arguments must not pass the arguments of the calling function
+    @Test
+    public void test046() {
+        Runner runner = new Runner("interop046");
+        ClassC a = new ClassC();
+        runner.export(JavaInterop.asTruffleObject(a), "foreign");
+        Assert.assertEquals(30, runner.run());
+    }
+
     public static final class ClassA {
         public boolean valueBool = true;
         public byte valueB = 40;
@@ -602,6 +639,10 @@ public final class LLVMInteropTest {
             valueD += d;
             return valueD;
         }
+
+        public int getValueI() {
+            return valueI;
+        }
     }
 
     class ComplexNumber {
@@ -674,17 +715,29 @@ public final class LLVMInteropTest {
 
         protected PolyglotEngine prepareVM() throws Exception {
             PolyglotEngine engine = builder.build();
+            eval(engine, fileName);
+            return engine;
+        }
+
+        /**
+         * Loads another module into the engine of this runner and returns the result of its main
+         * function.
+         */
+        int load(String otherFileName) throws Exception {
+            return eval(vm(), otherFileName);
+        }
+
+        private static int eval(PolyglotEngine engine, String name) {
             try {
-                File cFile = new File(LLVMPaths.INTEROP_TESTS, fileName + ".c");
-                File bcFile = File.createTempFile(LLVMPaths.INTEROP_TESTS + "/" + "bc_" + fileName, ".ll");
-                File bcOptFile = File.createTempFile(LLVMPaths.INTEROP_TESTS + "/" + "bcopt_" + fileName, ".ll");
+                File cFile = new File(LLVMPaths.INTEROP_TESTS, name + ".c");
+                File bcFile = File.createTempFile(LLVMPaths.INTEROP_TESTS + "/" + "bc_" + name, ".ll");
+                File bcOptFile = File.createTempFile(LLVMPaths.INTEROP_TESTS + "/" + "bcopt_" + name, ".ll");
                 Clang.compileToLLVMIR(cFile, bcFile, ClangOptions.builder());
                 Opt.optimizeBitcodeFile(bcFile, bcOptFile, OptOptions.builder().pass(Pass.MEM_TO_REG));
-                engine.eval(Source.newBuilder(bcOptFile).build()).as(Integer.class);
+                return engine.eval(Source.newBuilder(bcOptFile).build()).as(Integer.class);
             } catch (IOException e) {
                 throw new AssertionError(e);
             }
-            return engine;
         }
 
         private PolyglotEngine vm = null;
@@ -0,0 +1,29 @@
+#include <math.h>
+#include <stdlib.h>
+
+int intAbs(int value) { return abs(value); }
+
+long longAbs(long value) { return labs(value); }
+
+double roundings(double value) { return floor(value) + ceil(value) + rint(value) + fabs(value); }
+
+double powers(double base, double exponent) { return pow(base, exponent) + sqrt(base) + exp(0.0) + log(1.0) + log10(100.0); }
+
+int main() {
+  int i;
+  long sum = 0;
+  for (i = -500; i < 500; i++) {
+    sum += intAbs(i) + abs(i * 3);
+    sum += longAbs(i * 100000000L) / 100000000L;
+    sum += (long)roundings(i + 0.5) + (long)roundings(-i - 0.25);
+  }
+  for (i = 0; i < 100; i++) {
+    sum += (long)powers(i, 2.0);
+    sum += (long)(sqrt((double)i * i) + fabs(-i));
+  }
+  if (abs(-7) != 7 || labs(-7L) != 7 || fabs(-7.5) != 7.5 || floor(-0.5) != -1.0 || ceil(-0.5) != 0.0) {
+    abort();
+  }
+  // exit is a void substitution
+  exit((int)(sum % 256));
+}
@@ -0,0 +1,36 @@
+#include <ctype.h>
+#include <stdlib.h>
+
+typedef int (*function)(int);
+
+int f0(int a) { return a + 1; }
+int f1(int a) { return a * 2; }
+int f2(int a) { return a - 3; }
+int f3(int a) { return a ^ 5; }
+int f4(int a) { return a % 7; }
+int f5(int a) { return a << 1; }
+int f6(int a) { return a >> 1; }
+int f7(int a) { return -a; }
+
+// more targets than the inline cache holds, including native functions
+function functions[] = {f0, f1, toupper, f2, f3, tolower, f4, f5, f6, f7};
+
+#define NR_FUNCTIONS (sizeof(functions) / sizeof(functions[0]))
+
+int call(function f, int a) { return f(a); }
+
+int main() {
+  int i;
+  int sum = 0;
+  for (i = 0; i < 10000; i++) {
+    sum += call(functions[i % NR_FUNCTIONS], 'a' + i % 26);
+  }
+  // a second megamorphic call site with a different order of targets
+  for (i = NR_FUNCTIONS * 100 - 1; i >= 0; i--) {
+    sum -= functions[i % NR_FUNCTIONS]('A' + i % 26);
+  }
+  if (call(toupper, 'q') != 'Q' || call(f7, 3) != -3) {
+    abort();
+  }
+  return sum & 0xff;
+}
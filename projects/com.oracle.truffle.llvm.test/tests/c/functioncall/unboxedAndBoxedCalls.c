@@ -0,0 +1,23 @@
+long mix(int a, long b, double c, float d, char e, short f, int *p) {
+  long result = a + b + (long)(c * 2) + (long)(d * 4) + e + f;
+  if (p != 0) {
+    result += *p;
+  }
+  return result;
+}
+
+long (*volatile indirect)(int, long, double, float, char, short, int *) = mix;
+
+int main() {
+  int value = 7;
+  unsigned long sum = 0;
+  int i;
+  for (i = 0; i < 100; i++) {
+    // direct calls are unboxed, calls through a function pointer are boxed
+    sum = sum * 3 + mix(i, 100000000000L, 1.5, 0.25f, (char)-i, (short)1000, &value);
+    sum = sum * 5 + indirect(i, 100000000000L, 1.5, 0.25f, (char)-i, (short)1000, 0);
+    sum = sum * 7 + mix(-i, -1, -0.5, -0.75f, 'a', (short)-1, 0);
+    sum = sum * 11 + indirect(-i, -1, -0.5, -0.75f, 'a', (short)-1, &value);
+  }
+  return (int)(sum & 0xff);
+}
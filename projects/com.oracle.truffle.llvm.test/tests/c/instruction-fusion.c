@@ -0,0 +1,63 @@
+struct point {
+  int x;
+  long y;
+  short z;
+};
+
+int counts[16];
+
+int compare(int a, int b, long c, long d, unsigned int e, unsigned long f) {
+  int result = 0;
+  if (a < b) {
+    result += 1;
+  }
+  if (a >= b) {
+    result += 2;
+  }
+  if (c > d) {
+    result += 4;
+  }
+  if (c == d) {
+    result += 8;
+  }
+  if (e < (unsigned int)a) {
+    result += 16;
+  }
+  if (f >= (unsigned long)c) {
+    result += 32;
+  }
+  return result;
+}
+
+int casts(long value) {
+  unsigned char uc = (unsigned char)value;
+  signed char sc = (signed char)value;
+  int i1 = (int)(unsigned int)uc;
+  int i2 = (int)(short)sc;
+  short s = (short)(int)(long)sc;
+  return i1 + i2 + s + (int)(unsigned short)(unsigned int)value;
+}
+
+int main() {
+  struct point points[4];
+  int i;
+  int result = 0;
+  for (i = 0; i < 4; i++) {
+    points[i].x = i * 3;
+    points[i].y = i * 100000000000L;
+    points[i].z = (short)-i;
+  }
+  for (i = 0; i < 100; i++) {
+    counts[i % 16] += i;
+    counts[(i * 7) % 16] += points[i % 4].x;
+  }
+  for (i = 0; i < 16; i++) {
+    result += counts[i];
+  }
+  for (i = 0; i < 4; i++) {
+    result += (int)(points[i].y >> 32) + points[i].z;
+  }
+  result += compare(1, 2, 3, 3, 4, 5) + compare(-1, -2, -3, -4, 0xffffffffU, 0);
+  result += casts(-1) + casts(0x1234567890L) + casts(200) + casts(-129);
+  return result & 0xff;
+}
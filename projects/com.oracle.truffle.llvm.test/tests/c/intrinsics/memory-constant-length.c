@@ -0,0 +1,114 @@
+#include <stdlib.h>
+#include <string.h>
+
+struct small {
+  char c;
+  short s;
+};
+
+struct medium {
+  int i;
+  char bytes[11];
+};
+
+struct large {
+  long values[9];
+  char tail[3];
+};
+
+struct packed {
+  char bytes[7];
+} __attribute__((packed));
+
+unsigned char buffer[256];
+unsigned char copy[256];
+
+int sum(unsigned char *bytes, int length) {
+  int i;
+  int result = 0;
+  for (i = 0; i < length; i++) {
+    result = result * 3 + bytes[i];
+  }
+  return result;
+}
+
+void fill(unsigned char *bytes, int length, int seed) {
+  int i;
+  for (i = 0; i < length; i++) {
+    bytes[i] = (unsigned char)(i * 17 + seed);
+  }
+}
+
+int main() {
+  struct small s1 = {1, 2};
+  struct small s2;
+  struct medium m1 = {3, "abcdefghij"};
+  struct medium m2;
+  struct large l1 = {{1, 2, 3, 4, 5, 6, 7, 8, 9}, "xy"};
+  struct large l2;
+  struct packed p1 = {{1, 2, 3, 4, 5, 6, 7}};
+  struct packed p2;
+  int i;
+
+  s2 = s1;
+  m2 = m1;
+  l2 = l1;
+  p2 = p1;
+  if (memcmp(&s1, &s2, sizeof(s1)) || memcmp(&m1, &m2, sizeof(m1)) || memcmp(&l1, &l2, sizeof(l1)) || memcmp(&p1, &p2, sizeof(p1))) {
+    abort();
+  }
+
+  fill(buffer, sizeof(buffer), 5);
+  memcpy(copy, buffer + 1, 1);
+  memcpy(copy + 1, buffer + 3, 3);
+  memcpy(copy + 5, buffer + 7, 13);
+  memcpy(copy + 32, buffer + 32, 64);
+  memcpy(copy + 100, buffer + 101, 150);
+  for (i = 0; i < 1; i++) {
+    if (copy[i] != buffer[1 + i]) {
+      abort();
+    }
+  }
+  for (i = 0; i < 3; i++) {
+    if (copy[1 + i] != buffer[3 + i]) {
+      abort();
+    }
+  }
+  for (i = 0; i < 13; i++) {
+    if (copy[5 + i] != buffer[7 + i]) {
+      abort();
+    }
+  }
+  for (i = 0; i < 64; i++) {
+    if (copy[32 + i] != buffer[32 + i]) {
+      abort();
+    }
+  }
+  for (i = 0; i < 150; i++) {
+    if (copy[100 + i] != buffer[101 + i]) {
+      abort();
+    }
+  }
+
+  fill(buffer, sizeof(buffer), 9);
+  memset(buffer + 1, 0xab, 1);
+  memset(buffer + 2, 0, 6);
+  memset(buffer + 8, 0x7f, 24);
+  memset(buffer + 40, 0xcd, 200);
+  for (i = 0; i < 256; i++) {
+    int expected = (unsigned char)(i * 17 + 9);
+    if (i == 1) {
+      expected = 0xab;
+    } else if (i >= 2 && i < 8) {
+      expected = 0;
+    } else if (i >= 8 && i < 32) {
+      expected = 0x7f;
+    } else if (i >= 40 && i < 240) {
+      expected = 0xcd;
+    }
+    if (buffer[i] != expected) {
+      abort();
+    }
+  }
+  return (sum(buffer, 256) + sum(copy, 256) + l2.tail[1] + p2.bytes[6]) & 0xff;
+}
@@ -0,0 +1,83 @@
+#include <stdlib.h>
+#include <string.h>
+
+#define BUFFER_SIZE 300100
+
+static unsigned char *source;
+static unsigned char *target;
+static unsigned char *expected;
+
+/* only the bytes up to the end of the operation plus some padding are filled and checked */
+static size_t used;
+
+static void fill(unsigned char *buffer, int seed) {
+  size_t i;
+  for (i = 0; i < used; i++) {
+    buffer[i] = (unsigned char)(i * 31 + seed);
+  }
+}
+
+static void check(unsigned char *actual) {
+  if (memcmp(actual, expected, used) != 0) {
+    abort();
+  }
+}
+
+static void testCopy(int offset, size_t length) {
+  size_t i;
+  fill(target, 1);
+  fill(expected, 1);
+  for (i = 0; i < length; i++) {
+    expected[offset + i] = source[i + 3];
+  }
+  memcpy(target + offset, source + 3, length);
+  check(target);
+}
+
+static void testSet(int offset, size_t length, int value) {
+  size_t i;
+  fill(target, 2);
+  fill(expected, 2);
+  for (i = 0; i < length; i++) {
+    expected[offset + i] = (unsigned char)value;
+  }
+  memset(target + offset, value, length);
+  check(target);
+}
+
+static void testMove(int from, int to, size_t length) {
+  size_t i;
+  fill(target, 3);
+  fill(expected, 3);
+  for (i = 0; i < length; i++) {
+    source[i] = target[from + i];
+  }
+  for (i = 0; i < length; i++) {
+    expected[to + i] = source[i];
+  }
+  memmove(target + to, target + from, length);
+  check(target);
+}
+
+int main() {
+  size_t lengths[] = {0, 1, 2, 3, 4, 5, 7, 8, 9, 15, 16, 17, 31, 32, 33, 63, 64, 65, 100, 1000, 4096, 262144, 262145, 300000};
+  int i;
+  int count = sizeof(lengths) / sizeof(lengths[0]);
+  source = malloc(BUFFER_SIZE);
+  target = malloc(BUFFER_SIZE);
+  expected = malloc(BUFFER_SIZE);
+  for (i = 0; i < count; i++) {
+    used = lengths[i] + 32;
+    fill(source, 0);
+    testCopy(i % 4, lengths[i]);
+    testSet(i % 4, lengths[i], i * 7);
+    testMove(1, 0, lengths[i]);
+    testMove(0, 1, lengths[i]);
+    testMove(5, 5 + i % 9, lengths[i]);
+    testMove(5 + i % 9, 5, lengths[i]);
+  }
+  free(source);
+  free(target);
+  free(expected);
+  return count;
+}
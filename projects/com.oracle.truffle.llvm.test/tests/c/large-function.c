@@ -0,0 +1,27 @@
+// main and its loop are larger than the default MaxCompilationUnitSize, so that they are split
+// into several call targets
+
+#define STEP(k)                                                                                                                                      \
+  x = x * 31 + (k);                                                                                                                                  \
+  if (x % 7 == 3) {                                                                                                                                  \
+    y += x % 13;                                                                                                                                     \
+  } else {                                                                                                                                           \
+    y ^= (k);                                                                                                                                        \
+  }
+
+#define STEP10(k) STEP(k) STEP(k + 1) STEP(k + 2) STEP(k + 3) STEP(k + 4) STEP(k + 5) STEP(k + 6) STEP(k + 7) STEP(k + 8) STEP(k + 9)
+#define STEP100(k)                                                                                                                                   \
+  STEP10(k) STEP10(k + 10) STEP10(k + 20) STEP10(k + 30) STEP10(k + 40) STEP10(k + 50) STEP10(k + 60) STEP10(k + 70) STEP10(k + 80) STEP10(k + 90)
+#define STEP1000(k)                                                                                                                                  \
+  STEP100(k) STEP100(k + 100) STEP100(k + 200) STEP100(k + 300) STEP100(k + 400) STEP100(k + 500) STEP100(k + 600) STEP100(k + 700)              \
+  STEP100(k + 800) STEP100(k + 900)
+
+int main() {
+  unsigned int x = 1;
+  unsigned int y = 0;
+  for (int i = 0; i < 3; i++) {
+    STEP1000(0)
+  }
+  STEP1000(1000)
+  return y % 256;
+}
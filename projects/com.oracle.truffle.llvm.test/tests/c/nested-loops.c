@@ -0,0 +1,73 @@
+int search(int matrix[8][8], int value) {
+  int i, j;
+  for (i = 0; i < 8; i++) {
+    for (j = 0; j < 8; j++) {
+      if (matrix[i][j] == value) {
+        goto found;
+      }
+    }
+  }
+  return -1;
+found:
+  return i * 8 + j;
+}
+
+int collatz(int n) {
+  int steps = 0;
+  while (n != 1) {
+    if (n % 2 == 0) {
+      n /= 2;
+      continue;
+    }
+    n = 3 * n + 1;
+    steps++;
+  }
+  return steps;
+}
+
+int irreducible(int n) {
+  int sum = 0;
+  if (n & 1) {
+    goto odd;
+  }
+even:
+  sum += 2;
+  n--;
+odd:
+  sum += 1;
+  n--;
+  if (n > 0) {
+    goto even;
+  }
+  return sum;
+}
+
+int main() {
+  int matrix[8][8];
+  int i, j, k;
+  int result = 0;
+  for (i = 0; i < 8; i++) {
+    for (j = 0; j < 8; j++) {
+      matrix[i][j] = i * j + i;
+    }
+  }
+  result += search(matrix, 35);
+  result += search(matrix, 1000);
+  for (i = 1; i < 50; i++) {
+    result += collatz(i);
+  }
+  for (i = 0; i < 10; i++) {
+    for (j = 0; j < 10; j++) {
+      if (j > i) {
+        break;
+      }
+      k = 0;
+      do {
+        result += k;
+        k++;
+      } while (k < j);
+    }
+  }
+  result += irreducible(7) + irreducible(10);
+  return result & 0xff;
+}
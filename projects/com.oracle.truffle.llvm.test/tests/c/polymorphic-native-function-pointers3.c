@@ -0,0 +1,22 @@
+#include <stdlib.h>
+
+typedef int (*int_abs)(int);
+typedef int (*long_abs)(long);
+
+int callInt(int_abs f, int value) {
+  return f(value);
+}
+
+int callLong(long_abs f, long value) {
+  return f(value);
+}
+
+int main() {
+  int i;
+  int sum = 0;
+  for (i = 0; i < 100; i++) {
+    sum += callInt(abs, -i);
+    sum += callLong((long_abs)abs, -i);
+  }
+  return sum % 256;
+}
@@ -0,0 +1,43 @@
+#define STEP(k) x = x * 3 + (k); x ^= x >> 7;
+#define STEPS10(k) STEP(k) STEP(k + 1) STEP(k + 2) STEP(k + 3) STEP(k + 4) STEP(k + 5) STEP(k + 6) STEP(k + 7) STEP(k + 8) STEP(k + 9)
+
+int scale(int x, int factor) {
+  return x * factor + 1;
+}
+
+unsigned large(unsigned x) {
+  STEPS10(0)
+  STEPS10(10)
+  STEPS10(20)
+  STEPS10(30)
+  STEPS10(40)
+  STEPS10(50)
+  STEPS10(60)
+  STEPS10(70)
+  return x;
+}
+
+int main() {
+  int i;
+  int sum = 0;
+  unsigned hash = 0;
+  for (i = 0; i < 1000; i++) {
+    sum += scale(i, 2);
+  }
+  for (i = 0; i < 1000; i++) {
+    sum -= scale(i, 3);
+  }
+  for (i = 0; i < 1000; i++) {
+    sum += scale(i, -1);
+  }
+  for (i = 0; i < 1000; i++) {
+    sum += scale(i % 7, 5);
+  }
+  for (i = 0; i < 1000; i++) {
+    hash += large(i);
+  }
+  for (i = 0; i < 1000; i++) {
+    hash ^= large(hash);
+  }
+  return (sum + hash) & 0xff;
+}
@@ -0,0 +1,34 @@
+int fill(volatile char *buf, int size, int depth) {
+  int i;
+  int sum = 0;
+  for (i = 0; i < size; i++) {
+    buf[i] = (char)(i * 7 + depth);
+  }
+  for (i = 0; i < size; i++) {
+    sum += buf[i];
+  }
+  return sum;
+}
+
+int recurse(int depth) {
+  volatile char buf[4000];
+  int sum = fill(buf, sizeof(buf), depth);
+  if (depth == 0) {
+    return sum & 0xff;
+  }
+  return (recurse(depth - 1) + sum) & 0xff;
+}
+
+int leaf(int i) {
+  volatile char buf[500];
+  return fill(buf, sizeof(buf), i);
+}
+
+int main() {
+  int i;
+  int result = recurse(300);
+  for (i = 0; i < 1000; i++) {
+    result = (result * 31 + leaf(i) + recurse(i % 8)) & 0xff;
+  }
+  return result;
+}
@@ -0,0 +1,17 @@
+#include <stdlib.h>
+
+int calls;
+
+void handler() {
+  calls++;
+  if (calls == 2) {
+    exit(calls * 20 + 1);
+  }
+}
+
+int main() {
+  atexit(handler);
+  atexit(handler);
+  atexit(handler);
+  return 5;
+}
@@ -0,0 +1,17 @@
+#include <stdlib.h>
+
+int order;
+
+void first() { exit(order); }
+
+void second() { order = order * 10 + 2; }
+
+void third() { order = order * 10 + 3; }
+
+int main() {
+  atexit(first);
+  atexit(second);
+  atexit(third);
+  order = 1;
+  exit(100);
+}
@@ -0,0 +1,27 @@
+#include <stdlib.h>
+
+int main() {
+  int i;
+  int result = 0;
+  int *values = calloc(100, sizeof(int));
+  for (i = 0; i < 100; i++) {
+    result += values[i];
+    values[i] = i;
+  }
+  for (i = 1; i < 20; i++) {
+    values = realloc(values, i * 300 * sizeof(int));
+    values[i * 300 - 1] = i;
+  }
+  result += values[50] + values[5699];
+  free(values);
+  if (calloc((size_t)1 << 62, 8) != NULL) {
+    return 1;
+  }
+  if (calloc(8, (size_t)-1) != NULL) {
+    return 2;
+  }
+  if (calloc(((size_t)1 << 32) + 1, ((size_t)1 << 32) + 1) != NULL) {
+    return 3;
+  }
+  return result;
+}
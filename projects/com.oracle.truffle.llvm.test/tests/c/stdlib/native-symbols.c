@@ -0,0 +1,32 @@
+#include <ctype.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+
+int parse(const char *text) { return atoi(text) + (int)strtol(text, NULL, 16); }
+
+int measure(const char *text) { return strlen(text) + (strchr(text, 'l') - text) + (strrchr(text, 'l') - text); }
+
+int compare(const char *a, const char *b) { return strcmp(a, b) < 0 ? 1 : 0; }
+
+int main() {
+  char buffer[32];
+  int sum = 0;
+  int i;
+  strcpy(buffer, "hello");
+  strcat(buffer, " world");
+  if (strcmp(buffer, "hello world") != 0 || strncmp(buffer, "help", 3) != 0) {
+    abort();
+  }
+  for (i = 0; i < 100; i++) {
+    snprintf(buffer, sizeof(buffer), "%d", i);
+    sum += parse(buffer);
+    sum += measure("lollipop");
+    sum += compare(buffer, "50");
+    sum += toupper('a' + i % 26) - 'A';
+  }
+  if (getenv("SULONG_NATIVE_SYMBOLS_TEST_UNDEFINED") != NULL) {
+    abort();
+  }
+  return sum % 256;
+}
@@ -0,0 +1,16 @@
+#include <stdlib.h>
+#include <string.h>
+
+typedef int (*comparator)(const void *, const void *);
+
+int main() {
+  char words[6][8] = {"pear", "apple", "fig", "plum", "cherry", "banana"};
+  int i;
+  qsort(words, 6, sizeof(words[0]), (comparator)strcmp);
+  for (i = 1; i < 6; i++) {
+    if (strcmp(words[i - 1], words[i]) > 0) {
+      abort();
+    }
+  }
+  return words[0][0] - 'a' + words[5][1] - 'a';
+}
@@ -0,0 +1,49 @@
+#include <stdlib.h>
+
+struct entry {
+  long key;
+  char name[13];
+};
+
+int descending(const void *a, const void *b) {
+  long x = ((const struct entry *)a)->key;
+  long y = ((const struct entry *)b)->key;
+  return x < y ? 1 : (x > y ? -1 : 0);
+}
+
+int ascending(const void *a, const void *b) {
+  unsigned char x = *(const unsigned char *)a;
+  unsigned char y = *(const unsigned char *)b;
+  return x - y;
+}
+
+int main() {
+  struct entry entries[100];
+  unsigned char bytes[257];
+  int i;
+  for (i = 0; i < 100; i++) {
+    entries[i].key = (i * 37) % 101 - 50;
+    entries[i].name[0] = (char)i;
+  }
+  qsort(entries, 100, sizeof(struct entry), descending);
+  for (i = 1; i < 100; i++) {
+    if (entries[i - 1].key < entries[i].key) {
+      abort();
+    }
+    if ((entries[i].key + 50) != ((entries[i].name[0] * 37) % 101)) {
+      abort();
+    }
+  }
+  for (i = 0; i < 257; i++) {
+    bytes[i] = (unsigned char)(i * 13);
+  }
+  qsort(bytes, 257, 1, ascending);
+  qsort(bytes, 0, 1, ascending);
+  qsort(bytes, 1, 1, ascending);
+  for (i = 1; i < 257; i++) {
+    if (bytes[i - 1] > bytes[i]) {
+      abort();
+    }
+  }
+  return (int)(entries[0].key + entries[99].key + bytes[128]);
+}
@@ -0,0 +1,51 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+
+char buffer[64];
+
+int formatInt(int value) { return snprintf(buffer, sizeof(buffer), "%d", value); }
+
+int formatLong(long value) { return snprintf(buffer, sizeof(buffer), "%ld", value); }
+
+int formatDouble(double value) { return snprintf(buffer, sizeof(buffer), "%.2f", value); }
+
+int formatString(const char *value) { return snprintf(buffer, sizeof(buffer), "%s", value); }
+
+int formatMixed(int a, double b, const char *c, long d) { return snprintf(buffer, sizeof(buffer), "%d %.1f %s %ld", a, b, c, d); }
+
+void check(int length, const char *expected) {
+  if (length != strlen(expected) || strcmp(buffer, expected) != 0) {
+    abort();
+  }
+}
+
+int main() {
+  int i;
+  int a;
+  double b;
+  char c[2];
+  long d;
+  int sum = 0;
+  for (i = 0; i < 100; i++) {
+    if (formatInt(i - 50) != strlen(buffer) || atoi(buffer) != i - 50) {
+      abort();
+    }
+    check(formatLong(1234567890123L * (i % 2 ? 1 : -1)), i % 2 ? "1234567890123" : "-1234567890123");
+    if (formatDouble(i + 0.25) != strlen(buffer) || strtod(buffer, NULL) != i + 0.25) {
+      abort();
+    }
+    check(formatString(i % 2 ? "odd" : "even"), i % 2 ? "odd" : "even");
+    if (formatMixed(i, 0.5, "x", -i) != strlen(buffer) || sscanf(buffer, "%d %lf %1s %ld", &a, &b, c, &d) != 4 || a != i || b != 0.5 ||
+        strcmp(c, "x") != 0 || d != -i) {
+      abort();
+    }
+    sum += strlen(buffer);
+  }
+  check(formatInt(42), "42");
+  check(formatDouble(3.14159), "3.14");
+  check(formatMixed(1, 2.5, "three", 4L), "1 2.5 three 4");
+  sum += snprintf(buffer, sizeof(buffer), "%c%c", 'o', 'k');
+  check(2, "ok");
+  return sum % 256;
+}
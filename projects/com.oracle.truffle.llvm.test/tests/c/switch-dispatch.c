@@ -0,0 +1,74 @@
+int dense(int x) {
+  switch (x) {
+  case 0:
+    return 3;
+  case 1:
+    return 5;
+  case 2:
+  case 3:
+    return 7;
+  case 4:
+    return 11;
+  case 6:
+    return 13;
+  case 7:
+    return 17;
+  default:
+    return 1;
+  }
+}
+
+int sparse(long x) {
+  switch (x) {
+  case -100000:
+    return 2;
+  case -7:
+    return 3;
+  case 0:
+    return 5;
+  case 42:
+    return 7;
+  case 1000:
+    return 11;
+  case 65536:
+    return 13;
+  case 10000000000L:
+    return 17;
+  default:
+    return 19;
+  }
+}
+
+int chars(char c) {
+  switch (c) {
+  case 'a':
+    return 1;
+  case 'e':
+    return 2;
+  case 'i':
+    return 3;
+  case 'o':
+    return 4;
+  case 'u':
+    return 5;
+  case -1:
+    return 6;
+  }
+  return 0;
+}
+
+int main() {
+  long values[] = { -100001, -100000, -8, -7, -1, 0, 1, 41, 42, 43, 999, 1000, 65536, 10000000000L };
+  int i;
+  int result = 0;
+  for (i = -3; i < 12; i++) {
+    result = result * 3 + dense(i);
+  }
+  for (i = 0; i < sizeof(values) / sizeof(values[0]); i++) {
+    result = result * 5 + sparse(values[i]);
+  }
+  for (i = -2; i < 128; i++) {
+    result = result * 7 + chars((char)i);
+  }
+  return result & 0xff;
+}
@@ -0,0 +1,20 @@
+int three() { return 3; }
+
+int main() {
+  int i;
+  long l;
+  double d;
+  int *p;
+  int (*f)();
+  int i2 = i;
+  long l2 = l;
+  double d2 = d;
+  int *p2 = p;
+  int (*f2)() = f;
+  i = 1;
+  l = 2;
+  d = 1.5;
+  p = &i;
+  f = three;
+  return i + l + (int)(d * 2) + *p + f();
+}
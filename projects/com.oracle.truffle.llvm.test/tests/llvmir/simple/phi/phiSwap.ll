@@ -0,0 +1,26 @@
+define i32 @main() {
+  br label %loop
+
+loop:                                             ; preds = %loop, %0
+  %a = phi i32 [ 1, %0 ], [ %b, %loop ]
+  %b = phi i32 [ 2, %0 ], [ %a, %loop ]
+  %x = phi i32 [ 3, %0 ], [ %y, %loop ]
+  %y = phi i32 [ 4, %0 ], [ %z, %loop ]
+  %z = phi i32 [ 5, %0 ], [ %x, %loop ]
+  %i = phi i32 [ 0, %0 ], [ %i.next, %loop ]
+  %i.next = add i32 %i, 1
+  %cond = icmp slt i32 %i.next, 7
+  br i1 %cond, label %loop, label %exit
+
+exit:                                             ; preds = %loop
+  %1 = mul i32 %a, 10
+  %2 = add i32 %1, %b
+  %3 = mul i32 %2, 10
+  %4 = add i32 %3, %x
+  %5 = mul i32 %4, 10
+  %6 = add i32 %5, %y
+  %7 = mul i32 %6, 10
+  %8 = add i32 %7, %z
+  %9 = srem i32 %8, 256
+  ret i32 %9
+}
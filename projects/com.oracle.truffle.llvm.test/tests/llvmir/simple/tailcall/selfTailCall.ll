@@ -0,0 +1,55 @@
+@counter = global i32 0, align 4
+
+define i32 @sum(i32 %n, i32 %acc) nounwind {
+  %1 = icmp eq i32 %n, 0
+  br i1 %1, label %done, label %rec
+
+rec:                                              ; preds = %0
+  %2 = add i32 %acc, %n
+  %3 = sub i32 %n, 1
+  %4 = tail call i32 @sum(i32 %3, i32 %2)
+  ret i32 %4
+
+done:                                             ; preds = %0
+  ret i32 %acc
+}
+
+define i32 @gcd(i32 %a, i32 %b) nounwind {
+  %1 = icmp eq i32 %b, 0
+  br i1 %1, label %done, label %rec
+
+rec:                                              ; preds = %0
+  %2 = urem i32 %a, %b
+  %3 = tail call i32 @gcd(i32 %b, i32 %2)
+  ret i32 %3
+
+done:                                             ; preds = %0
+  ret i32 %a
+}
+
+define void @count(i32 %n) nounwind {
+  %1 = icmp eq i32 %n, 0
+  br i1 %1, label %done, label %rec
+
+rec:                                              ; preds = %0
+  %2 = load i32* @counter, align 4
+  %3 = add i32 %2, 1
+  store i32 %3, i32* @counter, align 4
+  %4 = sub i32 %n, 1
+  tail call void @count(i32 %4)
+  ret void
+
+done:                                             ; preds = %0
+  ret void
+}
+
+define i32 @main() nounwind {
+  %1 = call i32 @sum(i32 1000000, i32 0)
+  %2 = call i32 @gcd(i32 1071, i32 462)
+  call void @count(i32 1000000)
+  %3 = load i32* @counter, align 4
+  %4 = add i32 %1, %2
+  %5 = add i32 %4, %3
+  %6 = urem i32 %5, 256
+  ret i32 %6
+}
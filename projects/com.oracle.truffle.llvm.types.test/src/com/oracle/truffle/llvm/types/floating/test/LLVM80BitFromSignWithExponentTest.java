@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.types.floating.test;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.types.floating.LLVM80BitFloat;
+
+public class LLVM80BitFromSignWithExponentTest extends LLVM80BitTest {
+
+    private static LLVM80BitFloat roundTrip(LLVM80BitFloat val) {
+        return LLVM80BitFloat.fromSignWithExponent(val.getSignWithExponent(), val.getFraction());
+    }
+
+    @Test
+    public void testMinusOne() {
+        assertEquals(minusOne(), roundTrip(minusOne()));
+    }
+
+    @Test
+    public void testOne() {
+        assertEquals(one(), roundTrip(one()));
+    }
+
+    @Test
+    public void testZero() {
+        assertEquals(zero(), roundTrip(zero()));
+    }
+
+    @Test
+    public void testPositiveInfinity() {
+        assertEquals(positiveInfinity(), roundTrip(positiveInfinity()));
+    }
+
+    @Test
+    public void testNegativeInfinity() {
+        assertEquals(negativeInfinity(), roundTrip(negativeInfinity()));
+    }
+
+    @Test
+    public void testQNaN() {
+        assertEquals(nan(), roundTrip(nan()));
+    }
+
+    @Test
+    public void testNegativeValue() {
+        assertEquals(val(Long.MIN_VALUE), roundTrip(val(Long.MIN_VALUE)));
+    }
+
+    @Test
+    public void testMatchesBytes() {
+        LLVM80BitFloat val = val(Long.MIN_VALUE);
+        byte[] bytes = val.getBytes();
+        short signWithExponent = (short) ((bytes[0] << Byte.SIZE) | (bytes[1] & 0xFF));
+        assertEquals(signWithExponent, val.getSignWithExponent());
+    }
+
+}
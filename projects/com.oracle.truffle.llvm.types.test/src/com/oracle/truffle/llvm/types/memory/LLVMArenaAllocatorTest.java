@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.types.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import sun.misc.Unsafe;
+
+public class LLVMArenaAllocatorTest {
+
+    private static final Unsafe UNSAFE = LLVMMemory.getUnsafe();
+
+    private final LLVMArenaAllocator allocator = new LLVMArenaAllocator(UNSAFE);
+
+    @Test
+    public void testSizeClasses() {
+        assertEquals(16, allocator.getUsableSize(allocator.allocate(0)));
+        assertEquals(16, allocator.getUsableSize(allocator.allocate(16)));
+        assertEquals(32, allocator.getUsableSize(allocator.allocate(17)));
+        assertEquals(48, allocator.getUsableSize(allocator.allocate(40)));
+        assertEquals(LLVMArenaAllocator.MAX_ALLOCATION_SIZE, allocator.getUsableSize(allocator.allocate(LLVMArenaAllocator.MAX_ALLOCATION_SIZE)));
+        for (int size = 0; size <= LLVMArenaAllocator.MAX_ALLOCATION_SIZE; size += 7) {
+            long address = allocator.allocate(size);
+            assertNotEquals(0, address);
+            assertEquals(0, address % LLVMArenaAllocator.HEADER_SIZE);
+            assertTrue(allocator.getUsableSize(address) >= size);
+            assertTrue(allocator.isOwned(address));
+        }
+    }
+
+    @Test
+    public void testTooLarge() {
+        assertEquals(0, allocator.allocate(LLVMArenaAllocator.MAX_ALLOCATION_SIZE + 1));
+        assertEquals(0, allocator.allocate(-1));
+    }
+
+    @Test
+    public void testBlocksDoNotOverlap() {
+        Set<Long> addresses = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            long address = allocator.allocate(24);
+            assertTrue(addresses.add(address));
+            UNSAFE.putLong(address, i);
+            UNSAFE.putLong(address + 16, i);
+        }
+        for (long address : addresses) {
+            assertEquals(UNSAFE.getLong(address), UNSAFE.getLong(address + 16));
+        }
+    }
+
+    @Test
+    public void testFreedBlockIsReused() {
+        long address = allocator.allocate(100);
+        assertTrue(allocator.free(address));
+        assertNotEquals(address, allocator.allocate(10));
+        assertEquals(address, allocator.allocate(100));
+    }
+
+    @Test
+    public void testReallocateWithinSizeClass() {
+        long address = allocator.allocate(20);
+        assertEquals(address, allocator.reallocate(address, 32));
+        assertEquals(address, allocator.reallocate(address, 1));
+    }
+
+    @Test
+    public void testReallocateAcrossSizeClasses() {
+        long address = allocator.allocate(32);
+        for (int i = 0; i < 32; i++) {
+            UNSAFE.putByte(address + i, (byte) i);
+        }
+        long reallocation = allocator.reallocate(address, 1000);
+        assertNotEquals(address, reallocation);
+        assertTrue(allocator.getUsableSize(reallocation) >= 1000);
+        for (int i = 0; i < 32; i++) {
+            assertEquals((byte) i, UNSAFE.getByte(reallocation + i));
+        }
+        // the old block has been freed
+        assertEquals(address, allocator.allocate(32));
+    }
+
+    @Test
+    public void testReallocateTooLarge() {
+        long address = allocator.allocate(64);
+        UNSAFE.putLong(address, 42);
+        assertEquals(0, allocator.reallocate(address, LLVMArenaAllocator.MAX_ALLOCATION_SIZE + 1));
+        assertTrue(allocator.isOwned(address));
+        assertEquals(42, UNSAFE.getLong(address));
+    }
+
+    @Test
+    public void testFreeForeignMemory() {
+        long nativeAddress = UNSAFE.allocateMemory(64);
+        try {
+            assertFalse(allocator.isOwned(nativeAddress));
+            assertFalse(allocator.free(nativeAddress));
+        } finally {
+            UNSAFE.freeMemory(nativeAddress);
+        }
+        assertFalse(allocator.free(0));
+        // memory of another allocator is not owned either
+        LLVMArenaAllocator other = new LLVMArenaAllocator(UNSAFE);
+        assertFalse(allocator.free(other.allocate(64)));
+    }
+
+}
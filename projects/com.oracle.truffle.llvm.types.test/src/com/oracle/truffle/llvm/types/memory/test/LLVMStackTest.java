@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.types.memory.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
+import com.oracle.truffle.llvm.types.LLVMAddress;
+import com.oracle.truffle.llvm.types.memory.LLVMMemory;
+import com.oracle.truffle.llvm.types.memory.LLVMStack;
+
+public class LLVMStackTest {
+
+    private static final long STACK_SIZE = LLVMBaseOptionFacade.getStackSizeKB() * 1024;
+
+    private static final long SEGMENT_SIZE = Math.min(LLVMBaseOptionFacade.getStackSegmentSizeKB() * 1024, STACK_SIZE);
+
+    private static final int ALIGN = 8;
+
+    /**
+     * The size of an allocation that does not fit into the rest of the first segment.
+     */
+    private static final long FRAME = ALIGN * 16;
+
+    private LLVMStack stack;
+    private long top;
+
+    @Before
+    public void allocateStack() {
+        stack = new LLVMStack();
+        top = stack.allocate().getVal();
+    }
+
+    @After
+    public void freeStack() {
+        stack.free();
+    }
+
+    @Test
+    public void testAllocationInFirstSegment() {
+        long sp = stack.allocateMemory(top, 16, ALIGN);
+        assertEquals(top - 16, sp);
+        assertEquals(sp - 24, stack.allocateMemory(sp, 20, ALIGN));
+    }
+
+    @Test
+    public void testAllocationAcrossSegmentBoundary() {
+        long full = fillFirstSegment();
+        long sp = stack.allocateMemory(full, FRAME, ALIGN);
+        assertNotInFirstSegment(sp, FRAME);
+        assertEquals(0, sp % ALIGN);
+        assertWritable(sp, FRAME);
+        // further allocations continue in the new segment
+        assertEquals(sp - 16, stack.allocateMemory(sp, 16, ALIGN));
+    }
+
+    @Test
+    public void testRepeatedAllocationAtSegmentBoundary() {
+        long full = fillFirstSegment();
+        long callee = stack.allocateMemory(full, FRAME, ALIGN);
+        for (int i = 0; i < 10; i++) {
+            // the stack pointer returns to the first segment between the calls
+            assertEquals(callee, stack.allocateMemory(full, FRAME, ALIGN));
+            assertEquals(callee - 32, stack.allocateMemory(callee, 32, ALIGN));
+        }
+    }
+
+    @Test
+    public void testAllocationInPreviousSegment() {
+        long full = fillFirstSegment();
+        long callee = stack.allocateMemory(full, FRAME, ALIGN);
+        assertNotInFirstSegment(callee, FRAME);
+        // an allocation that still fits into the first segment stays there
+        long caller = full + ALIGN * 4;
+        assertEquals(caller - ALIGN, stack.allocateMemory(caller, ALIGN, ALIGN));
+        assertEquals(callee, stack.allocateMemory(full, FRAME, ALIGN));
+        // an allocation from the top of the stack
+        assertEquals(top - 16, stack.allocateMemory(top, 16, ALIGN));
+        assertEquals(callee, stack.allocateMemory(full, FRAME, ALIGN));
+    }
+
+    @Test
+    public void testAllocationLargerThanSegment() {
+        long size = SEGMENT_SIZE * 4;
+        if (size > STACK_SIZE - SEGMENT_SIZE) {
+            return;
+        }
+        long sp = stack.allocateMemory(top, size, ALIGN);
+        assertNotInFirstSegment(sp, size);
+        assertWritable(sp, size);
+        // a smaller allocation after returning to the first segment
+        assertEquals(top - 16, stack.allocateMemory(top, 16, ALIGN));
+    }
+
+    @Test
+    public void testReplaceTooSmallSegment() {
+        long full = fillFirstSegment();
+        stack.allocateMemory(full, FRAME, ALIGN);
+        long size = SEGMENT_SIZE * 4;
+        if (size > STACK_SIZE - SEGMENT_SIZE) {
+            return;
+        }
+        long large = stack.allocateMemory(full, size, ALIGN);
+        assertNotInFirstSegment(large, size);
+        assertWritable(large, size);
+        // the larger segment replaced the previous one
+        assertEquals(large + size - FRAME, stack.allocateMemory(full, FRAME, ALIGN));
+    }
+
+    @Test(expected = StackOverflowError.class)
+    public void testStackOverflow() {
+        stack.allocateMemory(top, STACK_SIZE + 1, ALIGN);
+    }
+
+    /**
+     * Allocates the first segment but for a few bytes and returns the stack pointer.
+     */
+    private long fillFirstSegment() {
+        long sp = stack.allocateMemory(top, SEGMENT_SIZE - ALIGN * 8, ALIGN);
+        assertTrue(sp >= top - SEGMENT_SIZE);
+        return sp;
+    }
+
+    private void assertNotInFirstSegment(long address, long size) {
+        assertTrue(address + size <= top - SEGMENT_SIZE || address >= top);
+    }
+
+    private static void assertWritable(long address, long size) {
+        for (long offset = 0; offset < size; offset += Long.BYTES) {
+            LLVMMemory.putI64(LLVMAddress.fromLong(address + offset), offset);
+        }
+        for (long offset = 0; offset < size; offset += Long.BYTES) {
+            assertEquals(offset, LLVMMemory.getI64(LLVMAddress.fromLong(address + offset)));
+        }
+    }
+
+}
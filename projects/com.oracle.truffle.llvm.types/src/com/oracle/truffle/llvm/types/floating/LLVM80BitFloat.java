@@ -608,6 +608,20 @@ public abstract class LLVM80BitFloat {
         return new RealLLVM80BitFloat(sign, exp, fraction);
     }
 
+    /**
+     * Creates a value from the 16 bit sign/exponent field and the 64 bit fraction as they are
+     * returned by {@link #getSignWithExponent()} and {@link #getFraction()}.
+     */
+    public static LLVM80BitFloat fromSignWithExponent(short signWithExponent, long fraction) {
+        int exponent = signWithExponent & BinaryHelper.getBitMask(EXPONENT_BIT_WIDTH);
+        return fromRawValues(signWithExponent < 0, exponent, fraction);
+    }
+
+    public short getSignWithExponent() {
+        short signBit = getSign() ? Short.MIN_VALUE : 0;
+        return (short) (getExponent() | signBit);
+    }
+
     @ExplodeLoop
     public static boolean areOrdered(LLVM80BitFloat... vals) {
         CompilerAsserts.compilationConstant(vals.length);
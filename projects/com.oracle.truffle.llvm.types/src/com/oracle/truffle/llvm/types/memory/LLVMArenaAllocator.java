@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.types.memory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+import sun.misc.Unsafe;
+
+/**
+ * A size class allocator for small heap allocations. Each thread owns an arena that bump allocates
+ * blocks from large chunks obtained by {@link Unsafe#allocateMemory(long)}, and recycles freed
+ * blocks through one free list per size class. The free lists are linked through the first word of
+ * the freed blocks, so that neither allocating nor freeing leaves Java.
+ *
+ * Every block starts with a {@link #HEADER_SIZE} byte header that records its size class, which
+ * keeps the returned memory 16 byte aligned as required by <code>malloc</code>. Requests that
+ * exceed the largest size class are rejected and have to be served by the native allocator.
+ */
+final class LLVMArenaAllocator {
+
+    static final int HEADER_SIZE = 16;
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private static final int[] BLOCK_SIZES = {32, 48, 64, 80, 96, 128, 160, 192, 256, 384, 512, 768, 1024, 1536, 2048, 3072, 4096};
+
+    static final int MAX_ALLOCATION_SIZE = BLOCK_SIZES[BLOCK_SIZES.length - 1] - HEADER_SIZE;
+
+    private final Unsafe unsafe;
+
+    /**
+     * Maps the start address of each chunk to its end address, to decide whether a freed pointer
+     * belongs to this allocator or to the native allocator.
+     */
+    private final ConcurrentSkipListMap<Long, Long> chunks = new ConcurrentSkipListMap<>();
+
+    private final ThreadLocal<Arena> arenas = ThreadLocal.withInitial(Arena::new);
+
+    LLVMArenaAllocator(Unsafe unsafe) {
+        this.unsafe = unsafe;
+    }
+
+    private final class Arena {
+
+        private final long[] freeLists = new long[BLOCK_SIZES.length];
+        private long current;
+        private long end;
+
+        long allocate(int sizeClass) {
+            long block = freeLists[sizeClass];
+            if (block != 0) {
+                freeLists[sizeClass] = unsafe.getLong(block);
+            } else {
+                int blockSize = BLOCK_SIZES[sizeClass];
+                if (current + blockSize > end) {
+                    newChunk();
+                }
+                block = current;
+                current += blockSize;
+            }
+            unsafe.putLong(block, sizeClass);
+            return block + HEADER_SIZE;
+        }
+
+        void free(long block, int sizeClass) {
+            unsafe.putLong(block, freeLists[sizeClass]);
+            freeLists[sizeClass] = block;
+        }
+
+        private void newChunk() {
+            long chunk = unsafe.allocateMemory(CHUNK_SIZE + HEADER_SIZE);
+            long alignedChunk = (chunk + HEADER_SIZE - 1) & -HEADER_SIZE;
+            chunks.put(alignedChunk, alignedChunk + CHUNK_SIZE);
+            current = alignedChunk;
+            end = alignedChunk + CHUNK_SIZE;
+        }
+
+    }
+
+    /**
+     * Allocates a block with at least <code>size</code> usable bytes.
+     *
+     * @return the address of the block, or <code>0</code> if the size exceeds
+     *         {@link #MAX_ALLOCATION_SIZE}
+     */
+    @TruffleBoundary
+    long allocate(long size) {
+        if (size < 0 || size > MAX_ALLOCATION_SIZE) {
+            return 0;
+        }
+        return arenas.get().allocate(sizeClass(size + HEADER_SIZE));
+    }
+
+    /**
+     * Frees a block that has been returned by {@link #allocate(long)}.
+     *
+     * @return <code>false</code> if the address has not been allocated by this allocator
+     */
+    @TruffleBoundary
+    boolean free(long address) {
+        if (!isOwned(address)) {
+            return false;
+        }
+        long block = address - HEADER_SIZE;
+        arenas.get().free(block, (int) unsafe.getLong(block));
+        return true;
+    }
+
+    /**
+     * Resizes a block that has been returned by {@link #allocate(long)}. The block is returned
+     * as is if it is large enough, otherwise its contents are moved to a block of a larger size
+     * class.
+     *
+     * @return the address of the resized block, or <code>0</code> if the size exceeds
+     *         {@link #MAX_ALLOCATION_SIZE}, in which case the block is left unchanged
+     */
+    @TruffleBoundary
+    long reallocate(long address, long size) {
+        long usableSize = getUsableSize(address);
+        if (size <= usableSize) {
+            return address;
+        }
+        long newAddress = allocate(size);
+        if (newAddress != 0) {
+            unsafe.copyMemory(address, newAddress, usableSize);
+            free(address);
+        }
+        return newAddress;
+    }
+
+    /**
+     * Returns the number of usable bytes of a block returned by {@link #allocate(long)}.
+     */
+    long getUsableSize(long address) {
+        assert isOwned(address);
+        return BLOCK_SIZES[(int) unsafe.getLong(address - HEADER_SIZE)] - HEADER_SIZE;
+    }
+
+    @TruffleBoundary
+    boolean isOwned(long address) {
+        Map.Entry<Long, Long> chunk = chunks.floorEntry(address);
+        return chunk != null && address < chunk.getValue();
+    }
+
+    private static int sizeClass(long blockSize) {
+        for (int i = 0; i < BLOCK_SIZES.length; i++) {
+            if (blockSize <= BLOCK_SIZES[i]) {
+                return i;
+            }
+        }
+        throw new AssertionError(blockSize);
+    }
+
+}
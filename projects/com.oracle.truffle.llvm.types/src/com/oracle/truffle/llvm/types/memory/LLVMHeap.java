@@ -32,10 +32,15 @@ package com.oracle.truffle.llvm.types.memory;
 import com.oracle.nfi.NativeFunctionInterfaceRuntime;
 import com.oracle.nfi.api.NativeFunctionHandle;
 import com.oracle.nfi.api.NativeFunctionInterface;
+import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
 import com.oracle.truffle.llvm.types.LLVMAddress;
 
 public final class LLVMHeap extends LLVMMemory {
 
+    private static final boolean USE_SULONG_ALLOCATOR = LLVMBaseOptionFacade.useSulongAllocator();
+
+    private static final LLVMArenaAllocator arenaAllocator = new LLVMArenaAllocator(UNSAFE);
+
     public static LLVMAddress allocateCString(String string) {
         LLVMAddress baseAddress = LLVMHeap.allocateMemory(string.length() + 1);
         LLVMAddress currentAddress = baseAddress;
@@ -49,25 +54,89 @@ public final class LLVMHeap extends LLVMMemory {
     }
 
     public static LLVMAddress allocateMemory(long size) {
+        if (USE_SULONG_ALLOCATOR) {
+            long allocation = arenaAllocator.allocate(size);
+            if (allocation != 0) {
+                return LLVMAddress.fromLong(allocation);
+            }
+        }
         long allocateMemory = (long) mallocHandle.call(size);
         return LLVMAddress.fromLong(allocateMemory);
     }
 
     public static LLVMAddress allocateZeroedMemory(long l) {
         long allocateMemory = allocateMemory(l).getVal();
-        UNSAFE.setMemory(allocateMemory, l, (byte) 0);
+        if (allocateMemory != 0) {
+            UNSAFE.setMemory(allocateMemory, l, (byte) 0);
+        }
         return LLVMAddress.fromLong(allocateMemory);
     }
 
+    public static LLVMAddress reallocateMemory(LLVMAddress addr, long size) {
+        long address = addr.getVal();
+        if (USE_SULONG_ALLOCATOR && arenaAllocator.isOwned(address)) {
+            long reallocation = arenaAllocator.reallocate(address, size);
+            if (reallocation != 0) {
+                return LLVMAddress.fromLong(reallocation);
+            }
+            // the new size is too large for the arena
+            long allocation = (long) mallocHandle.call(size);
+            if (allocation != 0) {
+                UNSAFE.copyMemory(address, allocation, arenaAllocator.getUsableSize(address));
+                arenaAllocator.free(address);
+            }
+            return LLVMAddress.fromLong(allocation);
+        }
+        long reallocateMemory = (long) reallocHandle.call(address, size);
+        return LLVMAddress.fromLong(reallocateMemory);
+    }
+
     public static void freeMemory(LLVMAddress addr) {
+        if (USE_SULONG_ALLOCATOR && arenaAllocator.free(addr.getVal())) {
+            return;
+        }
         freeHandle.call(addr.getVal());
     }
 
+    /**
+     * Copies, moves or sets at most this many bytes with unrolled word accesses.
+     */
+    private static final int SMALL_MEMORY_OPERATION_BYTES = 64;
+
+    /**
+     * Copies, moves or sets more than this many bytes by calling the native C library.
+     */
+    private static final long NATIVE_MEMORY_OPERATION_THRESHOLD = LLVMBaseOptionFacade.getNativeMemoryOperationThreshold();
+
     public static void memCopy(LLVMAddress target, LLVMAddress source, long length) {
         long targetAddress = extractAddrNullPointerAllowed(target);
         long sourceAddress = extractAddrNullPointerAllowed(source);
         assert length == 0 || targetAddress != 0 && sourceAddress != 0;
-        memCopyHandle.call(targetAddress, sourceAddress, length);
+        if (length <= SMALL_MEMORY_OPERATION_BYTES) {
+            copySmall(targetAddress, sourceAddress, length);
+        } else if (length <= NATIVE_MEMORY_OPERATION_THRESHOLD) {
+            UNSAFE.copyMemory(sourceAddress, targetAddress, length);
+        } else {
+            memCopyHandle.call(targetAddress, sourceAddress, length);
+        }
+    }
+
+    private static void copySmall(long targetAddress, long sourceAddress, long length) {
+        long offset = 0;
+        for (; offset + Long.BYTES <= length; offset += Long.BYTES) {
+            UNSAFE.putLong(targetAddress + offset, UNSAFE.getLong(sourceAddress + offset));
+        }
+        if (length - offset >= Integer.BYTES) {
+            UNSAFE.putInt(targetAddress + offset, UNSAFE.getInt(sourceAddress + offset));
+            offset += Integer.BYTES;
+        }
+        if (length - offset >= Short.BYTES) {
+            UNSAFE.putShort(targetAddress + offset, UNSAFE.getShort(sourceAddress + offset));
+            offset += Short.BYTES;
+        }
+        if (length - offset >= Byte.BYTES) {
+            UNSAFE.putByte(targetAddress + offset, UNSAFE.getByte(sourceAddress + offset));
+        }
     }
 
     public static void memCopy(LLVMAddress target, LLVMAddress source, long length, @SuppressWarnings("unused") int align, @SuppressWarnings("unused") boolean isVolatile) {
@@ -76,18 +145,96 @@ public final class LLVMHeap extends LLVMMemory {
 
     public static void memSet(LLVMAddress target, int value, long length) {
         long targetAddress = LLVMMemory.extractAddr(target);
-        memSetHandle.call(targetAddress, value, length);
+        if (length <= SMALL_MEMORY_OPERATION_BYTES) {
+            setSmall(targetAddress, (byte) value, length);
+        } else if (length <= NATIVE_MEMORY_OPERATION_THRESHOLD) {
+            UNSAFE.setMemory(targetAddress, length, (byte) value);
+        } else {
+            memSetHandle.call(targetAddress, value, length);
+        }
+    }
+
+    private static void setSmall(long targetAddress, byte value, long length) {
+        long pattern = replicateByte(value);
+        long offset = 0;
+        for (; offset + Long.BYTES <= length; offset += Long.BYTES) {
+            UNSAFE.putLong(targetAddress + offset, pattern);
+        }
+        if (length - offset >= Integer.BYTES) {
+            UNSAFE.putInt(targetAddress + offset, (int) pattern);
+            offset += Integer.BYTES;
+        }
+        if (length - offset >= Short.BYTES) {
+            UNSAFE.putShort(targetAddress + offset, (short) pattern);
+            offset += Short.BYTES;
+        }
+        if (length - offset >= Byte.BYTES) {
+            UNSAFE.putByte(targetAddress + offset, value);
+        }
     }
 
     public static void memSet(LLVMAddress target, byte value, long length, @SuppressWarnings("unused") int align, @SuppressWarnings("unused") boolean isVolatile) {
         memSet(target, value, length);
     }
 
+    /**
+     * Copies a single value of <code>accessSize</code> bytes, which must be 1, 2, 4 or 8.
+     */
+    public static void copyAccess(long targetAddress, long sourceAddress, int accessSize) {
+        switch (accessSize) {
+            case Long.BYTES:
+                UNSAFE.putLong(targetAddress, UNSAFE.getLong(sourceAddress));
+                break;
+            case Integer.BYTES:
+                UNSAFE.putInt(targetAddress, UNSAFE.getInt(sourceAddress));
+                break;
+            case Short.BYTES:
+                UNSAFE.putShort(targetAddress, UNSAFE.getShort(sourceAddress));
+                break;
+            case Byte.BYTES:
+                UNSAFE.putByte(targetAddress, UNSAFE.getByte(sourceAddress));
+                break;
+            default:
+                throw new AssertionError(accessSize);
+        }
+    }
+
+    /**
+     * Stores the lowest <code>accessSize</code> bytes of <code>pattern</code>, where
+     * <code>accessSize</code> must be 1, 2, 4 or 8.
+     */
+    public static void setAccess(long targetAddress, long pattern, int accessSize) {
+        switch (accessSize) {
+            case Long.BYTES:
+                UNSAFE.putLong(targetAddress, pattern);
+                break;
+            case Integer.BYTES:
+                UNSAFE.putInt(targetAddress, (int) pattern);
+                break;
+            case Short.BYTES:
+                UNSAFE.putShort(targetAddress, (short) pattern);
+                break;
+            case Byte.BYTES:
+                UNSAFE.putByte(targetAddress, (byte) pattern);
+                break;
+            default:
+                throw new AssertionError(accessSize);
+        }
+    }
+
+    /**
+     * Replicates a byte value into all bytes of a long, e.g., to set memory one word at a time.
+     */
+    public static long replicateByte(byte value) {
+        return (value & 0xFFL) * 0x0101010101010101L;
+    }
+
     private static final NativeFunctionHandle memMoveHandle;
     private static final NativeFunctionHandle memSetHandle;
     private static final NativeFunctionHandle memCopyHandle;
     private static final NativeFunctionHandle freeHandle;
     private static final NativeFunctionHandle mallocHandle;
+    private static final NativeFunctionHandle reallocHandle;
 
     static {
         final NativeFunctionInterface nfi = NativeFunctionInterfaceRuntime.getNativeFunctionInterface();
@@ -96,10 +243,31 @@ public final class LLVMHeap extends LLVMMemory {
         memSetHandle = nfi.getFunctionHandle("memset", void.class, long.class, int.class, long.class);
         freeHandle = nfi.getFunctionHandle("free", void.class, long.class);
         mallocHandle = nfi.getFunctionHandle("malloc", long.class, long.class);
+        reallocHandle = nfi.getFunctionHandle("realloc", long.class, long.class, long.class);
     }
 
     public static void memMove(LLVMAddress dest, LLVMAddress source, long length) {
-        memMoveHandle.call(dest.getVal(), source.getVal(), length);
+        long targetAddress = dest.getVal();
+        long sourceAddress = source.getVal();
+        if (length <= Long.BYTES * 2) {
+            moveSmall(targetAddress, sourceAddress, length);
+        } else if (length <= NATIVE_MEMORY_OPERATION_THRESHOLD) {
+            // Unsafe.copyMemory copies overlapping memory regions correctly
+            UNSAFE.copyMemory(sourceAddress, targetAddress, length);
+        } else {
+            memMoveHandle.call(targetAddress, sourceAddress, length);
+        }
+    }
+
+    private static void moveSmall(long targetAddress, long sourceAddress, long length) {
+        if (targetAddress <= sourceAddress || targetAddress >= sourceAddress + length) {
+            // a forward copy never overwrites source bytes that have not been read yet
+            copySmall(targetAddress, sourceAddress, length);
+        } else {
+            for (long offset = length - 1; offset >= 0; offset--) {
+                UNSAFE.putByte(targetAddress + offset, UNSAFE.getByte(sourceAddress + offset));
+            }
+        }
     }
 
     // current hack: we cannot directly store the LLVMFunction in the native memory due to GC
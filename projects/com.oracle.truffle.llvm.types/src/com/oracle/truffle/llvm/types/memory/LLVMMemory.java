@@ -51,6 +51,10 @@ public abstract class LLVMMemory {
 
     static final Unsafe UNSAFE = getUnsafe();
 
+    private static final long BYTE_ARRAY_OFFSET = Unsafe.ARRAY_BYTE_BASE_OFFSET;
+
+    private static final int I128_BYTE_SIZE = 16;
+
     @SuppressWarnings("restriction")
     static Unsafe getUnsafe() {
         CompilerAsserts.neverPartOfCompilation();
@@ -90,14 +94,26 @@ public abstract class LLVMMemory {
         }
         int bytes = bitWidth / Byte.SIZE;
         byte[] loadedBytes = new byte[bytes];
-        LLVMAddress currentAddress = addr;
-        for (int i = loadedBytes.length - 1; i >= 0; i--) {
-            loadedBytes[i] = getI8(currentAddress);
-            currentAddress = currentAddress.increment(Byte.BYTES);
+        long address = extractAddr(addr);
+        if (bytes == I128_BYTE_SIZE) {
+            // LLVMIVarBit stores its bytes in big-endian order
+            UNSAFE.putLong(loadedBytes, BYTE_ARRAY_OFFSET, Long.reverseBytes(UNSAFE.getLong(address + Long.BYTES)));
+            UNSAFE.putLong(loadedBytes, BYTE_ARRAY_OFFSET + Long.BYTES, Long.reverseBytes(UNSAFE.getLong(address)));
+        } else {
+            UNSAFE.copyMemory(null, address, loadedBytes, BYTE_ARRAY_OFFSET, bytes);
+            reverse(loadedBytes);
         }
         return LLVMIVarBit.create(bitWidth, loadedBytes);
     }
 
+    private static void reverse(byte[] bytes) {
+        for (int i = 0, j = bytes.length - 1; i < j; i++, j--) {
+            byte tmp = bytes[i];
+            bytes[i] = bytes[j];
+            bytes[j] = tmp;
+        }
+    }
+
     public static long getI64(LLVMAddress addr) {
         return UNSAFE.getLong(LLVMMemory.extractAddr(addr));
     }
@@ -111,13 +127,11 @@ public abstract class LLVMMemory {
     }
 
     public static LLVM80BitFloat get80BitFloat(LLVMAddress addr) {
-        byte[] bytes = new byte[LLVM80BitFloat.BYTE_WIDTH];
-        LLVMAddress currentAddress = addr;
-        for (int i = 0; i < bytes.length; i++) {
-            bytes[i] = getI8(currentAddress);
-            currentAddress = currentAddress.increment(Byte.BYTES);
-        }
-        return LLVM80BitFloat.fromBytes(bytes);
+        // the sign/exponent field is followed by the fraction, both in big-endian order
+        long address = extractAddr(addr);
+        short signWithExponent = Short.reverseBytes(UNSAFE.getShort(address));
+        long fraction = Long.reverseBytes(UNSAFE.getLong(address + Short.BYTES));
+        return LLVM80BitFloat.fromSignWithExponent(signWithExponent, fraction);
     }
 
     static long extractAddr(LLVMAddress addr) {
@@ -151,19 +165,20 @@ public abstract class LLVMMemory {
 
     public static void putIVarBit(LLVMAddress addr, LLVMIVarBit value) {
         byte[] bytes = value.getBytes();
-        LLVMAddress currentAddress = addr;
-        for (int i = bytes.length - 1; i >= 0; i--) {
-            putI8(currentAddress, bytes[i]);
-            currentAddress = currentAddress.increment(Byte.BYTES);
+        long address = extractAddr(addr);
+        if (bytes.length == I128_BYTE_SIZE) {
+            UNSAFE.putLong(address, Long.reverseBytes(UNSAFE.getLong(bytes, BYTE_ARRAY_OFFSET + Long.BYTES)));
+            UNSAFE.putLong(address + Long.BYTES, Long.reverseBytes(UNSAFE.getLong(bytes, BYTE_ARRAY_OFFSET)));
+        } else {
+            // getBytes() returns the backing array of the value, so reverse a copy of it
+            byte[] storedBytes = bytes.clone();
+            reverse(storedBytes);
+            UNSAFE.copyMemory(storedBytes, BYTE_ARRAY_OFFSET, null, address, storedBytes.length);
         }
     }
 
-    static void putByteArray(LLVMAddress addr, byte[] bytes) {
-        LLVMAddress currentAddress = addr;
-        for (int i = 0; i < bytes.length; i++) {
-            putI8(currentAddress, bytes[i]);
-            currentAddress = currentAddress.increment(Byte.BYTES);
-        }
+    public static void putByteArray(LLVMAddress addr, byte[] bytes) {
+        UNSAFE.copyMemory(bytes, BYTE_ARRAY_OFFSET, null, extractAddr(addr), bytes.length);
     }
 
     public static void putFloat(LLVMAddress addr, float value) {
@@ -175,7 +190,9 @@ public abstract class LLVMMemory {
     }
 
     public static void put80BitFloat(LLVMAddress addr, LLVM80BitFloat value) {
-        putByteArray(addr, value.getBytes());
+        long address = extractAddr(addr);
+        UNSAFE.putShort(address, Short.reverseBytes(value.getSignWithExponent()));
+        UNSAFE.putLong(address + Short.BYTES, Long.reverseBytes(value.getFraction()));
     }
 
     public static void putAddress(LLVMAddress addr, LLVMAddress value) {
@@ -29,13 +29,26 @@
  */
 package com.oracle.truffle.llvm.types.memory;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.llvm.runtime.options.LLVMBaseOptionFacade;
 import com.oracle.truffle.llvm.types.LLVMAddress;
 
 /**
  * Implements a stack that grows from the top to the bottom.
+ *
+ * The stack consists of a chain of natively allocated segments. Only the first segment is
+ * allocated eagerly; further segments are allocated on demand when an allocation does not fit
+ * into the segment of the current stack pointer, until the total size reaches
+ * {@link LLVMBaseOptionFacade#getStackSizeKB()}. Segments that are no longer in use are kept for
+ * reuse until the stack is freed.
+ *
+ * Besides the segment of the most recent allocation, the fast path also knows the segment before
+ * it. A call site whose stack pointer is close to the end of a segment thus allocates in the next
+ * segment without a lookup, also when the stack pointer keeps returning to the previous segment.
  */
 public final class LLVMStack extends LLVMMemory {
 
@@ -43,10 +56,26 @@ public final class LLVMStack extends LLVMMemory {
 
     private static final long STACK_SIZE_BYTE = STACK_SIZE_KB * 1024;
 
-    @CompilationFinal private long lowerBounds;
+    private static final long SEGMENT_SIZE_BYTE = Math.min(LLVMBaseOptionFacade.getStackSegmentSizeKB() * 1024, STACK_SIZE_BYTE);
+
+    private static final int INITIAL_SEGMENT_CAPACITY = 8;
+
+    private static final int MAX_SEGMENT_GROWTH_SHIFT = 8;
+
     @CompilationFinal private long upperBounds;
     private boolean isFreed = true;
 
+    private long[] segmentLowerBounds = new long[INITIAL_SEGMENT_CAPACITY];
+    private long[] segmentUpperBounds = new long[INITIAL_SEGMENT_CAPACITY];
+    private int segmentCount;
+    private long allocatedSize;
+
+    private long currentLowerBounds;
+    private long currentUpperBounds;
+
+    private long previousLowerBounds;
+    private long previousUpperBounds;
+
     /**
      * Allocates the stack memory.
      */
@@ -55,9 +84,9 @@ public final class LLVMStack extends LLVMMemory {
         if (!isFreed) {
             throw new AssertionError("previously not deallocated");
         }
-        final long stackAllocation = UNSAFE.allocateMemory(STACK_SIZE_BYTE);
-        lowerBounds = stackAllocation;
-        upperBounds = stackAllocation + STACK_SIZE_BYTE;
+        addSegment(SEGMENT_SIZE_BYTE);
+        upperBounds = segmentUpperBounds[0];
+        setCurrentSegment(0);
         isFreed = false;
         return LLVMAddress.fromLong(upperBounds);
     }
@@ -70,50 +99,130 @@ public final class LLVMStack extends LLVMMemory {
         if (isFreed) {
             throw new AssertionError("already freed");
         }
-        UNSAFE.freeMemory(lowerBounds);
-        lowerBounds = 0;
+        freeSegmentsFrom(0);
         upperBounds = 0;
+        currentLowerBounds = 0;
+        currentUpperBounds = 0;
+        previousLowerBounds = 0;
+        previousUpperBounds = 0;
         isFreed = true;
     }
 
     public static final int NO_ALIGNMENT_REQUIREMENTS = 1;
 
-    public static class AllocationResult {
-        private final LLVMAddress stackPointer;
-        private final LLVMAddress allocatedMemory;
-
-        public AllocationResult(LLVMAddress stackPointer, LLVMAddress allocatedMemory) {
-            this.stackPointer = stackPointer;
-            this.allocatedMemory = allocatedMemory;
-        }
-
-        public LLVMAddress getStackPointer() {
-            return stackPointer;
-        }
-
-        public LLVMAddress getAllocatedMemory() {
-            return allocatedMemory;
-        }
-    }
-
     /**
      * Allocates stack memory.
      *
+     * @param stackPointer the current stack pointer
      * @param size the size of the memory to be allocated, must be greater equals zero
      * @param alignment the alignment, either {@link #NO_ALIGNMENT_REQUIREMENTS} or a power of two.
-     * @return the allocated memory, satisfying the alignment requirements
+     * @return the allocated memory, satisfying the alignment requirements, which is also the new
+     *         stack pointer
      */
-    public AllocationResult allocateMemory(final LLVMAddress stackPointer, final long size, final int alignment) {
+    public long allocateMemory(final long stackPointer, final long size, final int alignment) {
         assert size >= 0;
         assert alignment != 0 && powerOfTo(alignment);
-        final long alignedAllocation = (stackPointer.getVal() - size) & -alignment;
-        LLVMAddress newStackPointer = LLVMAddress.fromLong(alignedAllocation);
-        if (newStackPointer.getVal() < lowerBounds) {
-            CompilerDirectives.transferToInterpreter();
-            throw new StackOverflowError("stack overflow");
+        long alignedAllocation = (stackPointer - size) & -alignment;
+        if (alignedAllocation >= currentLowerBounds && stackPointer <= currentUpperBounds) {
+            return alignedAllocation;
+        }
+        if (stackPointer > previousLowerBounds && stackPointer <= previousUpperBounds) {
+            if (alignedAllocation >= previousLowerBounds) {
+                return alignedAllocation;
+            }
+            // the stack pointer is in the previous segment, so the current one is unused
+            long nextAllocation = (currentUpperBounds - size) & -alignment;
+            if (nextAllocation >= currentLowerBounds) {
+                return nextAllocation;
+            }
+        }
+        return allocateSlowPath(stackPointer, size, alignment);
+    }
+
+    /**
+     * Handles allocations whose stack pointer is not in the current segment (e.g., after
+     * returning from a function that used a deeper segment) or that do not fit into the rest of
+     * the current segment.
+     */
+    @TruffleBoundary
+    private long allocateSlowPath(long sp, long size, int alignment) {
+        int segment = findSegment(sp);
+        if (segment == -1) {
+            throw new AssertionError("stack pointer " + sp + " is not within the stack");
+        }
+        setCurrentSegment(segment);
+        long alignedAllocation = (sp - size) & -alignment;
+        if (alignedAllocation >= currentLowerBounds) {
+            return alignedAllocation;
+        }
+        // all segments after the one of the stack pointer are unused
+        int next = segment + 1;
+        long requiredSize = size + alignment;
+        if (next < segmentCount && segmentUpperBounds[next] - segmentLowerBounds[next] < requiredSize) {
+            freeSegmentsFrom(next);
+        }
+        if (next == segmentCount) {
+            long segmentSize = Math.max(SEGMENT_SIZE_BYTE << Math.min(next, MAX_SEGMENT_GROWTH_SHIFT), requiredSize);
+            segmentSize = Math.min(segmentSize, STACK_SIZE_BYTE - allocatedSize);
+            if (segmentSize < requiredSize) {
+                throw new StackOverflowError("stack overflow");
+            }
+            addSegment(segmentSize);
+        }
+        setCurrentSegment(next);
+        alignedAllocation = (currentUpperBounds - size) & -alignment;
+        assert alignedAllocation >= currentLowerBounds;
+        return alignedAllocation;
+    }
+
+    private int findSegment(long sp) {
+        // a stack pointer at the lower bound of a full segment can also be the upper bound of an
+        // adjacent empty one, prefer the latter
+        for (int i = 0; i < segmentCount; i++) {
+            if (sp > segmentLowerBounds[i] && sp <= segmentUpperBounds[i]) {
+                return i;
+            }
+        }
+        for (int i = 0; i < segmentCount; i++) {
+            if (sp == segmentLowerBounds[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void setCurrentSegment(int segment) {
+        currentLowerBounds = segmentLowerBounds[segment];
+        currentUpperBounds = segmentUpperBounds[segment];
+        if (segment == 0) {
+            previousLowerBounds = 0;
+            previousUpperBounds = 0;
+        } else {
+            previousLowerBounds = segmentLowerBounds[segment - 1];
+            previousUpperBounds = segmentUpperBounds[segment - 1];
+        }
+    }
+
+    private void addSegment(long segmentSize) {
+        if (segmentCount == segmentLowerBounds.length) {
+            segmentLowerBounds = Arrays.copyOf(segmentLowerBounds, segmentCount * 2);
+            segmentUpperBounds = Arrays.copyOf(segmentUpperBounds, segmentCount * 2);
+        }
+        long segmentAllocation = UNSAFE.allocateMemory(segmentSize);
+        segmentLowerBounds[segmentCount] = segmentAllocation;
+        segmentUpperBounds[segmentCount] = segmentAllocation + segmentSize;
+        segmentCount++;
+        allocatedSize += segmentSize;
+    }
+
+    private void freeSegmentsFrom(int segment) {
+        for (int i = segment; i < segmentCount; i++) {
+            UNSAFE.freeMemory(segmentLowerBounds[i]);
+            allocatedSize -= segmentUpperBounds[i] - segmentLowerBounds[i];
+            segmentLowerBounds[i] = 0;
+            segmentUpperBounds[i] = 0;
         }
-        final LLVMAddress allocatedMemory = LLVMAddress.fromLong(alignedAllocation);
-        return new AllocationResult(newStackPointer, allocatedMemory);
+        segmentCount = segment;
     }
 
     private static boolean powerOfTo(int value) {
@@ -99,6 +99,10 @@ public class LLVM {
                     }
                     mainFunction[0] = parserResult.getMainFunction();
                     handleParserResult(context, parserResult);
+                } else if (code.getMimeType().equals(LLVMLanguage.LLVM_BITCODE_MIME_TYPE)) {
+                    LLVMParserResult parserResult = parseBitcodeFile(code, context);
+                    mainFunction[0] = parserResult.getMainFunction();
+                    handleParserResult(context, parserResult);
                 } else if (code.getMimeType().equals(LLVMLanguage.SULONG_LIBRARY_MIME_TYPE)) {
                     final SulongLibrary library = new SulongLibrary(new File(code.getPath()));
 
@@ -148,6 +152,9 @@ public class LLVM {
 
             private void handleParserResult(LLVMContext context, LLVMParserResult result) {
                 context.getFunctionRegistry().register(result.getParsedFunctions());
+                if (LLVMBaseOptionFacade.preResolveNativeSymbols()) {
+                    context.preResolveNativeSymbols();
+                }
                 context.registerStaticInitializer(result.getStaticInits());
                 context.registerStaticDestructor(result.getStaticDestructors());
                 if (!context.isParseOnly()) {
@@ -42,6 +42,9 @@ public class LLVMFileDetector extends FileTypeDetector {
         if (path.getFileName().toString().endsWith("." + LLVMLanguage.LLVM_IR_EXTENSION)) {
             return LLVMLanguage.LLVM_IR_MIME_TYPE;
         }
+        if (path.getFileName().toString().endsWith("." + LLVMLanguage.LLVM_BITCODE_EXTENSION)) {
+            return LLVMLanguage.LLVM_BITCODE_MIME_TYPE;
+        }
         if (path.getFileName().toString().endsWith("." + LLVMLanguage.SULONG_LIBRARY_EXTENSION)) {
             return LLVMLanguage.SULONG_LIBRARY_MIME_TYPE;
         }
@@ -31,36 +31,46 @@ package uk.ac.man.cs.llvm.ir.model.enums;
 
 public enum CompareOperator {
 
-    FP_FALSE,
-    FP_ORDERED_EQUAL,
-    FP_ORDERED_GREATER_THAN,
-    FP_ORDERED_GREATER_OR_EQUAL,
-    FP_ORDERED_LESS_THAN,
-    FP_ORDERED_LESS_OR_EQUAL,
-    FP_ORDERED_NOT_EQUAL,
-    FP_ORDERED,
-    FP_UNORDERED,
-    FP_UNORDERED_EQUAL,
-    FP_UNORDERED_GREATER_THAN,
-    FP_UNORDERED_GREATER_OR_EQUAL,
-    FP_UNORDERED_LESS_THAN,
-    FP_UNORDERED_LESS_OR_EQUAL,
-    FP_UNORDERED_NOT_EQUAL,
-    FP_TRUE,
+    FP_FALSE(false),
+    FP_ORDERED_EQUAL(false),
+    FP_ORDERED_GREATER_THAN(false),
+    FP_ORDERED_GREATER_OR_EQUAL(false),
+    FP_ORDERED_LESS_THAN(false),
+    FP_ORDERED_LESS_OR_EQUAL(false),
+    FP_ORDERED_NOT_EQUAL(false),
+    FP_ORDERED(false),
+    FP_UNORDERED(false),
+    FP_UNORDERED_EQUAL(false),
+    FP_UNORDERED_GREATER_THAN(false),
+    FP_UNORDERED_GREATER_OR_EQUAL(false),
+    FP_UNORDERED_LESS_THAN(false),
+    FP_UNORDERED_LESS_OR_EQUAL(false),
+    FP_UNORDERED_NOT_EQUAL(false),
+    FP_TRUE(false),
 
-    INT_EQUAL,
-    INT_NOT_EQUAL,
-    INT_UNSIGNED_GREATER_THAN,
-    INT_UNSIGNED_GREATER_OR_EQUAL,
-    INT_UNSIGNED_LESS_THAN,
-    INT_UNSIGNED_LESS_OR_EQUAL,
-    INT_SIGNED_GREATER_THAN,
-    INT_SIGNED_GREATER_OR_EQUAL,
-    INT_SIGNED_LESS_THAN,
-    INT_SIGNED_LESS_OR_EQUAL;
+    INT_EQUAL(true),
+    INT_NOT_EQUAL(true),
+    INT_UNSIGNED_GREATER_THAN(true),
+    INT_UNSIGNED_GREATER_OR_EQUAL(true),
+    INT_UNSIGNED_LESS_THAN(true),
+    INT_UNSIGNED_LESS_OR_EQUAL(true),
+    INT_SIGNED_GREATER_THAN(true),
+    INT_SIGNED_GREATER_OR_EQUAL(true),
+    INT_SIGNED_LESS_THAN(true),
+    INT_SIGNED_LESS_OR_EQUAL(true);
 
     private static final long INTEGER_OPERATOR_FLAG = 32L;
 
+    private final boolean isIntegerOperator;
+
+    CompareOperator(boolean isIntegerOperator) {
+        this.isIntegerOperator = isIntegerOperator;
+    }
+
+    public boolean isIntegerOperator() {
+        return isIntegerOperator;
+    }
+
     public static CompareOperator decode(long opcode) {
         CompareOperator[] ops = values();
 